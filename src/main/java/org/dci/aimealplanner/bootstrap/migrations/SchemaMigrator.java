@@ -0,0 +1,145 @@
+package org.dci.aimealplanner.bootstrap.migrations;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned SQL scripts in {@code db/migration} ({@code V<n>__<description>.sql}) in
+ * version order before JPA validates the schema. Each script runs in its own transaction and is
+ * recorded with its checksum in {@code schema_migrations}; editing a script that has already been
+ * applied stops startup. A Postgres advisory lock keeps instances that start together from
+ * applying the same script twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrator implements InitializingBean {
+    private static final String LOCATION = "classpath*:db/migration/*.sql";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long ADVISORY_LOCK_KEY = 0x41494d50L;
+
+    private final DataSource dataSource;
+
+    @Value("${schema.migrations.enabled:true}")
+    private boolean enabled;
+
+    record Script(int version, String description, Resource resource, String checksum) {}
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            log.info("Schema migrations disabled");
+            return;
+        }
+        migrate(scripts());
+    }
+
+    void migrate(List<Script> scripts) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, "SELECT pg_advisory_lock(" + ADVISORY_LOCK_KEY + ")");
+            try {
+                execute(connection, """
+                        CREATE TABLE IF NOT EXISTS schema_migrations (
+                            version      INTEGER PRIMARY KEY,
+                            description  VARCHAR(200) NOT NULL,
+                            checksum     CHAR(64) NOT NULL,
+                            installed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                            execution_ms BIGINT NOT NULL
+                        )""");
+                Map<Integer, String> applied = applied(connection);
+                for (Script script : scripts) {
+                    String checksum = applied.get(script.version());
+                    if (checksum == null) {
+                        apply(connection, script);
+                    } else if (!checksum.equals(script.checksum())) {
+                        throw new IllegalStateException("Migration V" + script.version() + " ("
+                                + script.resource().getFilename() + ") was changed after it had been applied");
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(true);
+                execute(connection, "SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+            }
+        }
+    }
+
+    static List<Script> scripts() throws IOException {
+        Map<Integer, Script> byVersion = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher name = SCRIPT_NAME.matcher(Objects.requireNonNull(resource.getFilename()));
+            if (!name.matches()) continue;
+
+            int version = Integer.parseInt(name.group(1));
+            Script script = new Script(version, name.group(2).replace('_', ' '), resource,
+                    sha256(resource.getContentAsByteArray()));
+            if (byVersion.putIfAbsent(version, script) != null) {
+                throw new IllegalStateException("Duplicate migration version V" + version);
+            }
+        }
+        return List.copyOf(byVersion.values());
+    }
+
+    private void apply(Connection connection, Script script) throws SQLException {
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(script.resource(), StandardCharsets.UTF_8));
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, script.version());
+                insert.setString(2, script.description());
+                insert.setString(3, script.checksum());
+                insert.setLong(4, (System.nanoTime() - started) / 1_000_000);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            log.info("Applied migration V{} {} in {} ms", script.version(), script.description(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration V" + script.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static Map<Integer, String> applied(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rows.next()) applied.put(rows.getInt(1), rows.getString(2));
+        }
+        return applied;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
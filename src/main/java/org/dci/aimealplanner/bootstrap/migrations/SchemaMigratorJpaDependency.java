@@ -0,0 +1,15 @@
+package org.dci.aimealplanner.bootstrap.migrations;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes the entity manager factory wait for {@link SchemaMigrator}, so Hibernate validates the
+ * migrated schema.
+ */
+@Component
+public class SchemaMigratorJpaDependency extends EntityManagerFactoryDependsOnPostProcessor {
+    public SchemaMigratorJpaDependency() {
+        super(SchemaMigrator.class);
+    }
+}
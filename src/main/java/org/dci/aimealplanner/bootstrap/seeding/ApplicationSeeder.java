@@ -1,9 +1,7 @@
 package org.dci.aimealplanner.bootstrap.seeding;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
 import org.dci.aimealplanner.entities.ingredients.Ingredient;
-import org.dci.aimealplanner.entities.ingredients.IngredientUnitRatio;
 import org.dci.aimealplanner.entities.ingredients.Unit;
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.entities.users.User;
@@ -18,18 +16,24 @@ import org.dci.aimealplanner.models.UserType;
 import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
 import org.dci.aimealplanner.services.ingredients.IngredientCategoryService;
 import org.dci.aimealplanner.services.ingredients.IngredientService;
-import org.dci.aimealplanner.services.ingredients.IngredientUnitRatioService;
+import org.dci.aimealplanner.services.ingredients.NutritionDataChangedEvent;
+import org.dci.aimealplanner.services.ingredients.NutritionTable;
+import org.dci.aimealplanner.services.ingredients.NutritionTableService;
 import org.dci.aimealplanner.services.ingredients.UnitService;
 import org.dci.aimealplanner.services.recipes.MealCategoryService;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -41,10 +45,20 @@ public class ApplicationSeeder implements ApplicationRunner {
     private final FoodApiClient foodApiClient;
     private final GroqApiClient  groqApiClient;
     private final IngredientService ingredientService;
-    private final IngredientUnitRatioService ingredientUnitRatioService;
     private final UnitService unitService;
+    private final NutritionTableService nutritionTableService;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final FdcBulkImporter fdcBulkImporter;
+    private final SeedingEngine seedingEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${seeding.fdc.import-path:}")
+    private String fdcImportPath;
+
+    @Value("${seeding.fdc.requests-per-hour:1000}")
+    private int fdcRequestsPerHour;
 
 
 
@@ -54,6 +68,9 @@ public class ApplicationSeeder implements ApplicationRunner {
         // seedMealCategory();
         //retrieveUnits();
         //addAnAdmin();
+        if (!fdcImportPath.isBlank()) {
+            fdcBulkImporter.importIfNew(Path.of(fdcImportPath));
+        }
     }
 
     private void addAnAdmin() {
@@ -68,68 +85,65 @@ public class ApplicationSeeder implements ApplicationRunner {
         }
     }
 
-    private void retrieveUnits() throws JsonProcessingException {
-        List<Ingredient> ingredients = ingredientService.findAll();
-
-
-        ingredients.forEach(ingredient -> {
-            if (!ingredientUnitRatioService.rationExists(ingredient)) {
-                try {
-                    IngredientUnitFromAI ingredientUnitFromAI = groqApiClient.getUnitRatiosForIngredient(ingredient.getName());
-                    List<UnitRatios> unitRatios = ingredientUnitFromAI.getUnits();
-                    unitRatios.forEach(unitRatio -> {
-                        Unit unit = unitService.findByCode(unitRatio.getUnitCode());
-                        IngredientUnitRatio ingredientUnitRatio = new IngredientUnitRatio();
-                        ingredientUnitRatio.setIngredient(ingredient);
-                        ingredientUnitRatio.setUnit(unit);
-                        ingredientUnitRatio.setRatio(Double.valueOf(unitRatio.getGramsPerUnit()));
-                        ingredientUnitRatioService.create(ingredientUnitRatio);
-                    });
-                } catch (JsonProcessingException e) {
-                    throw new RuntimeException(e);
-                }
+    private void retrieveUnits() {
+        NutritionTable table = nutritionTableService.current();
+        List<Long> ingredientIds = ingredientService.findAll().stream().map(Ingredient::getId).toList();
+
+        seedingEngine.<Long, Object[]>run("unit-ratios", ingredientIds, String::valueOf, (ingredientId, output) -> {
+            int index = table.indexOf(ingredientId);
+            if (index >= 0 && !Double.isNaN(table.density(index))) return SeedingEngine.Outcome.SKIPPED;
+
+            Ingredient ingredient = ingredientService.findById(ingredientId);
+            IngredientUnitFromAI ingredientUnitFromAI = groqApiClient.getUnitRatiosForIngredient(ingredient.getName());
+            if (ingredientUnitFromAI == null || ingredientUnitFromAI.getUnits() == null) return SeedingEngine.Outcome.MISSING;
+
+            for (UnitRatios unitRatio : ingredientUnitFromAI.getUnits()) {
+                Optional<Unit> unit = unitService.findOptionalByCode(unitRatio.getUnitCode());
+                Double ratio = parseRatio(unitRatio.getGramsPerUnit());
+                if (unit.isEmpty() || ratio == null) continue;
+                if (index >= 0 && !Double.isNaN(table.gramsPerUnit(index, unit.get().getId()))) continue;
+                output.accept(new Object[]{ingredientId, unit.get().getId(), ratio});
             }
+            return SeedingEngine.Outcome.DONE;
+        }, this::insertUnitRatios);
+    }
 
-        });
+    private void insertUnitRatios(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO ingredient_unit_ratio (ingredient_id, unit_id, ratio)
+                SELECT ?, ?, ?
+                 WHERE NOT EXISTS (SELECT 1 FROM ingredient_unit_ratio r WHERE r.ingredient_id = ? AND r.unit_id = ?)""",
+                rows.stream().map(r -> new Object[]{r[0], r[1], r[2], r[0], r[1]}).toList());
+        rows.stream().map(r -> (Long) r[0]).distinct()
+                .forEach(id -> eventPublisher.publishEvent(new NutritionDataChangedEvent(id, null)));
+    }
 
+    private static Double parseRatio(String gramsPerUnit) {
+        try {
+            double ratio = Double.parseDouble(gramsPerUnit.trim());
+            return ratio > 0 && Double.isFinite(ratio) ? ratio : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     private void seedIngredients() {
-        List<String> seeds = IngredientSeedData.commonIngredients();
-
-        int createdOrUpdated = 0;
-        int skipped = 0;
-        int missing = 0;
-        int failed = 0;
-
-        for (String name : seeds) {
-            try {
-                if (ingredientService.exists(name)) {
-                    skipped++;
-                    continue;
-                }
-                Optional<FoodItem> apiIngredientObject = foodApiClient.searchFood(name);
-                if (apiIngredientObject.isEmpty()) {
-                    missing++;
-                    log.warn("No USDA hit for '{}'", name);
-                    continue;
-                }
-
-                if (!apiIngredientObject.get().allNutritionFactsAvailable()) {
-                    skipped++;
-                    continue;
-                }
-
-                ingredientService.upsertFromUsda(name, apiIngredientObject.get());
-                createdOrUpdated++;
-
-            } catch (Exception e) {
-                failed++;
-                log.warn("Failed seeding '{}': {}", name, e.getMessage());
+        Throttle fdcCalls = new Throttle(fdcRequestsPerHour);
+
+        seedingEngine.run("usda-ingredients", IngredientSeedData.commonIngredients(), name -> name, (name, output) -> {
+            if (ingredientService.exists(name)) return SeedingEngine.Outcome.SKIPPED;
+
+            fdcCalls.acquire();
+            Optional<FoodItem> apiIngredientObject = foodApiClient.searchFood(name);
+            if (apiIngredientObject.isEmpty()) {
+                log.warn("No USDA hit for '{}'", name);
+                return SeedingEngine.Outcome.MISSING;
             }
-            log.info("Seeding summary: created/updated={}, skipped={}, missing={}, failed={}",
-                    createdOrUpdated, skipped, missing, failed);
-        }
+            if (!apiIngredientObject.get().allNutritionFactsAvailable()) return SeedingEngine.Outcome.SKIPPED;
+
+            ingredientService.upsertFromUsda(name, apiIngredientObject.get());
+            return SeedingEngine.Outcome.DONE;
+        });
     }
 
 }
@@ -0,0 +1,174 @@
+package org.dci.aimealplanner.bootstrap.seeding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.entities.ingredients.IngredientCategory;
+import org.dci.aimealplanner.entities.ingredients.NutritionFact;
+import org.dci.aimealplanner.integration.foodapi.FdcDumpReader;
+import org.dci.aimealplanner.integration.foodapi.dto.FoodItem;
+import org.dci.aimealplanner.repositories.ingredients.IngredientRepository;
+import org.dci.aimealplanner.services.ingredients.IngredientCategoryService;
+import org.dci.aimealplanner.services.ingredients.IngredientNameChangedEvent;
+import org.dci.aimealplanner.services.ingredients.IngredientNameIndexService;
+import org.dci.aimealplanner.services.ingredients.NutritionDataChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Types;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Loads ingredients from a local FoodData Central dump (see {@link FdcDumpReader}) in JDBC
+ * batches of {@value #BATCH_SIZE}, each committed on its own. Foods without all six nutrition
+ * facts and names that already exist, ignoring case, are skipped. A completed import is recorded in
+ * {@code seeding_progress} under a fingerprint of the dump's files (name, size, modification time),
+ * so {@link #importIfNew} does not read the same dump again on every start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FdcBulkImporter {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MIN_NAME_LENGTH = 2;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final String JOB = "fdc-import";
+
+    private static final String INSERT = """
+            WITH fact AS (
+                INSERT INTO nutrition_facts (kcal, protein, carbs, fat, fiber, sugar)
+                VALUES (?, ?, ?, ?, ?, ?)
+                RETURNING id)
+            INSERT INTO ingredients (name, category_id, nutrition_fact_id)
+            SELECT ?, ?, id FROM fact""";
+    private static final int[] INSERT_TYPES = {
+            Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+            Types.VARCHAR, Types.BIGINT};
+
+    private final FdcDumpReader fdcDumpReader;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final IngredientRepository ingredientRepository;
+    private final IngredientCategoryService ingredientCategoryService;
+    private final IngredientNameIndexService ingredientNameIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public record Summary(int read, int inserted, int duplicates, int incomplete, int invalidName, long millis) {}
+
+    public Optional<Summary> importIfNew(Path path) throws IOException {
+        String fingerprint = fingerprint(path);
+        Integer imported = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seeding_progress WHERE job = ? AND item_key = ? AND status = 'DONE'",
+                Integer.class, JOB, fingerprint);
+        if (imported != null && imported > 0) {
+            log.info("FDC dump {} was already imported, skipping it", path);
+            return Optional.empty();
+        }
+
+        Summary summary = importFrom(path);
+        jdbcTemplate.update("""
+                INSERT INTO seeding_progress (job, item_key, status, detail)
+                VALUES (?, ?, 'DONE', ?)
+                ON CONFLICT (job, item_key) DO UPDATE
+                   SET status = EXCLUDED.status, detail = EXCLUDED.detail, updated_at = now()""",
+                JOB, fingerprint, path + ": " + summary);
+        return Optional.of(summary);
+    }
+
+    public Summary importFrom(Path path) throws IOException {
+        long started = System.nanoTime();
+        Set<String> existing = new HashSet<>();
+        ingredientRepository.findAllProjectedBy().forEach(i -> existing.add(i.getName().toLowerCase(Locale.ROOT)));
+
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (IngredientCategory category : ingredientCategoryService.findAll()) {
+            categoryIds.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getId());
+        }
+        Long fallbackCategoryId = ingredientCategoryService.findCategory(null, null).getId();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int[] counts = new int[5];
+        fdcDumpReader.read(path, food -> {
+            counts[0]++;
+            if (!food.allNutritionFactsAvailable()) {
+                counts[3]++;
+                return;
+            }
+            String name = food.getDescription() == null ? "" : food.getDescription().strip().replaceAll("\\s+", " ");
+            if (name.length() < MIN_NAME_LENGTH || name.length() > MAX_NAME_LENGTH) {
+                counts[4]++;
+                return;
+            }
+            if (!existing.add(name.toLowerCase(Locale.ROOT))) {
+                counts[2]++;
+                return;
+            }
+
+            batch.add(row(food, name, categoryId(food, categoryIds, fallbackCategoryId)));
+            if (batch.size() == BATCH_SIZE) counts[1] += flush(batch, transaction);
+        });
+        counts[1] += flush(batch, transaction);
+
+        if (counts[1] > 0) {
+            eventPublisher.publishEvent(new NutritionDataChangedEvent(null, null));
+            eventPublisher.publishEvent(new IngredientNameChangedEvent(null, null, false));
+            ingredientNameIndexService.invalidate();
+        }
+
+        Summary summary = new Summary(counts[0], counts[1], counts[2], counts[3], counts[4],
+                (System.nanoTime() - started) / 1_000_000);
+        log.info("FDC import from {}: {}", path, summary);
+        return summary;
+    }
+
+    private Long categoryId(FoodItem food, Map<String, Long> categoryIds, Long fallbackCategoryId) {
+        String canonical = ingredientCategoryService.canonicalName(food.getFoodCategory(), food.getDescription());
+        if (canonical == null) return fallbackCategoryId;
+        return categoryIds.getOrDefault(canonical.toLowerCase(Locale.ROOT), fallbackCategoryId);
+    }
+
+    private static Object[] row(FoodItem food, String name, Long categoryId) {
+        NutritionFact fact = food.toNutritionFact();
+        return new Object[]{fact.getKcal(), fact.getProtein(), fact.getCarbs(), fact.getFat(),
+                fact.getFiber(), fact.getSugar(), name, categoryId};
+    }
+
+    private static String fingerprint(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> listed = Files.list(path)) {
+                files = listed.filter(Files::isRegularFile).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Path file : files) {
+                String entry = file.getFileName() + "|" + Files.size(file) + "|" + Files.getLastModifiedTime(file).toMillis() + "\n";
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int flush(List<Object[]> batch, TransactionTemplate transaction) {
+        if (batch.isEmpty()) return 0;
+        int size = batch.size();
+        transaction.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT, batch, INSERT_TYPES));
+        batch.clear();
+        return size;
+    }
+}
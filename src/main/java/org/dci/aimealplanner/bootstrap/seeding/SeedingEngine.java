@@ -0,0 +1,134 @@
+package org.dci.aimealplanner.bootstrap.seeding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a seeding job over a list of items on virtual threads, at most
+ * {@code seeding.concurrency} at a time; remote calls made by the items are expected to go
+ * through a shared limiter such as {@code GroqRateLimiter} or a {@link Throttle}. Finished items
+ * are checkpointed in {@code seeding_progress} and skipped when the job runs again, so a crashed
+ * run resumes where it stopped. Rows the items produce are written in batches, in the same
+ * transaction as the checkpoints of the items that produced them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeedingEngine {
+    private static final int FLUSH_EVERY_ITEMS = 100;
+    private static final int MAX_DETAIL_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${seeding.concurrency:8}")
+    private int concurrency;
+
+    public enum Outcome { DONE, SKIPPED, MISSING, FAILED }
+
+    @FunctionalInterface
+    public interface SeedTask<T, R> {
+        Outcome run(T item, Consumer<R> output) throws Exception;
+    }
+
+    public record Summary(String job, int total, int resumed, Map<Outcome, Integer> outcomes, long millis) {}
+
+    private record Finished<R>(String key, Outcome outcome, String detail, List<R> rows) {}
+
+    public <T> Summary run(String job, List<T> items, Function<T, String> keyOf, SeedTask<T, Void> task) {
+        return run(job, items, keyOf, task, rows -> {});
+    }
+
+    public <T, R> Summary run(String job, List<T> items, Function<T, String> keyOf,
+                              SeedTask<T, R> task, Consumer<List<R>> writeRows) {
+        long started = System.nanoTime();
+        Set<String> finished = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT item_key FROM seeding_progress WHERE job = ? AND status IN ('DONE', 'SKIPPED')",
+                String.class, job));
+
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        List<Finished<R>> pending = new ArrayList<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        int resumed = 0;
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(job + "-", 0).factory())) {
+            for (T item : items) {
+                String key = keyOf.apply(item);
+                if (finished.contains(key)) {
+                    resumed++;
+                    continue;
+                }
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        Finished<R> result = runOne(key, item, task);
+                        synchronized (pending) {
+                            outcomes.merge(result.outcome(), 1, Integer::sum);
+                            pending.add(result);
+                            if (pending.size() >= FLUSH_EVERY_ITEMS) flush(job, pending, writeRows, transaction);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        synchronized (pending) {
+            flush(job, pending, writeRows, transaction);
+        }
+
+        Summary summary = new Summary(job, items.size(), resumed, outcomes, (System.nanoTime() - started) / 1_000_000);
+        log.info("Seeding job {} finished: {}", job, summary);
+        return summary;
+    }
+
+    private static <T, R> Finished<R> runOne(String key, T item, SeedTask<T, R> task) {
+        List<R> rows = new ArrayList<>();
+        try {
+            return new Finished<>(key, task.run(item, rows::add), null, rows);
+        } catch (Exception e) {
+            log.warn("Seeding item '{}' failed: {}", key, e.getMessage());
+            return new Finished<>(key, Outcome.FAILED, String.valueOf(e.getMessage()), List.of());
+        }
+    }
+
+    private <R> void flush(String job, List<Finished<R>> pending, Consumer<List<R>> writeRows,
+                           TransactionTemplate transaction) {
+        if (pending.isEmpty()) return;
+        List<R> rows = new ArrayList<>();
+        List<Object[]> checkpoints = new ArrayList<>(pending.size());
+        for (Finished<R> result : pending) {
+            rows.addAll(result.rows());
+            String detail = result.detail() == null ? null
+                    : result.detail().substring(0, Math.min(result.detail().length(), MAX_DETAIL_LENGTH));
+            checkpoints.add(new Object[]{job, result.key(), result.outcome().name(), detail});
+        }
+        try {
+            transaction.executeWithoutResult(tx -> {
+                if (!rows.isEmpty()) writeRows.accept(rows);
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO seeding_progress (job, item_key, status, detail)
+                        VALUES (?, ?, ?, ?)
+                        ON CONFLICT (job, item_key) DO UPDATE
+                           SET status = EXCLUDED.status, detail = EXCLUDED.detail, updated_at = now()""",
+                        checkpoints);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Seeding job {}: could not write {} item(s), they will run again: {}", job, pending.size(), e.getMessage());
+        }
+        pending.clear();
+    }
+}
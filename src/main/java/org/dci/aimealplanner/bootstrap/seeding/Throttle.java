@@ -0,0 +1,20 @@
+package org.dci.aimealplanner.bootstrap.seeding;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Spaces calls shared by many threads evenly, at most {@code perHour} per hour. */
+final class Throttle {
+    private final long intervalNanos;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    Throttle(int perHour) {
+        this.intervalNanos = TimeUnit.HOURS.toNanos(1) / Math.max(1, perHour);
+    }
+
+    void acquire() throws InterruptedException {
+        long slot = nextSlot.getAndUpdate(next -> Math.max(next, System.nanoTime()) + intervalNanos);
+        long waitNanos = slot - System.nanoTime();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+}
@@ -4,19 +4,25 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.dci.aimealplanner.models.Role;
 import org.dci.aimealplanner.models.SourceType;
+import org.dci.aimealplanner.models.admin.AiUsageFeatureDTO;
 import org.dci.aimealplanner.services.admin.AdminDashboardService;
+import org.dci.aimealplanner.services.admin.AiUsageReportService;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserInformationService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @Controller
 @RequestMapping("/admin")
 @RequiredArgsConstructor
@@ -25,6 +31,7 @@ public class AdminDashboardController {
     private final AdminDashboardService adminOverviewService;
     private final RecipeService recipeService;
     private final AdminDashboardService adminDashboardService;
+    private final AiUsageReportService aiUsageReportService;
 
 
     @GetMapping
@@ -40,6 +47,11 @@ public class AdminDashboardController {
         model.addAttribute("activeUsers", adminOverviewService.activeUsers());
         model.addAttribute("totalRecipes", adminOverviewService.totalRecipes());
         model.addAttribute("totalMealPlans", adminOverviewService.totalMealPlans());
+        Map<String, List<AiUsageFeatureDTO>> aiUsage = new LinkedHashMap<>();
+        aiUsage.put("Today", aiUsageReportService.usageByFeature(LocalDate.now()));
+        aiUsage.put("Last 7 days", aiUsageReportService.usageByFeature(LocalDate.now().minusDays(6)));
+        model.addAttribute("aiUsage", aiUsage);
+        model.addAttribute("aiTopUsersToday", aiUsageReportService.topUsers(LocalDate.now(), 10));
         model.addAttribute("backUrl", request.getHeader("Referer"));
 
         return "dashboard/admin/overview";
@@ -47,7 +59,7 @@ public class AdminDashboardController {
 
     @GetMapping("/recipes")
     public String adminRecipes(@RequestParam(defaultValue = "ALL") String source,
-                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(required = false) String cursor,
                                @RequestParam(defaultValue = "10") int size,
                                Model model,
                                HttpServletRequest request) {
@@ -59,11 +71,13 @@ public class AdminDashboardController {
         model.addAttribute("countAI", adminOverviewService.countAiRecipes());
 
 
-        switch (source.toUpperCase()) {
-            case "USER" -> model.addAttribute("page", adminOverviewService.findRecipes(SourceType.USER, page, size));
-            case "AI" -> model.addAttribute("page", adminOverviewService.findRecipes(SourceType.AI, page, size));
-            default -> model.addAttribute("page", adminOverviewService.findRecipes(null, page, size));
-        }
+        SourceType sourceType = switch (source.toUpperCase()) {
+            case "USER" -> SourceType.USER;
+            case "AI" -> SourceType.AI;
+            default -> null;
+        };
+        addSlice(model, adminOverviewService.findRecipes(sourceType, PageCursor.decode(cursor), size), cursor,
+                recipe -> PageCursor.of(recipe.getId()));
         model.addAttribute("source", source.toUpperCase());
 
         return "dashboard/admin/recipes";
@@ -87,7 +101,7 @@ public class AdminDashboardController {
     public String adminUsers(@RequestParam(defaultValue = "ALL") String filter,
                              @RequestParam(defaultValue = "ANY") String provider,
                              @RequestParam(defaultValue = "") String q,
-                             @RequestParam(defaultValue = "0") int page,
+                             @RequestParam(required = false) String cursor,
                              @RequestParam(defaultValue = "10") int size,
                              Model model,
                              HttpServletRequest request) {
@@ -99,7 +113,8 @@ public class AdminDashboardController {
         model.addAttribute("countUnverified", adminDashboardService.countUnverifiedUsers());
         model.addAttribute("countDeleted", adminDashboardService.countDeletedUsers());
 
-        model.addAttribute("page", adminDashboardService.findUsers(filter, provider, q, page, size));
+        addSlice(model, adminDashboardService.findUsers(filter, provider, q, PageCursor.decode(cursor), size), cursor,
+                user -> PageCursor.of(user.getId()));
 
         model.addAttribute("filter", filter.toUpperCase());
         model.addAttribute("provider", provider.toUpperCase());
@@ -162,26 +177,17 @@ public class AdminDashboardController {
         return "redirect:" + (referer != null ? referer : "/admin/users");
     }
 
-    public Page<org.dci.aimealplanner.entities.recipes.Recipe> findRecipes(
-            SourceType sourceType, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-        if (sourceType == null) {
-            return recipeService.findAll(pageable);
-        }
-        return recipeService.findBySource(sourceType, pageable);
-    }
-
-
     @GetMapping("/meal-plans")
     public String adminMealPlans(@RequestParam(defaultValue = "") String q,
-                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(required = false) String cursor,
                                  @RequestParam(defaultValue = "10") int size,
                                  Model model,
                                  HttpServletRequest request) {
         model.addAttribute("backUrl", request.getHeader("Referer"));
 
         model.addAttribute("totalMealPlans", adminDashboardService.totalMealPlans());
-        model.addAttribute("page", adminDashboardService.findMealPlansSimple(q, page, size));
+        addSlice(model, adminDashboardService.findMealPlansSimple(q, PageCursor.decode(cursor), size), cursor,
+                plan -> PageCursor.of(plan.getId()));
         model.addAttribute("q", q);
 
         return "dashboard/admin/meal-plans";
@@ -214,4 +220,10 @@ public class AdminDashboardController {
 
         return "dashboard/admin/meal-plan-view";
     }
+
+    private static <T> void addSlice(Model model, Slice<T> slice, String cursor, Function<T, PageCursor> key) {
+        model.addAttribute("page", slice);
+        model.addAttribute("firstPage", PageCursor.decode(cursor) == null);
+        model.addAttribute("nextCursor", PageCursor.next(slice, key));
+    }
 }
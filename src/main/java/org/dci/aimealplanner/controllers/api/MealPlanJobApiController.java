@@ -0,0 +1,36 @@
+package org.dci.aimealplanner.controllers.api;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.controllers.auth.AuthUtils;
+import org.dci.aimealplanner.entities.users.User;
+import org.dci.aimealplanner.models.planning.AiPlanJobStatusDTO;
+import org.dci.aimealplanner.services.planning.AiPlanJobService;
+import org.dci.aimealplanner.services.users.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/meal-plans/ai-jobs")
+@RequiredArgsConstructor
+public class MealPlanJobApiController {
+    private final AiPlanJobService aiPlanJobService;
+    private final UserService userService;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<AiPlanJobStatusDTO> status(@PathVariable String jobId, Authentication authentication) {
+        User user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
+        return ResponseEntity.of(aiPlanJobService.findStatus(jobId, user.getId()));
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String jobId, Authentication authentication) {
+        User user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
+        return ResponseEntity.of(aiPlanJobService.subscribe(jobId, user.getId()));
+    }
+}
@@ -5,11 +5,11 @@ import org.dci.aimealplanner.controllers.auth.AuthUtils;
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.models.SourceType;
 import org.dci.aimealplanner.models.recipes.RecipeCardDTO;
+import org.dci.aimealplanner.models.recipes.RecipeCardSliceDTO;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,24 +27,26 @@ public class MyRecipesApiController {
 
     @GetMapping("/my-recipes")
     @PreAuthorize("isAuthenticated()")
-    public Page<RecipeCardDTO> myRecipes(Authentication authentication,
-                                         @RequestParam(defaultValue = "0") int page,
-                                         @RequestParam(defaultValue = "12") int size) {
-        var user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
-        var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        return recipeService.findByAuthorAndSourceType(user.getId(), SourceType.USER, pageable)
-                .map(this::toCard);
+    public RecipeCardSliceDTO myRecipes(Authentication authentication,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "12") int size) {
+        return cards(authentication, SourceType.USER, cursor, size);
     }
 
     @GetMapping("/ai-recipes")
     @PreAuthorize("isAuthenticated()")
-    public Page<RecipeCardDTO> myAiRecipes(Authentication authentication,
-                                           @RequestParam(defaultValue = "0") int page,
-                                           @RequestParam(defaultValue = "12") int size) {
+    public RecipeCardSliceDTO myAiRecipes(Authentication authentication,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "12") int size) {
+        return cards(authentication, SourceType.AI, cursor, size);
+    }
+
+    private RecipeCardSliceDTO cards(Authentication authentication, SourceType sourceType, String cursor, int size) {
         var user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
-        var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        return recipeService.findByAuthorAndSourceType(user.getId(), SourceType.AI, pageable)
-                .map(this::toCard);
+        Slice<Recipe> recipes = recipeService.findByAuthorAndSourceType(
+                user.getId(), sourceType, PageCursor.decode(cursor), size);
+        return new RecipeCardSliceDTO(recipes.map(this::toCard).getContent(), recipes.hasNext(),
+                PageCursor.next(recipes, recipe -> PageCursor.of(recipe.getId())));
     }
 
     private RecipeCardDTO toCard(Recipe r) {
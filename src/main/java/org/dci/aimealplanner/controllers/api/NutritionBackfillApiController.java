@@ -0,0 +1,26 @@
+package org.dci.aimealplanner.controllers.api;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.models.recipes.NutritionBackfillStatusDTO;
+import org.dci.aimealplanner.services.recipes.NutritionBackfillService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/nutrition-backfill")
+@RequiredArgsConstructor
+public class NutritionBackfillApiController {
+    private final NutritionBackfillService nutritionBackfillService;
+
+    @GetMapping
+    public NutritionBackfillStatusDTO status() {
+        return nutritionBackfillService.getStatus();
+    }
+
+    @PostMapping
+    public NutritionBackfillStatusDTO enqueue(@RequestParam("ingredientIds") List<Long> ingredientIds) {
+        nutritionBackfillService.enqueue(ingredientIds);
+        return nutritionBackfillService.getStatus();
+    }
+}
@@ -4,9 +4,15 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.controllers.auth.AuthUtils;
+import org.dci.aimealplanner.exceptions.AiBudgetExceededException;
+import org.dci.aimealplanner.exceptions.GroqUnavailableException;
+import org.dci.aimealplanner.integration.aiapi.AiUsageContext;
 import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.IngredientFromAI;
 import org.dci.aimealplanner.services.ingredients.IngredientAiService;
 import org.dci.aimealplanner.services.ingredients.IngredientService;
+import org.dci.aimealplanner.services.users.UserService;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
@@ -27,12 +33,14 @@ public class IngredientController {
     private final IngredientService ingredientService;
     private final IngredientAiService ingredientAiService;
     private final ObjectMapper objectMapper;
+    private final UserService userService;
 
     @GetMapping("/new-ai")
     public String newIngredientAi(
             @RequestParam(name = "name", required = false) String name,
             @RequestParam(name = "return", required = false) String returnUrl,
             HttpServletRequest request,
+            Authentication authentication,
             Model model
     ) {
         String fallback = "/";
@@ -57,7 +65,8 @@ public class IngredientController {
         }
 
         try {
-            IngredientFromAI ai = ingredientAiService.previewFromAi(userInput);
+            Long userId = userService.findByEmail(AuthUtils.getUserEmail(authentication)).getId();
+            IngredientFromAI ai = AiUsageContext.callAs(userId, () -> ingredientAiService.previewFromAi(userInput));
             String aiJson = objectMapper.writeValueAsString(ai);
 
             model.addAttribute("name", userInput);
@@ -65,6 +74,11 @@ public class IngredientController {
             model.addAttribute("ai", ai);
             model.addAttribute("aiJson", aiJson);
             return "ingredients/new-ai-preview";
+        } catch (AiBudgetExceededException | GroqUnavailableException ex) {
+            model.addAttribute("name", userInput);
+            model.addAttribute("returnUrl", resolvedReturn);
+            model.addAttribute("error", ex.getMessage());
+            return "ingredients/new-ai-preview";
         } catch (Exception ex) {
             model.addAttribute("name", userInput);
             model.addAttribute("returnUrl", resolvedReturn);
@@ -9,7 +9,7 @@ import org.dci.aimealplanner.entities.users.User;
 import org.dci.aimealplanner.models.planning.AddMealEntryDTO;
 import org.dci.aimealplanner.models.planning.CreateMealPlanDTO;
 import org.dci.aimealplanner.models.recipes.MealSlot;
-import org.dci.aimealplanner.services.planning.MealPlanAiService;
+import org.dci.aimealplanner.services.planning.AiPlanJobService;
 import org.dci.aimealplanner.services.planning.MealPlanningService;
 import org.dci.aimealplanner.services.users.UserInformationService;
 import org.dci.aimealplanner.services.users.UserService;
@@ -31,7 +31,7 @@ public class MealPlanController {
     private final MealPlanningService mealPlanningService;
     private final UserService userService;
     private final UserInformationService userInformationService;
-    private final MealPlanAiService mealPlanAiService;
+    private final AiPlanJobService aiPlanJobService;
 
     @GetMapping
     public String list(Model model, Authentication authentication,
@@ -90,14 +90,26 @@ public class MealPlanController {
         String email = AuthUtils.getUserEmail(authentication);
         User loggedUser = userService.findByEmail(email);
         try {
-            mealPlanAiService.populatePlanWithAi(id, loggedUser);
-            ra.addFlashAttribute("success", "Plan populated with AI-generated recipes.");
+            aiPlanJobService.start(id, loggedUser);
         } catch (Exception e) {
             ra.addFlashAttribute("error", e.getMessage());
         }
         return "redirect:/meal-plans/" + id;
     }
 
+    @PostMapping("/{id}/ai-jobs/{jobId}/cancel")
+    public String cancelAiPopulate(@PathVariable Long id,
+                                   @PathVariable String jobId,
+                                   Authentication authentication,
+                                   RedirectAttributes ra) {
+        String email = AuthUtils.getUserEmail(authentication);
+        User loggedUser = userService.findByEmail(email);
+        if (aiPlanJobService.cancel(jobId, loggedUser.getId())) {
+            ra.addFlashAttribute("success", "AI generation cancelled. Meals finished so far were kept.");
+        }
+        return "redirect:/meal-plans/" + id;
+    }
+
     @GetMapping("/{id}")
     public String showMealPlanDetail(@PathVariable Long id,
                                      Authentication authentication,
@@ -114,6 +126,7 @@ public class MealPlanController {
             model.addAttribute("mealPlan", plan);
             model.addAttribute("entriesByDate", entriesByDate);
             model.addAttribute("mealSlots", MealSlot.values());
+            model.addAttribute("aiJob", aiPlanJobService.findActiveForPlan(id, loggedUser.getId()).orElse(null));
             model.addAttribute("addEntry", new AddMealEntryDTO(
                     plan.getId(), plan.getStartDate(), MealSlot.BREAKFAST, null, null
             ));
@@ -7,6 +7,7 @@ import org.dci.aimealplanner.controllers.auth.AuthUtils;
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.entities.users.User;
 import org.dci.aimealplanner.entities.users.UserInformation;
+import org.dci.aimealplanner.integration.aiapi.AiUsageContext;
 import org.dci.aimealplanner.integration.aiapi.GroqApiClient;
 import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
 import org.dci.aimealplanner.models.Difficulty;
@@ -16,12 +17,14 @@ import org.dci.aimealplanner.models.recipes.RecipeViewDTO;
 import org.dci.aimealplanner.models.recipes.UpdateRecipeDTO;
 import org.dci.aimealplanner.models.users.UserBasicDTO;
 import org.dci.aimealplanner.services.ingredients.IngredientCategoryService;
+import org.dci.aimealplanner.services.recipes.AiRecipeStreamService;
 import org.dci.aimealplanner.services.recipes.MealCategoryService;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserInformationService;
 import org.dci.aimealplanner.services.users.UserService;
+import org.dci.aimealplanner.services.utils.PageCursor;
 import org.dci.aimealplanner.services.utils.PdfService;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -32,6 +35,7 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -47,6 +51,7 @@ public class RecipeController {
     private final UserInformationService userInformationService;
     private final PdfService pdfService;
     private final GroqApiClient groqApiClient;
+    private final AiRecipeStreamService aiRecipeStreamService;
 
     @GetMapping
     public String showRecipes(@RequestParam(required = false) String title,
@@ -54,14 +59,14 @@ public class RecipeController {
                               @RequestParam(required = false) Difficulty difficulty,
                               @RequestParam(required = false) Set<Long> ingredientIds,
                               @RequestParam(required = false) Set<Long> categoryIds,
-                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(required = false) String cursor,
                               @RequestParam(defaultValue = "6") int size,
                               Authentication authentication,
                               Model model) {
-        Page<Recipe> recipesPage = recipeService.filterRecipes(title,
+        Slice<Recipe> recipesPage = recipeService.filterRecipes(title,
                 categoryIds, ingredientIds,
                 preparationTime, difficulty,
-                page, size, SourceType.USER);
+                PageCursor.decode(cursor), size, SourceType.USER);
 
         Set<Long> authorIds = recipesPage.getContent().stream()
                 .map(r -> r.getAuthor().getId())
@@ -78,9 +83,9 @@ public class RecipeController {
 
         model.addAttribute("authorsMap", authors);
         model.addAttribute("recipesPage", recipesPage);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("hasPrevious", recipesPage.hasPrevious());
-        model.addAttribute("hasNext", recipesPage.hasNext());
+        model.addAttribute("firstPage", PageCursor.decode(cursor) == null);
+        model.addAttribute("nextCursor", PageCursor.next(recipesPage,
+                recipe -> PageCursor.of(recipe.getTitle(), recipe.getId())));
         model.addAttribute("size", size);
         model.addAttribute("categories", mealCategoryService.findAll());
         model.addAttribute("difficulties", Difficulty.values());
@@ -198,9 +203,10 @@ public class RecipeController {
     }
 
     @PostMapping("/generate")
-    public String generate(@RequestParam String prompt, Model model) {
+    public String generate(@RequestParam String prompt, Model model, Authentication authentication) {
         try {
-            RecipeFromAI aiRecipe = groqApiClient.generateRecipeFromPrompt(prompt);
+            User user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
+            RecipeFromAI aiRecipe = AiUsageContext.callAs(user.getId(), () -> groqApiClient.generateRecipeFromPrompt(prompt));
             model.addAttribute("aiRecipe", aiRecipe);
             return "recipes/generate";
         } catch (Exception e) {
@@ -209,6 +215,20 @@ public class RecipeController {
         }
     }
 
+    @PostMapping("/generate/live")
+    public String generateLive(@RequestParam String prompt, Model model, Authentication authentication) {
+        User user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
+        model.addAttribute("streamJobId", aiRecipeStreamService.register(prompt, user.getId()));
+        return "recipes/generate";
+    }
+
+    @GetMapping(value = "/generate/stream/{jobId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> generateStream(@PathVariable String jobId, Authentication authentication) {
+        User user = userService.findByEmail(AuthUtils.getUserEmail(authentication));
+        return ResponseEntity.of(aiRecipeStreamService.stream(jobId, user.getId()));
+    }
+
     private void prepareFormModel(Model model, String redirectUrl) {
         model.addAttribute("difficulties", Difficulty.values());
         model.addAttribute("categories", mealCategoryService.findAll());
@@ -11,9 +11,8 @@ import org.dci.aimealplanner.models.users.UserBasicDTO;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserInformationService;
 import org.dci.aimealplanner.services.users.UserService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -33,39 +32,40 @@ public class MyRecipesController {
 
     @GetMapping("/my")
     @PreAuthorize("isAuthenticated()")
-    public String myRecipesPage(@RequestParam(defaultValue = "0") int page,
+    public String myRecipesPage(@RequestParam(required = false) String cursor,
                                 @RequestParam(defaultValue = "12") int size,
                                 Authentication authentication,
                                 Model model) {
         return renderList(SourceType.USER, "My Recipes", "/dashboard/recipes/my",
-                page, size, authentication, model);
+                cursor, size, authentication, model);
     }
 
     @GetMapping("/ai")
     @PreAuthorize("isAuthenticated()")
-    public String aiRecipesPage(@RequestParam(defaultValue = "0") int page,
+    public String aiRecipesPage(@RequestParam(required = false) String cursor,
                                 @RequestParam(defaultValue = "12") int size,
                                 Authentication authentication,
                                 Model model) {
         return renderList(SourceType.AI, "AI Recipes for Me", "/dashboard/recipes/ai",
-                page, size, authentication, model);
+                cursor, size, authentication, model);
     }
 
     private String renderList(SourceType sourceType,
                               String title,
                               String basePath,
-                              int page, int size,
+                              String cursor, int size,
                               Authentication authentication,
                               Model model) {
         UserBasicDTO current = userInformationService.getUserBasicDTO(authentication);
-        var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        Page<Recipe> recipesPage = recipeService.findByAuthorAndSourceType
-                (current.id(), sourceType, pageable);
+        Slice<Recipe> recipesPage = recipeService.findByAuthorAndSourceType
+                (current.id(), sourceType, PageCursor.decode(cursor), size);
 
         model.addAttribute("title", title);
         model.addAttribute("scope", sourceType == SourceType.USER ? "my" : "ai");
         model.addAttribute("basePath", basePath);
         model.addAttribute("page", recipesPage);
+        model.addAttribute("firstPage", PageCursor.decode(cursor) == null);
+        model.addAttribute("nextCursor", PageCursor.next(recipesPage, recipe -> PageCursor.of(recipe.getId())));
         return "dashboard/recipes/my";
     }
 
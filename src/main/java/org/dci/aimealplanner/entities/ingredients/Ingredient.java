@@ -7,10 +7,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.dci.aimealplanner.services.ingredients.NutritionDataListener;
 
 import java.util.List;
 
 @Entity(name = "ingredients")
+@EntityListeners(NutritionDataListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -2,8 +2,10 @@ package org.dci.aimealplanner.entities.ingredients;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.dci.aimealplanner.services.ingredients.NutritionDataListener;
 
 @Entity
+@EntityListeners(NutritionDataListener.class)
 @Table(name = "ingredient_unit_ratio")
 @AllArgsConstructor
 @NoArgsConstructor
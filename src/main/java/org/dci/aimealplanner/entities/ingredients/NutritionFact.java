@@ -1,6 +1,7 @@
 package org.dci.aimealplanner.entities.ingredients;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,8 +10,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.dci.aimealplanner.services.ingredients.NutritionDataListener;
 
 @Entity(name = "nutrition_facts")
+@EntityListeners(NutritionDataListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -9,6 +9,7 @@ import lombok.Setter;
 import org.dci.aimealplanner.entities.users.User;
 import org.dci.aimealplanner.models.Difficulty;
 import org.dci.aimealplanner.models.SourceType;
+import org.dci.aimealplanner.services.recipes.RecipeChangeListener;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@EntityListeners(RecipeChangeListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -9,10 +9,12 @@ import lombok.Setter;
 import org.dci.aimealplanner.entities.ingredients.Ingredient;
 import org.dci.aimealplanner.entities.ingredients.NutritionFact;
 import org.dci.aimealplanner.entities.ingredients.Unit;
+import org.dci.aimealplanner.services.recipes.RecipeIngredientIndexListener;
 
 import java.math.BigDecimal;
 
 @Entity(name = "recipe_ingredients")
+@EntityListeners(RecipeIngredientIndexListener.class)
 @Table(
         name = "recipe_ingredients",
         uniqueConstraints = @UniqueConstraint(
@@ -49,6 +51,10 @@ public class RecipeIngredient {
     @JoinColumn(name = "unit_id", nullable = false)
     private Unit unit;
 
+    /** Ingredient id as loaded or last saved, so a changed line can be unlinked from its old ingredient. */
+    @Transient
+    private Long savedIngredientId;
+
     @Override
     public final boolean equals(Object o) {
         if (!(o instanceof RecipeIngredient that)) return false;
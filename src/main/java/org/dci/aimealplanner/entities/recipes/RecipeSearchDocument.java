@@ -0,0 +1,24 @@
+package org.dci.aimealplanner.entities.recipes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/** Read-only view of a recipe's full-text document; rows are written by {@code RecipeSearchIndexer}. */
+@Entity
+@Immutable
+@Table(name = "recipe_search")
+@NoArgsConstructor
+@Getter
+public class RecipeSearchDocument {
+    @Id
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String document;
+}
@@ -0,0 +1,7 @@
+package org.dci.aimealplanner.exceptions;
+
+public class AiBudgetExceededException extends RuntimeException {
+    public AiBudgetExceededException(String message) {
+        super(message);
+    }
+}
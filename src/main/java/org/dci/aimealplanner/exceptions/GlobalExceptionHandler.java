@@ -64,6 +64,16 @@ public class GlobalExceptionHandler {
         return errorPage(HttpStatus.CONFLICT, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(AiBudgetExceededException.class)
+    public ModelAndView handleBudgetExceeded(RuntimeException ex, HttpServletRequest request) {
+        return errorPage(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(GroqUnavailableException.class)
+    public ModelAndView handleUnavailable(RuntimeException ex, HttpServletRequest request) {
+        return errorPage(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ModelAndView handleAll(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,11 @@
+package org.dci.aimealplanner.exceptions;
+
+public class GroqUnavailableException extends RuntimeException {
+    public GroqUnavailableException(String message) {
+        super(message);
+    }
+
+    public GroqUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+/**
+ * What a Groq call was made for; used to attribute token usage.
+ */
+public enum AiFeature {
+    INGREDIENT,
+    UNIT_RATIO,
+    RECIPE,
+    MEAL_PLAN
+}
@@ -0,0 +1,33 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+/**
+ * Carries the user on whose behalf Groq calls are made on the current thread, so usage can be
+ * attributed and budgets enforced without threading a user through every client method.
+ * Calls made outside {@link #callAs} (seeding, maintenance) are attributed to no user.
+ */
+public final class AiUsageContext {
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface AiCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private AiUsageContext() {
+    }
+
+    public static <T, E extends Exception> T callAs(Long userId, AiCall<T, E> action) throws E {
+        Long previous = USER_ID.get();
+        USER_ID.set(userId);
+        try {
+            return action.call();
+        } finally {
+            if (previous == null) USER_ID.remove();
+            else USER_ID.set(previous);
+        }
+    }
+
+    public static Long currentUserId() {
+        return USER_ID.get();
+    }
+}
@@ -1,28 +1,63 @@
 package org.dci.aimealplanner.integration.aiapi;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.exceptions.GroqUnavailableException;
+import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.AIChoiceResponse;
 import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.AiResponse;
+import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.AiUsage;
+import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.IngredientBatchFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.IngredientFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.IngredientUnitFromAI;
+import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanDayFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanGenerationRequest;
+import org.dci.aimealplanner.integration.aiapi.dtos.planning.PlannedMealFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class GroqApiClient {
 
     private static final String MODEL = "llama-3.3-70b-versatile";
-    private static final double TEMP_LOW = 0.1;
+    /** Factual lookups are sent at temperature 0, which also makes them cacheable. */
+    private static final double TEMP_DETERMINISTIC = 0.0;
     private static final double TEMP_MED = 0.2;
 
     private static final int MAX_RETRIES = 5;
@@ -30,55 +65,158 @@ public class GroqApiClient {
     private static final long MAX_BACKOFF_MS = 8000L;
 
     private static final int MAX_TOKENS_DEFAULT = 800;
+    private static final int MAX_TOKENS_PER_BATCH_INGREDIENT = 450;
+    private static final int MAX_TOKENS_BATCH = 6000;
+    private static final int MAX_TOKENS_PER_EMBEDDED_RECIPE = 750;
+    private static final String FINISH_LENGTH = "length";
+
+    private record Salvaged<T>(T value, boolean truncated, String content) {}
 
     private final RestClient groqRestClient;
     private final ObjectMapper objectMapper;
+    private final GroqRateLimiter rateLimiter;
+    private final GroqCompletionCache completionCache;
+    private final GroqCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final GroqUsageTracker usageTracker;
+
+    @Value("${groq.call.deadline-seconds:120}")
+    private long callDeadlineSeconds;
 
 
     public IngredientUnitFromAI getUnitRatiosForIngredient(String ingredientName) throws JsonProcessingException {
         String prompt = buildUnitRatioPrompt(ingredientName);
-        Map<String, Object> body = chatBody(prompt, TEMP_MED, MAX_TOKENS_DEFAULT);
-
-        AiResponse response = postChatCompletionsWithRetry(body);
-        String json = response.getChoices().get(0).getMessage().getContent();
-        return objectMapper.readValue(json, IngredientUnitFromAI.class);
+        Map<String, Object> body = chatBody(prompt, TEMP_DETERMINISTIC, MAX_TOKENS_DEFAULT);
+        return complete(body, IngredientUnitFromAI.class, AiFeature.UNIT_RATIO);
     }
 
     public RecipeFromAI generateRecipeFromPrompt(String userPrompt) throws JsonProcessingException {
         String prompt = buildRecipePrompt(userPrompt);
         Map<String, Object> body = chatBody(prompt, TEMP_MED, MAX_TOKENS_DEFAULT);
+        return complete(body, RecipeFromAI.class, AiFeature.RECIPE);
+    }
 
-        AiResponse response = postChatCompletionsWithRetry(body);
-        String json = response.getChoices().get(0).getMessage().getContent();
-        return objectMapper.readValue(json, RecipeFromAI.class);
+    /**
+     * Same request as {@link #generateRecipeFromPrompt} but sent with {@code stream: true};
+     * the listener sees each part of the recipe as soon as it has been received.
+     */
+    public RecipeFromAI streamRecipeFromPrompt(String userPrompt, RecipeStreamListener listener) throws JsonProcessingException {
+        String prompt = buildRecipePrompt(userPrompt);
+        Map<String, Object> body = chatBody(prompt, TEMP_MED, MAX_TOKENS_DEFAULT);
+        RecipeStreamParser parser = new RecipeStreamParser(objectMapper, listener);
+        return streamComplete(body, RecipeFromAI.class, AiFeature.RECIPE, parser::feed, listener::isCancelled);
+    }
+
+    /**
+     * Plans one day of {@code req} with a full recipe embedded in every meal, replacing one plan
+     * call plus one recipe call per meal. Meals are handed to {@code onMeal} as soon as each one
+     * has streamed in, so callers can start saving before the day is complete.
+     */
+    public MealPlanDayFromAI streamMealPlanDay(MealPlanGenerationRequest req, LocalDate date, int dayNumber,
+                                               List<String> slots, Consumer<PlannedMealFromAI> onMeal,
+                                               BooleanSupplier cancelled) {
+        String prompt = buildMealPlanDayPrompt(req, date, dayNumber, slots);
+        int maxTokens = Math.min(MAX_TOKENS_BATCH, 200 + MAX_TOKENS_PER_EMBEDDED_RECIPE * slots.size());
+        Map<String, Object> body = chatBody(prompt, 0.15, maxTokens);
+        JsonArrayStreamParser<PlannedMealFromAI> parser =
+                new JsonArrayStreamParser<>(objectMapper, "meals", PlannedMealFromAI.class, onMeal);
+        try {
+            return streamComplete(body, MealPlanDayFromAI.class, AiFeature.MEAL_PLAN, parser::feed, cancelled);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse AI meal plan day JSON: " + e.getOriginalMessage(), e);
+        }
     }
 
     public IngredientFromAI generateIngredient(String userInput) {
         String prompt = buildIngredientPrompt(userInput);
-        Map<String, Object> body = chatBody(prompt, TEMP_LOW, 600);
+        Map<String, Object> body = chatBody(prompt, TEMP_DETERMINISTIC, 600);
+        try {
+            return complete(body, IngredientFromAI.class, AiFeature.INGREDIENT);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse AI ingredient JSON: " + e.getOriginalMessage(), e);
+        }
+    }
 
-        AiResponse response = postChatCompletionsWithRetry(body);
-        String json = response.getChoices().get(0).getMessage().getContent();
+    /**
+     * Profiles several ingredients with one request. Each returned item echoes its input name
+     * in {@code input}; callers should match on that rather than on position.
+     */
+    public List<IngredientFromAI> generateIngredients(List<String> userInputs) {
+        if (userInputs.size() == 1) return List.of(generateIngredient(userInputs.get(0)));
+
+        String prompt = buildIngredientBatchPrompt(userInputs);
+        int maxTokens = Math.min(MAX_TOKENS_BATCH, 150 + MAX_TOKENS_PER_BATCH_INGREDIENT * userInputs.size());
+        Map<String, Object> body = chatBody(prompt, TEMP_DETERMINISTIC, maxTokens);
         try {
-            return objectMapper.readValue(json, IngredientFromAI.class);
+            Salvaged<IngredientBatchFromAI> batch = completeSalvaging(body, IngredientBatchFromAI.class, AiFeature.INGREDIENT);
+            List<IngredientFromAI> items = batch.value().getIngredients() != null
+                    ? new ArrayList<>(batch.value().getIngredients()) : new ArrayList<>();
+            if (!batch.truncated()) return items;
+
+            if (!items.isEmpty()) items.remove(items.size() - 1);
+            Set<String> answered = items.stream()
+                    .map(IngredientFromAI::getInput)
+                    .filter(Objects::nonNull)
+                    .map(input -> input.strip().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            List<String> missing = userInputs.stream()
+                    .filter(input -> !answered.contains(input.strip().toLowerCase(Locale.ROOT)))
+                    .toList();
+            if (!missing.isEmpty() && missing.size() < userInputs.size()) items.addAll(generateIngredients(missing));
+            return items;
         } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to parse AI ingredient JSON: " + json, e);
+            throw new IllegalStateException("Failed to parse AI ingredient batch JSON: " + e.getOriginalMessage(), e);
         }
     }
 
+    /**
+     * A plan cut off at {@code max_tokens} keeps its complete days; the remaining days are
+     * requested again on their own, starting with the day that was being written. When not even
+     * one day was complete, the first day is requested alone before the rest; a plan that still
+     * has no complete day is an error, never an empty success.
+     */
     public MealPlanFromAI generateMealPlanFromProfile(MealPlanGenerationRequest req) {
         String prompt = buildMealPlanPrompt(req);
         Map<String, Object> body = chatBody(prompt, 0.15, 900);
-
-        AiResponse response = postChatCompletionsWithRetry(body);
-        String json = response.getChoices().get(0).getMessage().getContent();
         try {
-            return objectMapper.readValue(json, MealPlanFromAI.class);
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to parse AI meal plan JSON: " + json, e);
+            Salvaged<MealPlanFromAI> plan = completeSalvaging(body, MealPlanFromAI.class, AiFeature.MEAL_PLAN);
+            List<MealPlanDayFromAI> days = plan.value().days() != null ? new ArrayList<>(plan.value().days()) : new ArrayList<>();
+            if (!plan.truncated()) {
+                if (days.isEmpty()) throw new IllegalStateException("The AI meal plan has no days.");
+                return plan.value();
+            }
+
+            if (!days.isEmpty()) days.remove(days.size() - 1);
+            LocalDate resumeFrom;
+            if (days.isEmpty()) {
+                if (!req.endDate().isAfter(req.startDate())) {
+                    throw new IllegalStateException("The AI meal plan was cut off before its first day was complete.");
+                }
+                days.addAll(generateMealPlanFromProfile(withDates(req, req.startDate(), req.startDate())).days());
+                resumeFrom = req.startDate().plusDays(1);
+            } else {
+                resumeFrom = LocalDate.parse(days.get(days.size() - 1).date()).plusDays(1);
+                if (!resumeFrom.isAfter(req.startDate())) {
+                    throw new IllegalStateException("The AI meal plan has days outside the requested dates.");
+                }
+                if (resumeFrom.isAfter(req.endDate())) {
+                    return new MealPlanFromAI(plan.value().name(), plan.value().targetKcalPerDay(), days);
+                }
+            }
+
+            days.addAll(generateMealPlanFromProfile(withDates(req, resumeFrom, req.endDate())).days());
+            return new MealPlanFromAI(plan.value().name(), plan.value().targetKcalPerDay(), days);
+        } catch (JsonProcessingException | DateTimeParseException e) {
+            throw new IllegalStateException("Failed to parse AI meal plan JSON: " + e.getMessage(), e);
         }
     }
 
+    private static MealPlanGenerationRequest withDates(MealPlanGenerationRequest r, LocalDate startDate, LocalDate endDate) {
+        return new MealPlanGenerationRequest(startDate, endDate, r.age(), r.gender(), r.heightCm(), r.weightKg(),
+                r.activityLevel(), r.goal(), r.mealsPerDay(), r.dietaryPreferences(), r.allergies(),
+                r.dislikedIngredients(), r.preferredCuisines(), r.targetKcalPerDay());
+    }
+
 
     private String buildUnitRatioPrompt(String ingredientName) {
         return """
@@ -195,6 +333,108 @@ public class GroqApiClient {
             """.formatted(ingredientName, ingredientName);
     }
 
+    private String buildIngredientBatchPrompt(List<String> ingredientNames) {
+        return """
+            ROLE:
+            You are a culinary data assistant. Return ONLY strict JSON. No code fences, no markdown, no commentary.
+
+            GOAL:
+            Produce a concise, factual profile for EACH ingredient in this list: %s
+
+            RULES:
+            - Output MUST be valid JSON (UTF-8), with NO trailing commas, NO comments, NO additional fields.
+            - Return exactly one profile per input, in the same order, and copy the input string unchanged into "input".
+            - Use dot as decimal separator. Use numbers for quantities (not strings).
+            - Keep names simple and commonly used (e.g., "mozzarella", "olive oil").
+            - Nutrition is PER 100g (even for liquids; use typical density assumptions when needed).
+            - Units list must ONLY use these codes: ["g","ml","piece","tbsp","tsp","cup"].
+            - Ratios convert ONE non-gram unit to grams (toUnitCode is always "g").
+            - Include only units/ratios that make sense for the ingredient; omit the rest.
+            - Do NOT include an entry for "g" in "ratios".
+
+            CATEGORY SUGGESTION (pick the simplest that fits):
+            "Dairy","Meat","Fish & Seafood","Vegetables","Fruits","Grains & Cereals",
+            "Legumes","Nuts & Seeds","Oils & Fats","Herbs & Spices","Condiments",
+            "Beverages","Sweeteners","Other"
+
+            JSON SHAPE (strict):
+            {
+              "ingredients": [
+                {
+                  "input": "string",
+                  "name": "string",
+                  "category": "string",
+                  "nutrition": { "kcal": number, "protein": number, "carbs": number, "fat": number, "fiber": number, "sugar": number },
+                  "units": [ { "code": "g|ml|piece|tbsp|tsp|cup", "display": "string or null" } ],
+                  "ratios": [ { "fromUnitCode": "ml|piece|tbsp|tsp|cup", "toUnitCode": "g", "factor": number } ]
+                }
+              ]
+            }
+            """.formatted(toJsonArray(ingredientNames));
+    }
+
+    private String buildMealPlanDayPrompt(MealPlanGenerationRequest r, LocalDate date, int dayNumber, List<String> slots) {
+        String targetKcal = r.targetKcalPerDay() == null ? "null" : r.targetKcalPerDay().toString();
+
+        return """
+            ROLE:
+            You are a nutrition-savvy meal planner and recipe writer. Return ONLY strict JSON. No code fences, no markdown, no commentary.
+
+            OBJECTIVE:
+            Plan day %d of a meal plan, date "%s", with exactly one meal for each of these slots: %s.
+            Include a complete recipe for every meal. Choose dishes that would not repeat on neighbouring days.
+
+            USER PROFILE:
+            - age: %s, gender: %s, height_cm: %s, weight_kg: %s
+            - activity_level: %s, goal: %s
+            - dietary_preferences: %s
+            - allergies: %s
+            - disliked_ingredients: %s
+            - preferred_cuisines: %s
+            - target_kcal_per_day: %s  // if null, assume a reasonable value; split it across the meals
+
+            RULES:
+            - Output STRICT JSON only (UTF-8). No additional fields, no comments.
+            - Respect dietary_preferences, allergies and dislikes in every recipe.
+            - Titles should be simple and mappable to common recipes (e.g., "Grilled Chicken Salad").
+            - meal_categories MUST be a subset of ["Breakfast","Lunch","Dinner","Snack"].
+            - Ingredient names simple and common (e.g., "chicken breast", "onion"); unit_code one of "g","ml","piece","tbsp","tsp","cup".
+            - ingredients.amount MUST be a number; if optional, set amount to 0 and add a note.
+            - difficulty one of "EASY","MEDIUM","HARD"; preparation_time_minutes an integer; servings a number.
+            - instructions: concise steps without numbering.
+
+            OUTPUT (strict JSON):
+            {
+              "date": "%s",
+              "meals": [
+                {
+                  "slot": "BREAKFAST|LUNCH|DINNER|SNACK",
+                  "title": "string",
+                  "servings": number,
+                  "meal_categories": ["Breakfast"|"Lunch"|"Dinner"|"Snack"],
+                  "notes": "string or null",
+                  "recipe": {
+                    "title": "string",
+                    "difficulty": "EASY|MEDIUM|HARD",
+                    "preparation_time_minutes": integer,
+                    "servings": number,
+                    "meal_categories": ["string", ...],
+                    "ingredients": [ { "name": "string", "amount": number, "unit_code": "g|ml|piece|tbsp|tsp|cup", "note": "string or null" } ],
+                    "instructions": ["string", ...]
+                  }
+                }
+              ]
+            }
+            """.formatted(
+                dayNumber, date, toJsonArray(slots),
+                numOrNull(r.age()), quoteOrNull(r.gender()), numOrNull(r.heightCm()), numOrNull(r.weightKg()),
+                quoteOrNull(r.activityLevel()), quoteOrNull(r.goal()),
+                toJsonArray(r.dietaryPreferences()), toJsonArray(r.allergies()),
+                toJsonArray(r.dislikedIngredients()), toJsonArray(r.preferredCuisines()),
+                targetKcal, date
+        );
+    }
+
     private String buildMealPlanPrompt(MealPlanGenerationRequest r) {
         String start = r.startDate() != null ? r.startDate().toString() : "";
         String end   = r.endDate()   != null ? r.endDate().toString()   : "";
@@ -281,51 +521,314 @@ public class GroqApiClient {
                         Map.of("role", "user", "content", userPrompt)
                 ),
                 "temperature", temperature,
-                "max_tokens", maxTokens
+                "max_tokens", maxTokens,
+                "response_format", Map.of("type", "json_object")
         );
     }
 
-    private AiResponse postChatCompletionsWithRetry(Map<String, Object> body) {
-        int attempt = 0;
-        long backoff = BASE_BACKOFF_MS;
+    /**
+     * Serves the completion from {@link GroqCompletionCache} when possible. Only contents that
+     * parsed into {@code type} are cached; a cached entry that no longer parses is dropped.
+     * A reply cut off at {@code max_tokens} is continued once from where it stopped; if it is
+     * still incomplete after that, the call fails rather than return a truncated value.
+     */
+    private <T> T complete(Map<String, Object> body, Class<T> type, AiFeature feature) throws JsonProcessingException {
+        Salvaged<T> result = completeSalvaging(body, type, feature);
+        if (!result.truncated()) return result.value();
+
+        JsonRepair.Result continued = JsonRepair.repair(result.content() + continueCompletion(body, result.content(), feature));
+        if (continued.truncated()) {
+            throw new IllegalStateException("The AI reply was cut off and could not be completed.");
+        }
+        T value = objectMapper.readValue(continued.json(), type);
+        completionCache.put(completionCache.keyFor(body), body, continued.json());
+        return value;
+    }
 
-        while (true) {
+    /**
+     * Like {@link #complete} but never asks for more: a truncated reply is parsed up to its last
+     * complete value and returned with {@code truncated} set, so the caller can request only
+     * what is missing.
+     */
+    private <T> Salvaged<T> completeSalvaging(Map<String, Object> body, Class<T> type, AiFeature feature) throws JsonProcessingException {
+        String cacheKey = completionCache.keyFor(body);
+        Optional<String> cached = completionCache.get(cacheKey);
+        if (cached.isPresent()) {
             try {
-                return groqRestClient.post()
+                return new Salvaged<>(objectMapper.readValue(cached.get(), type), false, cached.get());
+            } catch (JsonProcessingException e) {
+                completionCache.invalidate(cacheKey);
+            }
+        }
+
+        String content;
+        boolean cutOff;
+        try {
+            AiResponse response = postChatCompletionsWithRetry(body, feature);
+            AIChoiceResponse choice = response.getChoices().get(0);
+            content = choice.getMessage().getContent();
+            cutOff = FINISH_LENGTH.equals(choice.getFinishReason());
+        } catch (RestClientResponseException ex) {
+            content = failedGeneration(ex).orElseThrow(() -> ex);
+            cutOff = false;
+        }
+
+        JsonRepair.Result repaired = JsonRepair.repair(content);
+        T value = objectMapper.readValue(repaired.json(), type);
+        boolean truncated = cutOff || repaired.truncated();
+        if (!truncated) completionCache.put(cacheKey, body, repaired.json());
+        return new Salvaged<>(value, truncated, content);
+    }
+
+    /**
+     * Asks for the rest of a reply that stopped at {@code max_tokens}. JSON mode is left off
+     * because the continuation is only a fragment.
+     */
+    private String continueCompletion(Map<String, Object> body, String partial, AiFeature feature) {
+        List<Object> messages = new ArrayList<>((List<?>) body.get("messages"));
+        messages.add(Map.of("role", "assistant", "content", partial));
+        messages.add(Map.of("role", "user", "content",
+                "Your reply was cut off. Output only the characters that follow it, without repeating anything."));
+
+        Map<String, Object> continuation = new LinkedHashMap<>(body);
+        continuation.remove("response_format");
+        continuation.put("messages", messages);
+        try {
+            AiResponse response = postChatCompletionsWithRetry(continuation, feature);
+            String rest = response.getChoices().get(0).getMessage().getContent();
+            return rest != null ? rest : "";
+        } catch (RestClientResponseException | GroqUnavailableException e) {
+            return "";
+        }
+    }
+
+    /**
+     * In JSON mode Groq rejects output that does not parse with a 400 and returns the rejected
+     * text as {@code error.failed_generation}; that text is usually one repair away from valid.
+     */
+    private Optional<String> failedGeneration(RestClientResponseException ex) {
+        if (ex.getStatusCode().value() != HttpStatus.BAD_REQUEST.value()) return Optional.empty();
+        try {
+            JsonNode error = objectMapper.readTree(ex.getResponseBodyAsString()).path("error");
+            if (!"json_validate_failed".equals(error.path("code").asText())) return Optional.empty();
+            String generation = error.path("failed_generation").asText("");
+            return generation.isBlank() ? Optional.empty() : Optional.of(generation);
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link #complete}. A cached completion is replayed through
+     * {@code onDelta} in one piece. A stream that is cut off fails after its deltas were passed on.
+     */
+    private <T> T streamComplete(Map<String, Object> body, Class<T> type, AiFeature feature,
+                                 Consumer<String> onDelta, BooleanSupplier cancelled) throws JsonProcessingException {
+        String cacheKey = completionCache.keyFor(body);
+        Optional<String> cached = completionCache.get(cacheKey);
+        if (cached.isPresent()) {
+            try {
+                T value = objectMapper.readValue(cached.get(), type);
+                onDelta.accept(cached.get());
+                return value;
+            } catch (JsonProcessingException e) {
+                completionCache.invalidate(cacheKey);
+            }
+        }
+
+        JsonRepair.Result repaired = JsonRepair.repair(streamChatCompletionsWithRetry(body, feature, onDelta, cancelled));
+        if (repaired.truncated()) throw new IllegalStateException("The AI reply was cut off before it was complete.");
+        T value = objectMapper.readValue(repaired.json(), type);
+        completionCache.put(cacheKey, body, repaired.json());
+        return value;
+    }
+
+    private AiResponse postChatCompletionsWithRetry(Map<String, Object> body, AiFeature feature) {
+        GroqUsageTracker.Reservation reservation = usageTracker.reserve(feature, estimateTokens(body));
+        long started = System.nanoTime();
+        AiResponse result;
+        try {
+            result = callWithRetry(() -> {
+                ResponseEntity<AiResponse> response = groqRestClient.post()
                         .uri("chat/completions")
                         .body(body)
                         .retrieve()
-                        .body(AiResponse.class);
+                        .toEntity(AiResponse.class);
+                rateLimiter.onResponse(response.getHeaders());
+                return response.getBody();
+            }, () -> true);
+        } catch (RuntimeException e) {
+            usageTracker.release(reservation);
+            throw e;
+        }
+        recordUsage(feature, reservation, result != null ? result.getUsage() : null, started);
+        return result;
+    }
+
+    /**
+     * Streams a chat completion, passing each content delta to {@code onDelta}, and returns the
+     * full content. Failed attempts are retried like {@link #postChatCompletionsWithRetry} as long
+     * as nothing has been received yet; a stream that breaks midway is not restarted.
+     */
+    private String streamChatCompletionsWithRetry(Map<String, Object> body, AiFeature feature,
+                                                  Consumer<String> onDelta, BooleanSupplier cancelled) {
+        GroqUsageTracker.Reservation reservation = usageTracker.reserve(feature, estimateTokens(body));
+        Map<String, Object> streamBody = new LinkedHashMap<>(body);
+        streamBody.remove("response_format");
+        streamBody.put("stream", true);
+        StringBuilder content = new StringBuilder();
+        AiUsage[] usage = new AiUsage[1];
+        long started = System.nanoTime();
+
+        String result;
+        try {
+            result = callWithRetry(() -> groqRestClient.post()
+                    .uri("chat/completions")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .body(streamBody)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new RestClientResponseException("Groq streaming request failed",
+                                    response.getStatusCode(), response.getStatusText(), response.getHeaders(),
+                                    response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                        }
+                        rateLimiter.onResponse(response.getHeaders());
+                        readStream(response.getBody(), content, usage, onDelta, cancelled);
+                        return content.toString();
+                    }), content::isEmpty);
+        } catch (RuntimeException e) {
+            usageTracker.release(reservation);
+            throw e;
+        }
+        recordUsage(feature, reservation, usage[0], started);
+        return result;
+    }
+
+    /**
+     * Runs one Groq call under the shared governor: the circuit breaker may reject it up front,
+     * every attempt takes a rate-limit permit, 429s pause all callers for the advertised period,
+     * and 5xx/I/O failures are retried with full-jitter backoff. Waiting for permits and backoff
+     * never extends past {@code groq.call.deadline-seconds}; the HTTP read timeout bounds each attempt.
+     */
+    private <T> T callWithRetry(Supplier<T> call, BooleanSupplier retryable) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(callDeadlineSeconds);
+        int attempt = 0;
+
+        while (true) {
+            circuitBreaker.beforeCall();
+            try {
+                rateLimiter.acquire(deadline);
+            } catch (RuntimeException ex) {
+                circuitBreaker.release();
+                throw ex;
+            }
+            try {
+                T result = call.get();
+                circuitBreaker.onSuccess();
+                countRequest("success");
+                return result;
 
             } catch (RestClientResponseException ex) {
-                HttpStatus status = HttpStatus.resolve(ex.getRawStatusCode());
-                boolean retryable = status != null &&
-                        (status == HttpStatus.TOO_MANY_REQUESTS ||
-                                status.is5xxServerError());
-
-                if (retryable && attempt < MAX_RETRIES - 1) {
-                    sleepQuietly(backoff);
-                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
-                    attempt++;
-                    continue;
+                HttpStatusCode status = ex.getStatusCode();
+                if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    circuitBreaker.release();
+                    rateLimiter.onThrottled(ex.getResponseHeaders());
+                } else if (status.is5xxServerError()) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.release();
+                    countRequest("failure");
+                    throw ex;
                 }
-                throw ex;
+                if (attempt >= MAX_RETRIES - 1 || !retryable.getAsBoolean()) {
+                    countRequest("failure");
+                    throw ex;
+                }
+                backoff(attempt++, deadline, ex);
 
             } catch (ResourceAccessException ex) {
-                if (attempt < MAX_RETRIES - 1) {
-                    sleepQuietly(backoff);
-                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
-                    attempt++;
-                    continue;
+                circuitBreaker.onFailure();
+                if (attempt >= MAX_RETRIES - 1 || !retryable.getAsBoolean()) {
+                    countRequest("failure");
+                    throw ex;
                 }
+                backoff(attempt++, deadline, ex);
+
+            } catch (RuntimeException ex) {
+                circuitBreaker.release();
+                countRequest("failure");
                 throw ex;
             }
         }
     }
 
-    private void sleepQuietly(long millis) {
-        try { Thread.sleep(millis); } catch (InterruptedException ie) {
+    private void backoff(int attempt, long deadline, RuntimeException cause) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) - deadline > 0) {
+            countRequest("deadline");
+            throw new GroqUnavailableException("The AI service did not answer in time, please try again.", cause);
+        }
+        countRequest("retry");
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from a failed Groq call", e);
+        }
+    }
+
+    /**
+     * Upper bound used for budget checks: roughly four characters per prompt token plus the
+     * full completion allowance.
+     */
+    private static long estimateTokens(Map<String, Object> body) {
+        long promptChars = 0;
+        if (body.get("messages") instanceof List<?> messages) {
+            for (Object message : messages) {
+                if (message instanceof Map<?, ?> m && m.get("content") instanceof String text) promptChars += text.length();
+            }
+        }
+        long maxTokens = body.get("max_tokens") instanceof Number n ? n.longValue() : MAX_TOKENS_DEFAULT;
+        return promptChars / 4 + maxTokens;
+    }
+
+    private void recordUsage(AiFeature feature, GroqUsageTracker.Reservation reservation, AiUsage usage,
+                             long startedNanos) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        usageTracker.record(feature, reservation,
+                usage != null ? usage.getPromptTokens() : 0,
+                usage != null ? usage.getCompletionTokens() : 0,
+                latencyMs);
+    }
+
+    private void countRequest(String outcome) {
+        Counter.builder("groq.requests").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private void readStream(InputStream in, StringBuilder content, AiUsage[] usage, Consumer<String> onDelta,
+                            BooleanSupplier cancelled) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (cancelled.getAsBoolean()) throw new CancellationException("Recipe stream cancelled");
+            if (!line.startsWith("data:")) continue;
+
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) break;
+
+            JsonNode chunk = objectMapper.readTree(data);
+            if (chunk.hasNonNull("error")) {
+                throw new IllegalStateException("Groq stream error: " + chunk.path("error").path("message").asText());
+            }
+            JsonNode usageNode = chunk.hasNonNull("usage") ? chunk.get("usage") : chunk.path("x_groq").get("usage");
+            if (usageNode != null && !usageNode.isNull()) usage[0] = objectMapper.treeToValue(usageNode, AiUsage.class);
+
+            String delta = chunk.path("choices").path(0).path("delta").path("content").asText("");
+            if (!delta.isEmpty()) {
+                content.append(delta);
+                onDelta.accept(delta);
+            }
         }
     }
 
@@ -0,0 +1,98 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.exceptions.GroqUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Fails Groq calls fast while the API is degraded. After {@code groq.circuit.failure-threshold}
+ * consecutive server errors or timeouts the circuit opens and every call is rejected for
+ * {@code groq.circuit.open-seconds}; then a single probe call is let through, which either
+ * closes the circuit again or reopens it. 4xx responses (including 429) do not count as failures.
+ */
+@Slf4j
+@Component
+public class GroqCircuitBreaker {
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public GroqCircuitBreaker(@Value("${groq.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${groq.circuit.open-seconds:30}") long openSeconds,
+                              MeterRegistry meterRegistry) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Duration.ofSeconds(openSeconds).toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("groq.circuit.state", this, breaker -> breaker.state().ordinal()).register(meterRegistry);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Throws {@link GroqUnavailableException} if the call may not go out now.
+     */
+    public synchronized void beforeCall() {
+        if (state == State.OPEN) {
+            long waited = System.nanoTime() - openedAt;
+            if (waited < openNanos) {
+                long retryInSeconds = Math.max(1, Duration.ofNanos(openNanos - waited).toSeconds());
+                throw new GroqUnavailableException("The AI service is temporarily unavailable, please try again in "
+                        + retryInSeconds + "s.");
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw new GroqUnavailableException("The AI service is temporarily unavailable, please try again shortly.");
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        probeInFlight = false;
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) transition(State.CLOSED);
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.nanoTime();
+            transition(State.OPEN);
+        }
+    }
+
+    /**
+     * The call ended without saying anything about Groq's health (client error, cancellation).
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    private void transition(State next) {
+        log.info("Groq circuit {} -> {}", state, next);
+        Counter.builder("groq.circuit.transitions")
+                .tag("from", state.name())
+                .tag("to", next.name())
+                .register(meterRegistry)
+                .increment();
+        state = next;
+    }
+}
@@ -0,0 +1,211 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Postgres-backed cache of chat completion contents, keyed by a SHA-256 of the model,
+ * temperature, max tokens and whitespace-normalized messages. Only deterministic requests
+ * (temperature 0) are cached, so generations meant to vary are never replayed. Entries expire
+ * after {@code groq.cache.ttl-hours}; beyond {@code groq.cache.max-entries} the least recently
+ * used entries are dropped. Hit counts are collected in memory and written, like eviction, on a
+ * background thread every {@code groq.cache.flush-seconds}.
+ */
+@Slf4j
+@Component
+public class GroqCompletionCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAINTENANCE_EVERY_PUTS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final AtomicInteger putsSinceMaintenance = new AtomicInteger();
+    private final Map<String, Integer> pendingHits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("groq-cache-maintenance").daemon().factory());
+
+    @Value("${groq.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${groq.cache.flush-seconds:10}")
+    private long flushSeconds;
+
+    @Value("${groq.cache.ttl-hours:720}")
+    private long ttlHours;
+
+    @Value("${groq.cache.max-entries:20000}")
+    private int maxEntries;
+
+    public GroqCompletionCache(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("groq.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("groq.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("groq.cache.evictions").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        maintenance.scheduleWithFixedDelay(this::flushHits, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        maintenance.shutdownNow();
+        flushHits();
+    }
+
+    /**
+     * Returns the cache key for a chat request body, or {@code null} when the request
+     * should not be cached.
+     */
+    public String keyFor(Map<String, Object> body) {
+        if (!enabled) return null;
+        Object temperature = body.get("temperature");
+        if (!(temperature instanceof Number t) || t.doubleValue() != 0) return null;
+
+        Map<String, Object> canonical = new LinkedHashMap<>();
+        canonical.put("model", body.get("model"));
+        canonical.put("temperature", t.doubleValue());
+        canonical.put("max_tokens", body.get("max_tokens"));
+        canonical.put("messages", normalizeMessages(body.get("messages")));
+        try {
+            return sha256(objectMapper.writeValueAsString(canonical));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    public Optional<String> get(String key) {
+        if (key == null) return Optional.empty();
+        try {
+            List<String> rows = jdbcTemplate.queryForList(
+                    "SELECT content FROM ai_completion_cache WHERE cache_key = ? AND created_at > ?",
+                    String.class, key, Timestamp.from(expiryCutoff()));
+            if (rows.isEmpty()) {
+                misses.increment();
+                return Optional.empty();
+            }
+            pendingHits.merge(key, 1, Integer::sum);
+            hits.increment();
+            return Optional.of(rows.get(0));
+        } catch (DataAccessException e) {
+            log.debug("Groq completion cache read failed: {}", e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, Map<String, Object> body, String content) {
+        if (key == null || content == null) return;
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO ai_completion_cache (cache_key, model, content, created_at, last_hit_at, hits)
+                    VALUES (?, ?, ?, now(), now(), 0)
+                    ON CONFLICT (cache_key) DO UPDATE
+                       SET content = EXCLUDED.content, created_at = now(), last_hit_at = now()""",
+                    key, String.valueOf(body.get("model")), content);
+        } catch (DataAccessException e) {
+            log.debug("Groq completion cache write failed: {}", e.getMessage());
+            return;
+        }
+        if (putsSinceMaintenance.incrementAndGet() >= MAINTENANCE_EVERY_PUTS) {
+            putsSinceMaintenance.set(0);
+            maintenance.execute(this::evict);
+        }
+    }
+
+    public void invalidate(String key) {
+        if (key == null) return;
+        try {
+            jdbcTemplate.update("DELETE FROM ai_completion_cache WHERE cache_key = ?", key);
+        } catch (DataAccessException e) {
+            log.debug("Groq completion cache invalidate failed: {}", e.getMessage());
+        }
+    }
+
+    void flushHits() {
+        if (pendingHits.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>();
+        for (String key : List.copyOf(pendingHits.keySet())) {
+            Integer count = pendingHits.remove(key);
+            if (count != null) rows.add(new Object[]{count, key});
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE ai_completion_cache SET hits = hits + ?, last_hit_at = now() WHERE cache_key = ?", rows);
+        } catch (DataAccessException e) {
+            log.debug("Groq completion cache hit update failed: {}", e.getMessage());
+        }
+    }
+
+    void evict() {
+        try {
+            int expired = jdbcTemplate.update("DELETE FROM ai_completion_cache WHERE created_at <= ?",
+                    Timestamp.from(expiryCutoff()));
+            int overflow = jdbcTemplate.update("""
+                    DELETE FROM ai_completion_cache WHERE cache_key IN (
+                        SELECT cache_key FROM ai_completion_cache ORDER BY last_hit_at DESC OFFSET ?
+                    )""", maxEntries);
+            evictions.increment(expired + overflow);
+        } catch (DataAccessException e) {
+            log.warn("Groq completion cache eviction failed: {}", e.getMessage());
+        }
+    }
+
+    private Instant expiryCutoff() {
+        return Instant.now().minus(Duration.ofHours(ttlHours));
+    }
+
+    private static Object normalizeMessages(Object messages) {
+        if (!(messages instanceof List<?> list)) return messages;
+        return list.stream().map(m -> {
+            if (!(m instanceof Map<?, ?> message)) return m;
+            Map<String, Object> normalized = new LinkedHashMap<>();
+            normalized.put("role", message.get("role"));
+            Object content = message.get("content");
+            normalized.put("content", content instanceof String s ? WHITESPACE.matcher(s.strip()).replaceAll(" ") : content);
+            return normalized;
+        }).toList();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
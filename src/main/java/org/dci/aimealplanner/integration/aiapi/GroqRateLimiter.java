@@ -0,0 +1,213 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.exceptions.GroqUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token bucket shared by every caller of the Groq API. Tokens refill continuously at
+ * {@code groq.rate-limit.requests-per-minute}; up to {@code groq.rate-limit.burst} requests
+ * may go out back to back. The bucket is also kept in line with what Groq reports: the
+ * {@code x-ratelimit-*} response headers shrink it and a {@code Retry-After} (or an exhausted
+ * quota) pauses all callers until the reported reset, instead of each one retrying on its own.
+ */
+@Slf4j
+@Component
+public class GroqRateLimiter {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+    private static final Duration MAX_PAUSE = Duration.ofMinutes(2);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double capacity;
+    private final double tokensPerNano;
+    private final MeterRegistry meterRegistry;
+
+    private double tokens;
+    private long lastRefill;
+    private volatile long pausedUntil;
+
+    @Value("${groq.rate-limit.min-remaining-tokens:1000}")
+    private long minRemainingTokens;
+
+    public GroqRateLimiter(@Value("${groq.rate-limit.requests-per-minute:30}") int requestsPerMinute,
+                           @Value("${groq.rate-limit.burst:5}") int burst,
+                           MeterRegistry meterRegistry) {
+        if (requestsPerMinute <= 0) throw new IllegalArgumentException("groq.rate-limit.requests-per-minute must be positive");
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = (double) requestsPerMinute / NANOS_PER_MINUTE;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.pausedUntil = lastRefill;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("groq.ratelimit.tokens", this, GroqRateLimiter::availableTokens).register(meterRegistry);
+    }
+
+    /**
+     * Blocks until a request may be sent. A caller takes its token on arrival (the bucket may go
+     * negative) and then waits for it outside the lock, so callers are served in arrival order
+     * and header updates are never stuck behind a sleeping thread.
+     */
+    public void acquire() {
+        acquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #acquire()}, but gives up with {@link GroqUnavailableException} as soon as it
+     * is clear the permit cannot be had before {@code deadlineNanos} ({@link System#nanoTime()} based).
+     */
+    public void acquire(long deadlineNanos) {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            long bucketNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+            waitNanos = Math.max(bucketNanos, pausedUntil - now);
+            if (deadlineNanos - now < waitNanos) reject();
+            tokens -= 1;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+            long pauseNanos;
+            while ((pauseNanos = pausedUntil - System.nanoTime()) > 0) {
+                if (deadlineNanos - System.nanoTime() < pauseNanos) reject();
+                TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Groq rate limit", e);
+        }
+    }
+
+    /**
+     * Adjusts to the rate-limit headers of a Groq response. The remaining request quota caps the
+     * local bucket; an exhausted request quota, or fewer than {@code groq.rate-limit.min-remaining-tokens}
+     * tokens left, pauses everyone until the corresponding reset.
+     */
+    public void onResponse(HttpHeaders headers) {
+        if (headers == null) return;
+
+        Long remainingRequests = parseLong(headers.getFirst("x-ratelimit-remaining-requests"));
+        if (remainingRequests != null) {
+            lock.lock();
+            try {
+                tokens = Math.min(tokens, remainingRequests);
+            } finally {
+                lock.unlock();
+            }
+            if (remainingRequests == 0) {
+                pauseFor(parseDuration(headers.getFirst("x-ratelimit-reset-requests")), "requests");
+            }
+        }
+
+        Long remainingTokens = parseLong(headers.getFirst("x-ratelimit-remaining-tokens"));
+        if (remainingTokens != null && remainingTokens < minRemainingTokens) {
+            pauseFor(parseDuration(headers.getFirst("x-ratelimit-reset-tokens")), "tokens");
+        }
+    }
+
+    /**
+     * Called for a 429. Pauses all callers for the {@code Retry-After} period, falling back to
+     * the rate-limit reset headers.
+     */
+    public void onThrottled(HttpHeaders headers) {
+        Duration retryAfter = retryAfter(headers);
+        if (retryAfter != null) {
+            pauseFor(retryAfter, "retry-after");
+        } else {
+            onResponse(headers);
+        }
+    }
+
+    void pauseFor(Duration duration, String reason) {
+        if (duration == null || duration.isNegative() || duration.isZero()) return;
+        if (duration.compareTo(MAX_PAUSE) > 0) duration = MAX_PAUSE;
+
+        long until = System.nanoTime() + duration.toNanos();
+        lock.lock();
+        try {
+            if (until - pausedUntil <= 0) return;
+            pausedUntil = until;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Pausing Groq requests for {} ms ({})", duration.toMillis(), reason);
+        Counter.builder("groq.ratelimit.pauses").tag("reason", reason).register(meterRegistry).increment();
+    }
+
+    private void reject() {
+        Counter.builder("groq.ratelimit.rejected").register(meterRegistry).increment();
+        throw new GroqUnavailableException("Groq rate limit would be exceeded before the call deadline");
+    }
+
+    static Duration retryAfter(HttpHeaders headers) {
+        if (headers == null) return null;
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) return null;
+        try {
+            return Duration.ofMillis((long) (Double.parseDouble(value.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses Groq's reset durations, e.g. {@code "7.66s"}, {@code "2m59.56s"} or {@code "120ms"}.
+     */
+    static Duration parseDuration(String value) {
+        if (value == null || value.isBlank()) return null;
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double millis = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1000;
+                default -> amount;
+            };
+            found = true;
+        }
+        return found ? Duration.ofMillis((long) Math.ceil(millis)) : null;
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private double availableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return Math.max(0, tokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,337 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Record/replay stand-in for the Groq HTTP API, registered on the Groq {@code RestClient} so
+ * the rate limiter, circuit breaker, cache and stream parsing all run as in production.
+ * <ul>
+ *   <li>{@code groq.replay.mode=off} (default): requests pass through untouched.</li>
+ *   <li>{@code record}: real responses are passed through and saved as fixtures in {@code groq.replay.dir},
+ *       named by a hash of the request body.</li>
+ *   <li>{@code replay}: nothing leaves the machine. Fixtures are served after a latency drawn from
+ *       {@code groq.replay.latency}, and {@code groq.replay.rate-429} / {@code groq.replay.rate-5xx} of
+ *       the calls fail instead. Streamed responses are released one event per
+ *       {@code groq.replay.stream-event-delay-ms}.</li>
+ * </ul>
+ * Turn the completion cache off ({@code groq.cache.enabled=false}) when load testing, or repeated
+ * prompts never reach this interceptor.
+ */
+@Slf4j
+@Component
+public class GroqReplayInterceptor implements ClientHttpRequestInterceptor {
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final Map<String, GroqFixture> fixtures = new ConcurrentHashMap<>();
+
+    @Value("${groq.replay.mode:off}")
+    private String mode;
+
+    @Value("${groq.replay.dir:groq-fixtures}")
+    private String dir;
+
+    @Value("${groq.replay.on-miss:error}")
+    private String onMiss;
+
+    @Value("${groq.replay.latency:recorded}")
+    private String latencySpec;
+
+    @Value("${groq.replay.stream-event-delay-ms:15}")
+    private long streamEventDelayMs;
+
+    @Value("${groq.replay.rate-429:0}")
+    private double rate429;
+
+    @Value("${groq.replay.rate-5xx:0}")
+    private double rate5xx;
+
+    @Value("${groq.replay.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${groq.replay.seed:42}")
+    private long seed;
+
+    private Random random;
+    private LatencyModel latency;
+
+    public GroqReplayInterceptor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    record GroqFixture(String key, Map<String, Object> request, int status, String contentType,
+                       String body, long latencyMs) {}
+
+    @PostConstruct
+    void init() throws IOException {
+        mode = mode.trim().toLowerCase(Locale.ROOT);
+        if (!mode.equals("off") && !mode.equals("record") && !mode.equals("replay")) {
+            throw new IllegalArgumentException("groq.replay.mode must be off, record or replay: " + mode);
+        }
+        random = new Random(seed);
+        latency = LatencyModel.parse(latencySpec);
+
+        if (mode.equals("replay")) {
+            try (Stream<Path> files = Files.exists(Path.of(dir)) ? Files.list(Path.of(dir)) : Stream.empty()) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                    GroqFixture fixture = objectMapper.readValue(file.toFile(), GroqFixture.class);
+                    fixtures.put(fixture.key(), fixture);
+                }
+            }
+            log.warn("Groq API replay mode: {} fixtures from {}, latency {}, 429 rate {}, 5xx rate {}",
+                    fixtures.size(), dir, latencySpec, rate429, rate5xx);
+        } else if (mode.equals("record")) {
+            Files.createDirectories(Path.of(dir));
+            log.warn("Groq API record mode: responses are written to {}", dir);
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        return switch (mode) {
+            case "record" -> record(request, body, execution);
+            case "replay" -> replay(body);
+            default -> execution.execute(request, body);
+        };
+    }
+
+    private ClientHttpResponse record(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long started = System.nanoTime();
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            byte[] content = response.getBody().readAllBytes();
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            MediaType contentType = response.getHeaders().getContentType();
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                Map<String, Object> requestBody = readRequest(body);
+                String key = keyFor(requestBody);
+                GroqFixture fixture = new GroqFixture(key, requestBody, response.getStatusCode().value(),
+                        contentType != null ? contentType.toString() : null,
+                        new String(content, StandardCharsets.UTF_8), latencyMs);
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(dir, key + ".json").toFile(), fixture);
+            }
+            return new BufferedResponse(response.getStatusCode(), response.getStatusText(), response.getHeaders(),
+                    new ByteArrayInputStream(content));
+        }
+    }
+
+    private ClientHttpResponse replay(byte[] body) throws IOException {
+        Map<String, Object> requestBody = readRequest(body);
+        GroqFixture fixture = fixtures.get(keyFor(requestBody));
+        if (fixture == null && onMiss.equals("closest")) fixture = closest(requestBody);
+        if (fixture == null) {
+            return error(HttpStatus.NOT_FOUND, "{\"error\":{\"message\":\"No Groq replay fixture for this request\"}}");
+        }
+
+        double roll = nextDouble();
+        sleep(latency.sample(this::nextDouble, fixture.latencyMs()));
+        if (roll < rate429) {
+            HttpHeaders headers = jsonHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return new BufferedResponse(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers,
+                    new ByteArrayInputStream("{\"error\":{\"message\":\"Rate limit reached (injected)\"}}".getBytes(StandardCharsets.UTF_8)));
+        }
+        if (roll < rate429 + rate5xx) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "{\"error\":{\"message\":\"Service unavailable (injected)\"}}");
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (fixture.contentType() != null) headers.set(HttpHeaders.CONTENT_TYPE, fixture.contentType());
+        byte[] content = fixture.body().getBytes(StandardCharsets.UTF_8);
+        boolean stream = Boolean.TRUE.equals(requestBody.get("stream"));
+        InputStream in = stream && streamEventDelayMs > 0
+                ? new PacedEventStream(content, streamEventDelayMs)
+                : new ByteArrayInputStream(content);
+        return new BufferedResponse(HttpStatusCode.valueOf(fixture.status()), "", headers, in);
+    }
+
+    /**
+     * Fixture for the same kind of call (stream flag and max_tokens) whose user prompt shares the
+     * longest prefix with this one; useful when prompts embed dates or other varying values.
+     */
+    private GroqFixture closest(Map<String, Object> requestBody) {
+        String prompt = userPrompt(requestBody);
+        GroqFixture best = null;
+        int bestPrefix = -1;
+        for (GroqFixture candidate : fixtures.values()) {
+            if (!Objects.equals(candidate.request().get("stream"), requestBody.get("stream"))) continue;
+            if (!Objects.equals(candidate.request().get("max_tokens"), requestBody.get("max_tokens"))) continue;
+            String other = userPrompt(candidate.request());
+            int prefix = 0;
+            while (prefix < prompt.length() && prefix < other.length() && prompt.charAt(prefix) == other.charAt(prefix)) prefix++;
+            if (prefix > bestPrefix || (prefix == bestPrefix && candidate.key().compareTo(best.key()) < 0)) {
+                best = candidate;
+                bestPrefix = prefix;
+            }
+        }
+        return best;
+    }
+
+    private static String userPrompt(Map<String, Object> requestBody) {
+        if (!(requestBody.get("messages") instanceof List<?> messages)) return "";
+        for (Object message : messages) {
+            if (message instanceof Map<?, ?> m && "user".equals(m.get("role")) && m.get("content") instanceof String s) return s;
+        }
+        return "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readRequest(byte[] body) throws IOException {
+        return objectMapper.readValue(body, Map.class);
+    }
+
+    private String keyFor(Map<String, Object> requestBody) {
+        try {
+            byte[] canonical = canonicalMapper.writeValueAsBytes(requestBody);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private static ClientHttpResponse error(HttpStatus status, String json) {
+        return new BufferedResponse(status, status.getReasonPhrase(), jsonHeaders(),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during simulated Groq latency", e);
+        }
+    }
+
+    /**
+     * Latency in milliseconds: {@code none}, {@code recorded}, {@code fixed:250},
+     * {@code uniform:100-900} or {@code lognormal:800,0.6} (median, sigma).
+     */
+    interface LatencyModel {
+        long sample(java.util.function.DoubleSupplier random, long recordedMs);
+
+        static LatencyModel parse(String spec) {
+            String s = spec.trim().toLowerCase(Locale.ROOT);
+            if (s.equals("none")) return (r, recorded) -> 0;
+            if (s.equals("recorded")) return (r, recorded) -> recorded;
+
+            String[] kind = s.split(":", 2);
+            if (kind.length == 2) {
+                switch (kind[0]) {
+                    case "fixed" -> {
+                        long ms = Long.parseLong(kind[1].trim());
+                        return (r, recorded) -> ms;
+                    }
+                    case "uniform" -> {
+                        String[] range = kind[1].split("-");
+                        long min = Long.parseLong(range[0].trim());
+                        long max = Long.parseLong(range[1].trim());
+                        return (r, recorded) -> min + (long) (r.getAsDouble() * (max - min + 1));
+                    }
+                    case "lognormal" -> {
+                        String[] params = kind[1].split(",");
+                        double mu = Math.log(Double.parseDouble(params[0].trim()));
+                        double sigma = Double.parseDouble(params[1].trim());
+                        return (r, recorded) -> {
+                            double u1 = Math.max(r.getAsDouble(), 1e-12), u2 = r.getAsDouble();
+                            double z = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+                            return Math.round(Math.exp(mu + sigma * z));
+                        };
+                    }
+                    default -> { }
+                }
+            }
+            throw new IllegalArgumentException("Unknown groq.replay.latency: " + spec);
+        }
+    }
+
+    /**
+     * Releases an SSE body one event (blank-line separated block) at a time.
+     */
+    private static final class PacedEventStream extends InputStream {
+        private final byte[] content;
+        private final long delayMs;
+        private int position;
+        private int released;
+
+        PacedEventStream(byte[] content, long delayMs) {
+            this.content = content;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= content.length) return -1;
+            if (position >= released) releaseNextEvent();
+            return content[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= content.length) return -1;
+            if (position >= released) releaseNextEvent();
+            int n = Math.min(len, released - position);
+            System.arraycopy(content, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        private void releaseNextEvent() throws IOException {
+            sleep(delayMs);
+            int end = released;
+            while (end < content.length && !(content[end] == '\n' && end + 1 < content.length && content[end + 1] == '\n')) end++;
+            released = Math.min(content.length, end + 2);
+        }
+    }
+
+    private record BufferedResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers,
+                                    InputStream body) implements ClientHttpResponse {
+        @Override public HttpStatusCode getStatusCode() { return statusCode; }
+        @Override public String getStatusText()         { return statusText; }
+        @Override public HttpHeaders getHeaders()       { return headers; }
+        @Override public InputStream getBody()          { return body; }
+        @Override public void close() {
+            try { body.close(); } catch (IOException ignored) { }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.exceptions.AiBudgetExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token accounting for Groq calls. Usage is summed in memory per (day, user, feature) and written
+ * to {@code ai_usage_daily} every {@code ai.usage.flush-seconds} as one batched upsert, so calls
+ * never wait on the database. The same counts back the per-user daily budget
+ * ({@code ai.budget.daily-tokens-per-user}, 0 = unlimited): a call reserves its estimated tokens
+ * before it is sent, and {@link #record} swaps the estimate for the real count.
+ * User id 0 in the table stands for calls made without a user (seeding, maintenance).
+ */
+@Slf4j
+@Component
+public class GroqUsageTracker {
+    private static final long NO_USER = 0L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<UsageKey, long[]> pending = new HashMap<>();
+    private final Map<Long, AtomicLong> usedToday = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ai-usage-flush").daemon().factory());
+
+    private volatile LocalDate today = LocalDate.now();
+
+    @Value("${ai.usage.flush-seconds:10}")
+    private long flushSeconds;
+
+    @Value("${ai.budget.daily-tokens-per-user:0}")
+    private long dailyTokensPerUser;
+
+    private record UsageKey(LocalDate date, long userId, AiFeature feature) {}
+
+    /** Tokens held against a user's budget for a call in flight. */
+    record Reservation(Long userId, LocalDate date, long tokens) {
+        static final Reservation NONE = new Reservation(null, null, 0);
+    }
+
+    public GroqUsageTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        flusher.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Reserves {@code estimatedTokens} of the current user's budget for today, or rejects the call
+     * if that would take them over it. The reservation must end in {@link #record} or {@link #release}.
+     */
+    public Reservation reserve(AiFeature feature, long estimatedTokens) {
+        Long userId = AiUsageContext.currentUserId();
+        if (dailyTokensPerUser <= 0 || userId == null) return Reservation.NONE;
+
+        LocalDate date = currentDay();
+        AtomicLong counter = usedToday(userId);
+        long used = counter.addAndGet(estimatedTokens);
+        if (used > dailyTokensPerUser) {
+            counter.addAndGet(-estimatedTokens);
+            Counter.builder("groq.budget.rejected").tag("feature", feature.name()).register(meterRegistry).increment();
+            throw new AiBudgetExceededException("You have reached today's AI usage limit (" + (used - estimatedTokens)
+                    + " of " + dailyTokensPerUser + " tokens). Please try again tomorrow.");
+        }
+        return new Reservation(userId, date, estimatedTokens);
+    }
+
+    /** Gives back a reservation whose call failed before reporting usage. */
+    public void release(Reservation reservation) {
+        adjust(reservation, -reservation.tokens());
+    }
+
+    public void record(AiFeature feature, Reservation reservation, long promptTokens, long completionTokens, long latencyMs) {
+        Long userId = AiUsageContext.currentUserId();
+        UsageKey key = new UsageKey(LocalDate.now(), userId != null ? userId : NO_USER, feature);
+        synchronized (pending) {
+            long[] totals = pending.computeIfAbsent(key, k -> new long[4]);
+            totals[0]++;
+            totals[1] += promptTokens;
+            totals[2] += completionTokens;
+            totals[3] += latencyMs;
+        }
+        adjust(reservation, promptTokens + completionTokens - reservation.tokens());
+
+        Counter.builder("groq.tokens").tag("feature", feature.name()).tag("type", "prompt")
+                .register(meterRegistry).increment(promptTokens);
+        Counter.builder("groq.tokens").tag("feature", feature.name()).tag("type", "completion")
+                .register(meterRegistry).increment(completionTokens);
+    }
+
+    /** Applies {@code delta} to the reservation's day counter, unless that day has already rolled over. */
+    private void adjust(Reservation reservation, long delta) {
+        if (reservation.userId() == null || !reservation.date().equals(currentDay())) return;
+        AtomicLong used = usedToday.get(reservation.userId());
+        if (used != null) used.addAndGet(delta);
+    }
+
+    void flush() {
+        Map<UsageKey, long[]> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            batch = new HashMap<>(pending);
+            pending.clear();
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((key, totals) -> rows.add(new Object[]{
+                Date.valueOf(key.date()), key.userId(), key.feature().name(), totals[0], totals[1], totals[2], totals[3]}));
+        try {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO ai_usage_daily (usage_date, user_id, feature, calls, prompt_tokens, completion_tokens, latency_ms)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (usage_date, user_id, feature) DO UPDATE
+                       SET calls = ai_usage_daily.calls + EXCLUDED.calls,
+                           prompt_tokens = ai_usage_daily.prompt_tokens + EXCLUDED.prompt_tokens,
+                           completion_tokens = ai_usage_daily.completion_tokens + EXCLUDED.completion_tokens,
+                           latency_ms = ai_usage_daily.latency_ms + EXCLUDED.latency_ms""", rows);
+        } catch (DataAccessException e) {
+            log.warn("Writing {} AI usage rows failed, they will be retried: {}", rows.size(), e.getMessage());
+            synchronized (pending) {
+                batch.forEach((key, totals) -> pending.merge(key, totals, (a, b) -> {
+                    for (int i = 0; i < a.length; i++) a[i] += b[i];
+                    return a;
+                }));
+            }
+        }
+    }
+
+    private LocalDate currentDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            usedToday.clear();
+        }
+        return now;
+    }
+
+    private AtomicLong usedToday(Long userId) {
+        LocalDate now = currentDay();
+        return usedToday.computeIfAbsent(userId, id -> new AtomicLong(loadUsedToday(id, now)));
+    }
+
+    private long loadUsedToday(Long userId, LocalDate date) {
+        try {
+            Long used = jdbcTemplate.queryForObject("""
+                    SELECT COALESCE(SUM(prompt_tokens + completion_tokens), 0)
+                      FROM ai_usage_daily WHERE usage_date = ? AND user_id = ?""",
+                    Long.class, Date.valueOf(date), userId);
+            long pendingTokens;
+            synchronized (pending) {
+                pendingTokens = pending.entrySet().stream()
+                        .filter(e -> e.getKey().userId() == userId && e.getKey().date().equals(date))
+                        .mapToLong(e -> e.getValue()[1] + e.getValue()[2])
+                        .sum();
+            }
+            return (used != null ? used : 0) + pendingTokens;
+        } catch (DataAccessException e) {
+            log.debug("Loading today's AI usage for user {} failed: {}", userId, e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base for parsers of a JSON object that arrives in fragments, built on Jackson's non-blocking
+ * parser. Subclasses see the tokens through {@link #onToken} and can {@link #capture} a value
+ * starting at the current token; it is handed back to {@link #onCaptured} once complete.
+ * Anything before the first '{' is ignored. Parsing is best effort; once the input turns out
+ * not to be valid JSON the parser goes quiet and leaves error handling to the caller's full parse.
+ *
+ * @param <C> what a capture is for, passed back with the captured value
+ */
+@Slf4j
+abstract class IncrementalJsonParser<C> {
+    protected final ObjectMapper objectMapper;
+    protected final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean broken;
+    private TokenBuffer capture;
+    private C captureTarget;
+    private int captureDepth;
+
+    protected IncrementalJsonParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public void feed(String chunk) {
+        if (broken || chunk == null || chunk.isEmpty()) return;
+        if (!started) {
+            int brace = chunk.indexOf('{');
+            if (brace < 0) return;
+            chunk = chunk.substring(brace);
+            started = true;
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (IOException e) {
+            log.debug("Streamed JSON is not valid, incremental parsing stopped: {}", e.getMessage());
+            broken = true;
+        }
+    }
+
+    /** A token outside any capture. */
+    protected abstract void onToken(JsonToken token) throws IOException;
+
+    /** A captured value is complete; {@code value} is positioned on its first token. */
+    protected abstract void onCaptured(C target, JsonParser value) throws IOException;
+
+    /** Captures the value that starts at the current token. */
+    protected void capture(C target) throws IOException {
+        capture = new TokenBuffer(objectMapper, false);
+        captureTarget = target;
+        captureDepth = 0;
+        handle(parser.currentToken());
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (capture == null) {
+            onToken(token);
+            return;
+        }
+        capture.copyCurrentEvent(parser);
+        if (token.isStructStart()) captureDepth++;
+        else if (token.isStructEnd()) captureDepth--;
+        if (captureDepth == 0) {
+            JsonParser captured = capture.asParser(objectMapper);
+            capture = null;
+            captured.nextToken();
+            onCaptured(captureTarget, captured);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser that reports each element of one top-level array field (e.g. the
+ * {@code meals} of a day) as soon as the element's closing brace has arrived. Same best-effort
+ * contract as {@link IncrementalJsonParser}.
+ */
+public class JsonArrayStreamParser<T> extends IncrementalJsonParser<Boolean> {
+    private final String arrayField;
+    private final Class<T> elementType;
+    private final Consumer<T> onElement;
+
+    private int depth;
+    private String field;
+
+    public JsonArrayStreamParser(ObjectMapper objectMapper, String arrayField, Class<T> elementType, Consumer<T> onElement) {
+        super(objectMapper);
+        this.arrayField = arrayField;
+        this.elementType = elementType;
+        this.onElement = onElement;
+    }
+
+    @Override
+    protected void onToken(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                if (depth == 0) depth = 1;
+                else if (depth == 1 && token == JsonToken.START_ARRAY && arrayField.equals(field)) depth = 2;
+                else capture(depth == 2 && token == JsonToken.START_OBJECT);
+            }
+            case END_ARRAY -> {
+                if (depth == 2) depth = 1;
+            }
+            case END_OBJECT -> {
+                if (depth == 1) depth = 0;
+            }
+            case FIELD_NAME -> {
+                if (depth == 1) field = parser.currentName();
+            }
+            default -> { }
+        }
+    }
+
+    @Override
+    protected void onCaptured(Boolean element, JsonParser value) throws IOException {
+        if (element) onElement.accept(objectMapper.readValue(value, elementType));
+    }
+}
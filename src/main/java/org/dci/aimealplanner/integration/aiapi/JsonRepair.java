@@ -0,0 +1,120 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+/**
+ * Single-pass cleanup of model output before it is handed to Jackson. Drops text around the
+ * top-level value (code fences, commentary), removes trailing commas, escapes raw control
+ * characters inside strings and, when the output stops early, cuts it back to the last complete
+ * value and closes the open containers. Everything that was fully written survives; a
+ * half-written element does not.
+ */
+final class JsonRepair {
+
+    record Result(String json, boolean truncated) {}
+
+    private JsonRepair() {}
+
+    static Result repair(String raw) {
+        if (raw == null) return new Result("", false);
+        int start = firstContainer(raw);
+        if (start < 0) return new Result(raw.strip(), false);
+
+        StringBuilder out = new StringBuilder(raw.length());
+        StringBuilder open = new StringBuilder();
+        boolean inString = false, escaped = false, isKey = false;
+        char last = 0;
+        int safeLength = 0;
+        String safeOpen = "";
+
+        for (int i = start; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                    out.append(c);
+                } else if (c == '\\') {
+                    escaped = true;
+                    out.append(c);
+                } else if (c == '"') {
+                    inString = false;
+                    out.append(c);
+                    last = c;
+                    if (!isKey) {
+                        safeLength = out.length();
+                        safeOpen = open.toString();
+                    }
+                } else if (c == '\n') {
+                    out.append("\\n");
+                } else if (c == '\r') {
+                    out.append("\\r");
+                } else if (c == '\t') {
+                    out.append("\\t");
+                } else {
+                    out.append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    isKey = top(open) == '{' && (last == '{' || last == ',');
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    open.append(c);
+                    out.append(c);
+                    safeLength = out.length();
+                    safeOpen = open.toString();
+                }
+                case '}', ']' -> {
+                    if (open.isEmpty()) continue;
+                    dropTrailingComma(out);
+                    out.append(closer(top(open)));
+                    open.setLength(open.length() - 1);
+                    if (open.isEmpty()) return new Result(out.toString(), false);
+                    safeLength = out.length();
+                    safeOpen = open.toString();
+                }
+                case ',' -> {
+                    if (last != ',' && last != '{' && last != '[') {
+                        safeLength = out.length();
+                        safeOpen = open.toString();
+                        out.append(c);
+                    }
+                }
+                default -> out.append(c);
+            }
+            if (!Character.isWhitespace(c)) last = c;
+        }
+
+        out.setLength(safeLength);
+        dropTrailingComma(out);
+        for (int i = safeOpen.length() - 1; i >= 0; i--) {
+            out.append(closer(safeOpen.charAt(i)));
+        }
+        return new Result(out.toString(), true);
+    }
+
+    private static int firstContainer(String raw) {
+        int object = raw.indexOf('{');
+        int array = raw.indexOf('[');
+        if (object < 0) return array;
+        if (array < 0) return object;
+        return Math.min(object, array);
+    }
+
+    private static char top(StringBuilder open) {
+        return open.isEmpty() ? 0 : open.charAt(open.length() - 1);
+    }
+
+    private static char closer(char opener) {
+        return opener == '{' ? '}' : ']';
+    }
+
+    private static void dropTrailingComma(StringBuilder out) {
+        int end = out.length();
+        while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) end--;
+        if (end > 0 && out.charAt(end - 1) == ',') out.setLength(end - 1);
+    }
+}
@@ -0,0 +1,20 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.IngredientLine;
+
+/**
+ * Receives the parts of a streamed recipe as soon as each one is complete. Fields other than
+ * ingredients and instructions (title, difficulty, servings, ...) arrive through {@link #onField}.
+ */
+public interface RecipeStreamListener {
+    default void onField(String name, JsonNode value) {}
+
+    default void onIngredient(int index, IngredientLine ingredient) {}
+
+    default void onInstruction(int index, String step) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
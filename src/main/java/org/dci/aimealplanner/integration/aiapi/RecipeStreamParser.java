@@ -0,0 +1,71 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.IngredientLine;
+
+import java.io.IOException;
+
+/**
+ * Incremental parser for a recipe JSON object that arrives in fragments: each top-level field
+ * is reported once its value is complete, and the {@code ingredients} and {@code instructions}
+ * arrays are reported element by element. Same best-effort contract as {@link IncrementalJsonParser}.
+ */
+public class RecipeStreamParser extends IncrementalJsonParser<RecipeStreamParser.Target> {
+    private static final String INGREDIENTS = "ingredients";
+    private static final String INSTRUCTIONS = "instructions";
+
+    enum Target { FIELD, INGREDIENT, SKIP }
+
+    private final RecipeStreamListener listener;
+
+    private int depth;
+    private String field;
+    private int ingredientCount;
+    private int instructionCount;
+
+    public RecipeStreamParser(ObjectMapper objectMapper, RecipeStreamListener listener) {
+        super(objectMapper);
+        this.listener = listener;
+    }
+
+    @Override
+    protected void onToken(JsonToken token) throws IOException {
+        if (depth == 0) {
+            if (token == JsonToken.START_OBJECT) depth = 1;
+            return;
+        }
+        if (depth == 1) {
+            switch (token) {
+                case FIELD_NAME -> field = parser.currentName();
+                case END_OBJECT -> depth = 0;
+                case START_ARRAY -> {
+                    if (INGREDIENTS.equals(field) || INSTRUCTIONS.equals(field)) depth = 2;
+                    else capture(Target.FIELD);
+                }
+                default -> capture(Target.FIELD);
+            }
+            return;
+        }
+
+        if (token == JsonToken.END_ARRAY) {
+            depth = 1;
+        } else if (INSTRUCTIONS.equals(field) && token == JsonToken.VALUE_STRING) {
+            listener.onInstruction(instructionCount++, parser.getText());
+        } else if (INGREDIENTS.equals(field) && token == JsonToken.START_OBJECT) {
+            capture(Target.INGREDIENT);
+        } else if (token.isStructStart()) {
+            capture(Target.SKIP);
+        }
+    }
+
+    @Override
+    protected void onCaptured(Target target, JsonParser value) throws IOException {
+        switch (target) {
+            case INGREDIENT -> listener.onIngredient(ingredientCount++, objectMapper.readValue(value, IngredientLine.class));
+            case FIELD -> listener.onField(field, objectMapper.readTree(value));
+            case SKIP -> { }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.dci.aimealplanner.integration.aiapi.dtos.ingredients;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AIChoiceResponse {
     private AIMessage message;
+
+    @JsonProperty("finish_reason")
+    private String finishReason;
 }
@@ -13,4 +13,5 @@ import java.util.List;
 @AllArgsConstructor
 public class AiResponse {
     private List<AIChoiceResponse> choices;
+    private AiUsage usage;
 }
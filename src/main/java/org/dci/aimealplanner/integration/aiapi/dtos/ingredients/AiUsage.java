@@ -0,0 +1,19 @@
+package org.dci.aimealplanner.integration.aiapi.dtos.ingredients;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiUsage {
+    @JsonProperty("prompt_tokens")
+    private long promptTokens;
+
+    @JsonProperty("completion_tokens")
+    private long completionTokens;
+}
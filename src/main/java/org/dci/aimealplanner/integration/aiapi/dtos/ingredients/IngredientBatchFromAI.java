@@ -0,0 +1,16 @@
+package org.dci.aimealplanner.integration.aiapi.dtos.ingredients;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngredientBatchFromAI {
+    private List<IngredientFromAI> ingredients;
+}
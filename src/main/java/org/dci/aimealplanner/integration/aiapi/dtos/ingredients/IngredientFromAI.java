@@ -13,6 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class IngredientFromAI {
+    private String input;
     private String name;
     private String category;
     private Nutrition nutrition;
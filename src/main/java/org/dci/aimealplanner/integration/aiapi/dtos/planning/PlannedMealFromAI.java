@@ -1,6 +1,7 @@
 package org.dci.aimealplanner.integration.aiapi.dtos.planning;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
 
 import java.util.List;
 
@@ -9,6 +10,7 @@ public record PlannedMealFromAI(
         String title,
         Double servings,
         @JsonProperty("meal_categories") List<String> mealCategories,
-        String notes
+        String notes,
+        RecipeFromAI recipe
 ) {
 }
@@ -1,10 +1,15 @@
 package org.dci.aimealplanner.integration.configs;
 
+import org.dci.aimealplanner.integration.aiapi.GroqReplayInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class GroqApiConfig {
     @Value("${groq.base.url}")
@@ -13,10 +18,24 @@ public class GroqApiConfig {
     @Value("${groq.api.key}")
     private String apiKey;
 
+    @Value("${groq.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${groq.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
     @Bean
-    public RestClient groqRestClient(RestClient.Builder builder) {
+    public RestClient groqRestClient(RestClient.Builder builder, GroqReplayInterceptor replayInterceptor) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
         return builder
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .requestInterceptor(replayInterceptor)
                 .defaultHeaders(headers -> {
                     headers.setBearerAuth(apiKey);
                     headers.setContentType(org.springframework.http.MediaType.APPLICATION_JSON);
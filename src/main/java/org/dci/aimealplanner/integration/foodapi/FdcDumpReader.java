@@ -0,0 +1,209 @@
+package org.dci.aimealplanner.integration.foodapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.integration.foodapi.dto.FoodItem;
+import org.dci.aimealplanner.integration.foodapi.dto.FoodNutrient;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Reads foods from the downloadable FoodData Central dumps without calling the API: either one of
+ * the JSON files ({@code FoundationFoods}, {@code SRLegacyFoods}, {@code BrandedFoods}, ...), read
+ * one food at a time with Jackson's streaming parser, or a directory with the CSV release
+ * ({@code food.csv}, {@code nutrient.csv}, {@code food_nutrient.csv}, {@code food_category.csv}).
+ * The CSV foods and their nutrients are merged as both files stream by, which relies on them being
+ * sorted by {@code fdc_id} as the releases are; only one food is held in memory at a time.
+ * Foods are handed out in the same {@link FoodItem} shape the search API returns.
+ */
+@Component
+@RequiredArgsConstructor
+public class FdcDumpReader {
+    private final ObjectMapper objectMapper;
+
+    public void read(Path path, Consumer<FoodItem> sink) throws IOException {
+        if (Files.isDirectory(path)) readCsv(path, sink);
+        else readJson(path, sink);
+    }
+
+    private void readJson(Path file, Consumer<FoodItem> sink) throws IOException {
+        try (InputStream in = Files.newInputStream(file);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    if (parser.nextToken() == JsonToken.START_ARRAY) readFoods(parser, sink);
+                    else parser.skipChildren();
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                readFoods(parser, sink);
+            }
+        }
+    }
+
+    private void readFoods(JsonParser parser, Consumer<FoodItem> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            JsonNode food = objectMapper.readTree(parser);
+            List<FoodNutrient> nutrients = new ArrayList<>();
+            for (JsonNode n : food.path("foodNutrients")) {
+                JsonNode nutrient = n.path("nutrient");
+                JsonNode amount = n.has("amount") ? n.get("amount") : n.get("value");
+                if (amount == null || !amount.isNumber()) continue;
+                nutrients.add(new FoodNutrient(
+                        text(nutrient.has("name") ? nutrient.get("name") : n.get("nutrientName")),
+                        text(nutrient.has("unitName") ? nutrient.get("unitName") : n.get("unitName")),
+                        amount.asDouble()));
+            }
+            sink.accept(new FoodItem(food.path("fdcId").asLong(), text(food.get("description")),
+                    category(food), nutrients));
+        }
+    }
+
+    private static String category(JsonNode food) {
+        JsonNode category = food.get("foodCategory");
+        if (category != null && category.isObject()) return text(category.get("description"));
+        if (category != null && category.isTextual()) return category.asText();
+        if (food.hasNonNull("brandedFoodCategory")) return food.get("brandedFoodCategory").asText();
+        return text(food.path("wweiaFoodCategory").get("wweiaFoodCategoryDescription"));
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private void readCsv(Path dir, Consumer<FoodItem> sink) throws IOException {
+        Map<String, String> categories = new HashMap<>();
+        forEachRow(dir.resolve("food_category.csv"), false, row -> categories.put(row.get("id"), row.get("description")));
+
+        Map<String, String[]> nutrients = new HashMap<>();
+        forEachRow(dir.resolve("nutrient.csv"), true, row -> {
+            FoodNutrient probe = new FoodNutrient(row.get("name"), row.get("unit_name"), 1.0d);
+            if (isTracked(probe)) nutrients.put(row.get("id"), new String[]{row.get("name"), row.get("unit_name")});
+        });
+
+        try (CsvRows foodRows = CsvRows.open(dir.resolve("food.csv"));
+             CsvRows nutrientRows = CsvRows.open(dir.resolve("food_nutrient.csv"))) {
+            Map<String, String> nutrientRow = nutrientRows.next();
+            long nutrientFdcId = nutrientRow == null ? Long.MAX_VALUE : sortedFdcId(nutrientRow, Long.MIN_VALUE, "food_nutrient.csv");
+            long lastFdcId = Long.MIN_VALUE;
+            for (Map<String, String> row = foodRows.next(); row != null; row = foodRows.next()) {
+                long fdcId = sortedFdcId(row, lastFdcId, "food.csv");
+                lastFdcId = fdcId;
+                FoodItem food = new FoodItem(fdcId, row.get("description"),
+                        categories.get(row.get("food_category_id")), new ArrayList<>());
+
+                while (nutrientFdcId <= fdcId) {
+                    String[] nutrient = nutrients.get(nutrientRow.get("nutrient_id"));
+                    String amount = nutrientRow.get("amount");
+                    if (nutrientFdcId == fdcId && nutrient != null && amount != null && !amount.isEmpty()) {
+                        food.getFoodNutrients().add(new FoodNutrient(nutrient[0], nutrient[1], Double.parseDouble(amount)));
+                    }
+                    nutrientRow = nutrientRows.next();
+                    nutrientFdcId = nutrientRow == null ? Long.MAX_VALUE : sortedFdcId(nutrientRow, nutrientFdcId, "food_nutrient.csv");
+                }
+                sink.accept(food);
+            }
+        }
+    }
+
+    /** The row's {@code fdc_id}, which must not be below {@code previous}; the merge relies on both files being sorted. */
+    private static long sortedFdcId(Map<String, String> row, long previous, String file) throws IOException {
+        long fdcId = Long.parseLong(row.get("fdc_id"));
+        if (fdcId < previous) throw new IOException(file + " is not sorted by fdc_id (" + fdcId + " after " + previous + ")");
+        return fdcId;
+    }
+
+    private static boolean isTracked(FoodNutrient nutrient) {
+        var fact = new FoodItem(0L, null, null, List.of(nutrient)).toNutritionFact();
+        return fact.getKcal() != null || fact.getProtein() != null || fact.getCarbs() != null
+                || fact.getFat() != null || fact.getFiber() != null || fact.getSugar() != null;
+    }
+
+    private static void forEachRow(Path file, boolean required, Consumer<Map<String, String>> action) throws IOException {
+        if (!Files.exists(file)) {
+            if (required) throw new IOException("Missing " + file.getFileName() + " in " + file.getParent());
+            return;
+        }
+        try (CsvRows rows = CsvRows.open(file)) {
+            for (Map<String, String> row = rows.next(); row != null; row = rows.next()) action.accept(row);
+        }
+    }
+
+    /** Reads a CSV file row by row, keyed by its header; the returned map is reused for every row. */
+    private static final class CsvRows implements AutoCloseable {
+        private final BufferedReader reader;
+        private final List<String> header;
+        private final Map<String, String> row = new HashMap<>();
+
+        private CsvRows(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            this.header = nextRecord(reader);
+        }
+
+        static CsvRows open(Path file) throws IOException {
+            if (!Files.exists(file)) throw new IOException("Missing " + file.getFileName() + " in " + file.getParent());
+            return new CsvRows(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        }
+
+        Map<String, String> next() throws IOException {
+            List<String> record = header == null ? null : nextRecord(reader);
+            if (record == null) return null;
+            row.clear();
+            for (int i = 0; i < header.size() && i < record.size(); i++) row.put(header.get(i), record.get(i));
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /** One RFC 4180 record: quoted fields may contain commas, doubled quotes and line breaks. */
+    static List<String> nextRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) break;
+            line = reader.readLine();
+            if (line == null) break;
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,13 @@
+package org.dci.aimealplanner.models.admin;
+
+public record AiUsageFeatureDTO(
+        String feature,
+        long calls,
+        long promptTokens,
+        long completionTokens,
+        long avgLatencyMs
+) {
+    public long totalTokens() {
+        return promptTokens + completionTokens;
+    }
+}
@@ -0,0 +1,9 @@
+package org.dci.aimealplanner.models.admin;
+
+public record AiUsageUserDTO(
+        Long userId,
+        String email,
+        long calls,
+        long totalTokens
+) {
+}
@@ -0,0 +1,31 @@
+package org.dci.aimealplanner.models.planning;
+
+import org.dci.aimealplanner.models.recipes.MealSlot;
+
+import java.time.LocalDate;
+
+public record AiPlanJobMealDTO(
+        LocalDate date,
+        MealSlot slot,
+        String title,
+        String state,
+        Long recipeId,
+        String recipeTitle,
+        String reason
+) {
+    public static AiPlanJobMealDTO pending(PlannedMealDTO meal) {
+        return new AiPlanJobMealDTO(meal.date(), meal.slot(), meal.title(), "PENDING", null, null, null);
+    }
+
+    public AiPlanJobMealDTO titled(String title) {
+        return new AiPlanJobMealDTO(date, slot, title, state, recipeId, recipeTitle, reason);
+    }
+
+    public AiPlanJobMealDTO done(Long recipeId, String recipeTitle) {
+        return new AiPlanJobMealDTO(date, slot, title, "DONE", recipeId, recipeTitle, null);
+    }
+
+    public AiPlanJobMealDTO failed(String state, String reason) {
+        return new AiPlanJobMealDTO(date, slot, title, state, null, null, reason);
+    }
+}
@@ -0,0 +1,21 @@
+package org.dci.aimealplanner.models.planning;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AiPlanJobStatusDTO(
+        String jobId,
+        Long planId,
+        String state,
+        int totalMeals,
+        int completedMeals,
+        int failedMeals,
+        List<AiPlanJobMealDTO> meals,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
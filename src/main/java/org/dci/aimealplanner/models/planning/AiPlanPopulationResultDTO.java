@@ -0,0 +1,14 @@
+package org.dci.aimealplanner.models.planning;
+
+import java.util.List;
+
+public record AiPlanPopulationResultDTO(
+        int requestedMeals,
+        int createdMeals,
+        int reusedMeals,
+        List<MealGenerationFailureDTO> failures
+) {
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package org.dci.aimealplanner.models.planning;
+
+import org.dci.aimealplanner.models.recipes.MealSlot;
+
+import java.time.LocalDate;
+
+public record MealGenerationFailureDTO(
+        LocalDate date,
+        MealSlot slot,
+        String title,
+        String reason
+) {
+}
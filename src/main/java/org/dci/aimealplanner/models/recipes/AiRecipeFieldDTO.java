@@ -0,0 +1,9 @@
+package org.dci.aimealplanner.models.recipes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record AiRecipeFieldDTO(
+        String name,
+        JsonNode value
+) {
+}
@@ -0,0 +1,7 @@
+package org.dci.aimealplanner.models.recipes;
+
+public record AiRecipeStepDTO(
+        int index,
+        String text
+) {
+}
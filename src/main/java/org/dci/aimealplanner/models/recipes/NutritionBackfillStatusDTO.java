@@ -0,0 +1,18 @@
+package org.dci.aimealplanner.models.recipes;
+
+import java.time.LocalDateTime;
+
+public record NutritionBackfillStatusDTO(
+        String state,
+        int pendingIngredients,
+        int totalRecipes,
+        int processedRecipes,
+        int updatedRecipes,
+        int failedRecipes,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public static NutritionBackfillStatusDTO idle() {
+        return new NutritionBackfillStatusDTO("IDLE", 0, 0, 0, 0, 0, null, null);
+    }
+}
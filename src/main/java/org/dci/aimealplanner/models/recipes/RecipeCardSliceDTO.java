@@ -0,0 +1,11 @@
+package org.dci.aimealplanner.models.recipes;
+
+import java.util.List;
+
+/** One slice of recipe cards; {@code nextCursor} is {@code null} on the last one. */
+public record RecipeCardSliceDTO(
+        List<RecipeCardDTO> content,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,11 @@
+package org.dci.aimealplanner.repositories.ingredients;
+
+public interface IngredientNutritionRow {
+    Long getIngredientId();
+    Long getNutritionFactId();
+    Long getCategoryId();
+    Double getKcal();
+    Double getProtein();
+    Double getCarbs();
+    Double getFat();
+}
@@ -1,8 +1,6 @@
 package org.dci.aimealplanner.repositories.ingredients;
 
 import org.dci.aimealplanner.entities.ingredients.Ingredient;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,36 +13,21 @@ import java.util.Optional;
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     Optional<Ingredient> findByName(String name);
-    Optional<Ingredient> findFirstByNameIgnoreCase(String name);
+
+    @Query("select i from ingredients i where lower(i.name) = lower(:name) order by i.id asc")
+    List<Ingredient> findAllByNameLower(@Param("name") String name);
+
     Optional<Ingredient> findByNameIgnoreCaseLike(String name);
     List<IngredientSummary> findByIdIn(Collection<Long> ids);
-    List<Ingredient> findTop10ByNameContainingIgnoreCaseOrderByNameAsc(String q);
-
-    @Query("""
-        select i.id as id, i.name as name
-        from ingredients i
-        where lower(i.name) like lower(concat('%', :q, '%'))
-        order by 
-          case 
-            when lower(i.name) like lower(concat(:q, '%')) then 0 
-            else 1 
-          end,
-          i.name asc
-    """)
-    Page<IngredientSummary> smartSearch(@Param("q") String q, Pageable pageable);
+    List<IngredientSummary> findAllProjectedBy();
 
     @Query("""
-        select i
+        select i.id as ingredientId, n.id as nutritionFactId, c.id as categoryId,
+               n.kcal as kcal, n.protein as protein, n.carbs as carbs, n.fat as fat
         from ingredients i
-        where lower(i.name) like lower(concat('%', :q, '%'))
-        order by 
-          case 
-            when lower(i.name) = lower(:q) then 0
-            when lower(i.name) like lower(concat(:q, '%')) then 1
-            when lower(i.name) like lower(concat('%', :q)) then 2
-            else 3
-          end,
-          length(i.name) asc
+        left join i.nutritionFact n
+        left join i.category c
+        order by i.id asc
         """)
-    List<Ingredient> searchByNameFuzzy(@org.springframework.data.repository.query.Param("q") String q);
+    List<IngredientNutritionRow> findAllNutritionRows();
 }
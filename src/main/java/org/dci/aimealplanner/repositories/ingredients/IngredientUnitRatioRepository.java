@@ -4,6 +4,7 @@ import org.dci.aimealplanner.entities.ingredients.Ingredient;
 import org.dci.aimealplanner.entities.ingredients.IngredientUnitRatio;
 import org.dci.aimealplanner.entities.ingredients.Unit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +20,11 @@ public interface IngredientUnitRatioRepository extends JpaRepository<IngredientU
 
     Optional<IngredientUnitRatio> findFirstByIngredientIdAndUnitId(Long ingredientId, Long unitId);
     boolean existsByIngredientIdAndUnitId(Long ingredientId, Long unitId);
+
+    @Query("""
+        select r.ingredient.id as ingredientId, r.unit.id as unitId, r.ratio as ratio
+        from IngredientUnitRatio r
+        order by r.ingredient.id asc, r.id asc
+        """)
+    List<UnitRatioRow> findAllRatioRows();
 }
@@ -0,0 +1,7 @@
+package org.dci.aimealplanner.repositories.ingredients;
+
+public interface UnitRatioRow {
+    Long getIngredientId();
+    Long getUnitId();
+    Double getRatio();
+}
@@ -10,6 +10,5 @@ import java.util.Optional;
 public interface UnitRepository extends JpaRepository<Unit, Long> {
     Optional<Unit> findByCode(String code);
     Optional<Unit> findByDisplayName(String displayName);
-    Optional<Unit> findByCodeIgnoreCase(String code);
 
 }
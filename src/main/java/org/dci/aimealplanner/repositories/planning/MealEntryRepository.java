@@ -27,4 +27,11 @@ public interface MealEntryRepository extends JpaRepository<MealEntry, Long> {
     List<MealEntry> upcomingForUser(Long userId, LocalDate today);
 
     List<MealEntry> findByMealPlan_IdOrderByEntryDateAscMealSlotAsc(Long mealPlanId);
+
+    @Query("""
+      SELECT DISTINCT e.recipe.id AS recipeId, e.mealSlot AS slot FROM MealEntry e
+      WHERE e.mealPlan.user.id = :userId
+        AND e.recipe.sourceType = org.dci.aimealplanner.models.SourceType.AI
+    """)
+    List<RecipeSlotRow> findAiRecipeSlots(Long userId);
 }
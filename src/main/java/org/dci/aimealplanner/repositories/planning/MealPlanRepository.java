@@ -3,6 +3,7 @@ package org.dci.aimealplanner.repositories.planning;
 import org.dci.aimealplanner.entities.planning.MealPlan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,11 +18,14 @@ public interface MealPlanRepository extends JpaRepository<MealPlan, Long> {
             String emailLike, String planNameLike, Pageable pageable
     );
 
+    Slice<MealPlan> findByIdLessThan(Long beforeId, Pageable pageable);
+
     @Query("""
       SELECT mp FROM MealPlan mp
-      WHERE (:q = '' OR
-             LOWER(mp.name)       LIKE LOWER(CONCAT('%', :q, '%')) OR
-             LOWER(mp.user.email) LIKE LOWER(CONCAT('%', :q, '%')))
+      WHERE (mp.id IN (SELECT p.id FROM MealPlan p WHERE LOWER(p.name) LIKE :pattern)
+         OR mp.user.id IN (SELECT u.id FROM User u WHERE LOWER(u.email) LIKE :pattern))
+        AND mp.id < :beforeId
       """)
-    Page<MealPlan> searchByEmailOrPlanName(@Param("q") String q, Pageable pageable);
+    Slice<MealPlan> searchByEmailOrPlanName(@Param("pattern") String pattern, @Param("beforeId") long beforeId,
+                                            Pageable pageable);
 }
@@ -0,0 +1,8 @@
+package org.dci.aimealplanner.repositories.planning;
+
+import org.dci.aimealplanner.models.recipes.MealSlot;
+
+public interface RecipeSlotRow {
+    Long getRecipeId();
+    MealSlot getSlot();
+}
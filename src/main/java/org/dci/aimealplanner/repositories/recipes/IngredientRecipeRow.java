@@ -0,0 +1,6 @@
+package org.dci.aimealplanner.repositories.recipes;
+
+public interface IngredientRecipeRow {
+    Long getIngredientId();
+    Long getRecipeId();
+}
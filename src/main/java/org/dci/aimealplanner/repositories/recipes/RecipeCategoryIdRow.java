@@ -0,0 +1,6 @@
+package org.dci.aimealplanner.repositories.recipes;
+
+public interface RecipeCategoryIdRow {
+    Long getRecipeId();
+    Long getCategoryId();
+}
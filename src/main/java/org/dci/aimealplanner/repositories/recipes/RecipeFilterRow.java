@@ -0,0 +1,12 @@
+package org.dci.aimealplanner.repositories.recipes;
+
+import org.dci.aimealplanner.models.Difficulty;
+import org.dci.aimealplanner.models.SourceType;
+
+public interface RecipeFilterRow {
+    Long getRecipeId();
+    String getTitle();
+    Integer getPreparationTimeMinutes();
+    Difficulty getDifficulty();
+    SourceType getSourceType();
+}
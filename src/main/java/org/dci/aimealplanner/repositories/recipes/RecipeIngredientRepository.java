@@ -2,8 +2,25 @@ package org.dci.aimealplanner.repositories.recipes;
 
 import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Long> {
+    @Query("""
+        select ri.ingredient.id as ingredientId, ri.recipe.id as recipeId
+        from recipe_ingredients ri
+        """)
+    List<IngredientRecipeRow> findAllIngredientRecipePairs();
+
+    @Query("""
+        select ri.ingredient.id as ingredientId, ri.recipe.id as recipeId
+        from recipe_ingredients ri
+        where ri.recipe.id in :recipeIds
+        """)
+    List<IngredientRecipeRow> findIngredientRecipePairsByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
 }
@@ -2,26 +2,30 @@ package org.dci.aimealplanner.repositories.recipes;
 
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.models.SourceType;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecificationExecutor<Recipe> {
     @Query("""
-        select r from Recipe r
-        where lower(r.title) like lower(concat('%', :q, '%'))
+        select r from Recipe r, RecipeSearchDocument d
+        where d.recipeId = r.id
+          and function('recipe_search_matches', d.document, :query) = true
           and ( r.sourceType = org.dci.aimealplanner.models.SourceType.USER
                 or (r.sourceType = org.dci.aimealplanner.models.SourceType.AI
                     and r.author.id = :userId) )
+        order by function('recipe_search_rank', d.document, :query) desc, r.title
         """)
-    Page<Recipe> searchForPlanner(@Param("q") String q,
+    List<Recipe> searchForPlanner(@Param("query") String query,
                                   @Param("userId") Long userId,
                                   Pageable pageable);
 
@@ -48,10 +52,56 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecif
         return picks.isEmpty() ? findNewest(p) : picks;
     }
 
-    Page<Recipe> findByAuthor_IdAndSourceType(Long authorId, SourceType sourceType, Pageable pageable);
+    Slice<Recipe> findByAuthor_IdAndSourceTypeAndIdLessThan(Long authorId, SourceType sourceType, Long beforeId,
+                                                           Pageable pageable);
 
-    Page<Recipe> findBySourceType(SourceType sourceType, Pageable pageable);
+    Slice<Recipe> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    Slice<Recipe> findBySourceTypeAndIdGreaterThan(SourceType sourceType, Long afterId, Pageable pageable);
     long countBySourceType(SourceType sourceType);
 
+    @Query("""
+           select r.id as recipeId, r.title as title from Recipe r
+           where r.author.id = :userId
+             and r.sourceType = org.dci.aimealplanner.models.SourceType.AI
+           """)
+    List<RecipeTitleRow> findAiRecipeTitles(@Param("userId") Long userId);
+
+    @Query("""
+           select r.id as recipeId, c.name as name from Recipe r join r.mealCategories c
+           where r.author.id = :userId
+             and r.sourceType = org.dci.aimealplanner.models.SourceType.AI
+           """)
+    List<RecipeCategoryRow> findAiRecipeCategories(@Param("userId") Long userId);
+
+    @Query("""
+           select d.recipeId from RecipeSearchDocument d
+           where function('recipe_search_matches', d.document, :query) = true
+           order by function('recipe_search_rank', d.document, :query) desc, d.recipeId
+           """)
+    List<Long> findRankedIdsByFullText(@Param("query") String query, Pageable pageable);
+
+    @Query("""
+           select r.id as recipeId, r.title as title, r.preparationTimeMinutes as preparationTimeMinutes,
+                  r.difficulty as difficulty, r.sourceType as sourceType
+           from Recipe r
+           """)
+    List<RecipeFilterRow> findAllFilterRows();
+
+    @Query("""
+           select r.id as recipeId, r.title as title, r.preparationTimeMinutes as preparationTimeMinutes,
+                  r.difficulty as difficulty, r.sourceType as sourceType
+           from Recipe r
+           where r.id in :ids
+           """)
+    List<RecipeFilterRow> findFilterRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id as recipeId, c.id as categoryId from Recipe r join r.mealCategories c")
+    List<RecipeCategoryIdRow> findAllRecipeCategoryIds();
+
+    @Query("select r.id as recipeId, c.id as categoryId from Recipe r join r.mealCategories c where r.id in :ids")
+    List<RecipeCategoryIdRow> findRecipeCategoryIdsByIdIn(@Param("ids") Collection<Long> ids);
 
+    @EntityGraph(attributePaths = "ingredients")
+    List<Recipe> findWithIngredientsByIdIn(Collection<Long> ids);
 }
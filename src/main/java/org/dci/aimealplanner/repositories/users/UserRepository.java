@@ -3,8 +3,8 @@ package org.dci.aimealplanner.repositories.users;
 import org.dci.aimealplanner.entities.users.User;
 import org.dci.aimealplanner.models.Role;
 import org.dci.aimealplanner.models.UserType;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,8 +26,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
         SELECT u FROM User u
         WHERE u.isDeleted = false
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActive(@Param("q") String q, Pageable pageable);
+    Slice<User> searchActive(@Param("q") String q, @Param("afterId") long afterId, Pageable pageable);
 
 
     @Query("""
@@ -35,8 +36,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
         WHERE u.isDeleted = false
           AND u.userType = :type
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActiveByType(@Param("q") String q, @Param("type") UserType type, Pageable pageable);
+    Slice<User> searchActiveByType(@Param("q") String q, @Param("type") UserType type, @Param("afterId") long afterId, Pageable pageable);
 
 
     @Query("""
@@ -44,8 +46,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
         WHERE u.isDeleted = false
           AND u.emailVerified = true
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActiveVerified(@Param("q") String q, Pageable pageable);
+    Slice<User> searchActiveVerified(@Param("q") String q, @Param("afterId") long afterId, Pageable pageable);
 
     @Query("""
         SELECT u FROM User u
@@ -53,16 +56,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
           AND u.emailVerified = true
           AND u.userType = :type
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActiveVerifiedByType(@Param("q") String q, @Param("type") UserType type, Pageable pageable);
+    Slice<User> searchActiveVerifiedByType(@Param("q") String q, @Param("type") UserType type, @Param("afterId") long afterId, Pageable pageable);
 
     @Query("""
         SELECT u FROM User u
         WHERE u.isDeleted = false
           AND u.emailVerified = false
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActiveUnverified(@Param("q") String q, Pageable pageable);
+    Slice<User> searchActiveUnverified(@Param("q") String q, @Param("afterId") long afterId, Pageable pageable);
 
     @Query("""
         SELECT u FROM User u
@@ -70,21 +75,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
           AND u.emailVerified = false
           AND u.userType = :type
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchActiveUnverifiedByType(@Param("q") String q, @Param("type") UserType type, Pageable pageable);
+    Slice<User> searchActiveUnverifiedByType(@Param("q") String q, @Param("type") UserType type, @Param("afterId") long afterId, Pageable pageable);
 
     @Query("""
         SELECT u FROM User u
         WHERE u.isDeleted = true
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchDeleted(@Param("q") String q, Pageable pageable);
+    Slice<User> searchDeleted(@Param("q") String q, @Param("afterId") long afterId, Pageable pageable);
 
     @Query("""
         SELECT u FROM User u
         WHERE u.isDeleted = true
           AND u.userType = :type
           AND LOWER(u.email) LIKE :q
+          AND u.id > :afterId
         """)
-    Page<User> searchDeletedByType(@Param("q") String q, @Param("type") UserType type, Pageable pageable);
+    Slice<User> searchDeletedByType(@Param("q") String q, @Param("type") UserType type, @Param("afterId") long afterId, Pageable pageable);
 }
@@ -11,6 +11,8 @@ import org.dci.aimealplanner.models.UserType;
 import org.dci.aimealplanner.services.planning.MealPlanningService;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserService;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.dci.aimealplanner.services.utils.TextNormalize;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,12 +55,8 @@ public class AdminDashboardService {
         return recipeService.countBySource(SourceType.AI);
     }
 
-    public Page<Recipe> findRecipes(SourceType sourceType, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-        if (sourceType == null) {
-            return recipeService.findAll(pageable);
-        }
-        return recipeService.findBySource(sourceType, pageable);
+    public Slice<Recipe> findRecipes(SourceType sourceType, PageCursor cursor, int size) {
+        return recipeService.findBySource(sourceType, cursor, size);
     }
 
     public long countAllUsers() {
@@ -77,9 +75,10 @@ public class AdminDashboardService {
         return userService.countByIsDeletedTrue();
     }
 
-    public Page<User> findUsers(String filter, String provider, String q, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id"));
-        String like = toLike(q);
+    public Slice<User> findUsers(String filter, String provider, String q, PageCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"));
+        long afterId = cursor == null ? 0 : cursor.id();
+        String like = TextNormalize.likeContains(q);
 
         UserType type = null;
         if (provider != null && !"ANY".equalsIgnoreCase(provider)) {
@@ -89,31 +88,27 @@ public class AdminDashboardService {
         switch (filter == null ? "ALL" : filter.toUpperCase()) {
             case "DELETED":
                 return (type == null)
-                        ? userService.searchDeleted(like, pageable)
-                        : userService.searchDeletedByType(like, type, pageable);
+                        ? userService.searchDeleted(like, afterId, pageable)
+                        : userService.searchDeletedByType(like, type, afterId, pageable);
 
             case "ACTIVE":
                 return (type == null)
-                        ? userService.searchActiveVerified(like, pageable)
-                        : userService.searchActiveVerifiedByType(like, type, pageable);
+                        ? userService.searchActiveVerified(like, afterId, pageable)
+                        : userService.searchActiveVerifiedByType(like, type, afterId, pageable);
 
             case "UNVERIFIED":
                 return (type == null)
-                        ? userService.searchActiveUnverified(like, pageable)
-                        : userService.searchActiveUnverifiedByType(like, type, pageable);
+                        ? userService.searchActiveUnverified(like, afterId, pageable)
+                        : userService.searchActiveUnverifiedByType(like, type, afterId, pageable);
 
             case "ALL":
             default:
                 return (type == null)
-                        ? userService.searchActive(like, pageable)
-                        : userService.searchActiveByType(like, type, pageable);
+                        ? userService.searchActive(like, afterId, pageable)
+                        : userService.searchActiveByType(like, type, afterId, pageable);
         }
     }
 
-    private String toLike(String q) {
-        return (q == null || q.isBlank()) ? "%" : "%" + q.trim().toLowerCase() + "%";
-    }
-
     @Transactional
     public void softDeleteUser(Long id) {
         User user = userService.findById(id);
@@ -154,12 +149,9 @@ public class AdminDashboardService {
     }
 
 
-    public Page<org.dci.aimealplanner.entities.planning.MealPlan> findMealPlansSimple(String q, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        if (q == null || q.isBlank()) {
-            return mealPlanningService.findAll(pageable);
-        }
-        return mealPlanningService.searchByEmailOrPlanName(q.trim(), pageable);
+    public Slice<MealPlan> findMealPlansSimple(String q, PageCursor cursor, int size) {
+        long beforeId = cursor == null ? Long.MAX_VALUE : cursor.id();
+        return mealPlanningService.searchByEmailOrPlanName(q == null ? null : q.trim(), beforeId, size);
     }
 
     @Transactional
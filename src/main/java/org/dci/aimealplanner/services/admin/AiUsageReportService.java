@@ -0,0 +1,58 @@
+package org.dci.aimealplanner.services.admin;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.models.admin.AiUsageFeatureDTO;
+import org.dci.aimealplanner.models.admin.AiUsageUserDTO;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read side of {@code ai_usage_daily}. Figures lag live usage by up to one flush interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class AiUsageReportService {
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<AiUsageFeatureDTO> usageByFeature(LocalDate from) {
+        try {
+            return jdbcTemplate.query("""
+                    SELECT feature, SUM(calls) AS calls, SUM(prompt_tokens) AS prompt_tokens,
+                           SUM(completion_tokens) AS completion_tokens,
+                           SUM(latency_ms) / GREATEST(SUM(calls), 1) AS avg_latency_ms
+                      FROM ai_usage_daily
+                     WHERE usage_date >= ?
+                     GROUP BY feature
+                     ORDER BY SUM(prompt_tokens + completion_tokens) DESC""",
+                    (rs, i) -> new AiUsageFeatureDTO(rs.getString("feature"), rs.getLong("calls"),
+                            rs.getLong("prompt_tokens"), rs.getLong("completion_tokens"), rs.getLong("avg_latency_ms")),
+                    Date.valueOf(from));
+        } catch (DataAccessException e) {
+            return List.of();
+        }
+    }
+
+    public List<AiUsageUserDTO> topUsers(LocalDate from, int limit) {
+        try {
+            return jdbcTemplate.query("""
+                    SELECT a.user_id, u.email, SUM(a.calls) AS calls,
+                           SUM(a.prompt_tokens + a.completion_tokens) AS total_tokens
+                      FROM ai_usage_daily a
+                      LEFT JOIN users u ON u.id = a.user_id
+                     WHERE a.usage_date >= ?
+                     GROUP BY a.user_id, u.email
+                     ORDER BY total_tokens DESC
+                     LIMIT ?""",
+                    (rs, i) -> new AiUsageUserDTO(rs.getLong("user_id"), rs.getString("email"),
+                            rs.getLong("calls"), rs.getLong("total_tokens")),
+                    Date.valueOf(from), limit);
+        } catch (DataAccessException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over the keywords of all category rules, so a description is classified
+ * in one pass instead of one regex per rule. Keywords only match as whole words, with the same
+ * notion of a word character as the regex {@code \b}; when several rules match, the rule listed
+ * first wins, as it did when the rules were tried in order.
+ */
+final class CategoryKeywordMatcher {
+    /** {@code plurals} also accepts every word followed by an {@code s}. */
+    record Rule(String category, boolean plurals, List<String> words) {}
+
+    private static final int ALPHABET = 28;
+
+    private final List<String> categories;
+    private final int[][] next;
+    private final int[][] outLengths;
+    private final int[][] outRules;
+
+    CategoryKeywordMatcher(List<Rule> rules) {
+        this.categories = rules.stream().map(Rule::category).toList();
+
+        List<int[]> transitions = new ArrayList<>();
+        List<Map<Integer, Integer>> outputs = new ArrayList<>();
+        transitions.add(newState());
+        outputs.add(new HashMap<>());
+        for (int r = 0; r < rules.size(); r++) {
+            Rule rule = rules.get(r);
+            for (String word : rule.words()) {
+                add(transitions, outputs, word.toLowerCase(Locale.ROOT), r);
+                if (rule.plurals()) add(transitions, outputs, word.toLowerCase(Locale.ROOT) + "s", r);
+            }
+        }
+
+        int states = transitions.size();
+        int[][] next = transitions.toArray(int[][]::new);
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            if (next[0][c] > 0) {
+                fail[next[0][c]] = 0;
+                queue.add(next[0][c]);
+            } else {
+                next[0][c] = 0;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs.get(fail[state]).forEach(outputs.get(state)::putIfAbsent);
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = next[state][c];
+                if (child > 0) {
+                    fail[child] = next[fail[state]][c];
+                    queue.add(child);
+                } else {
+                    next[state][c] = next[fail[state]][c];
+                }
+            }
+        }
+
+        this.next = next;
+        this.outLengths = new int[states][];
+        this.outRules = new int[states][];
+        for (int s = 0; s < states; s++) {
+            Map<Integer, Integer> out = outputs.get(s);
+            outLengths[s] = out.keySet().stream().mapToInt(Integer::intValue).toArray();
+            outRules[s] = Arrays.stream(outLengths[s]).map(out::get).toArray();
+        }
+    }
+
+    /** Category of the first rule with a keyword in {@code text}, or {@code null}. */
+    String match(String text) {
+        if (text == null) return null;
+        int best = Integer.MAX_VALUE;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = next[state][symbol(text.charAt(i))];
+            int[] lengths = outLengths[state];
+            for (int k = 0; k < lengths.length; k++) {
+                int rule = outRules[state][k];
+                if (rule >= best) continue;
+                int start = i - lengths[k] + 1;
+                if ((start == 0 || !isWordChar(text.charAt(start - 1)))
+                        && (i + 1 == length || !isWordChar(text.charAt(i + 1)))) {
+                    best = rule;
+                    if (best == 0) return categories.get(0);
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : categories.get(best);
+    }
+
+    private static void add(List<int[]> transitions, List<Map<Integer, Integer>> outputs, String word, int rule) {
+        int state = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int c = symbol(word.charAt(i));
+            if (c == 0) throw new IllegalArgumentException("Unsupported character in keyword '" + word + "'");
+            if (transitions.get(state)[c] == 0) {
+                transitions.get(state)[c] = transitions.size();
+                transitions.add(newState());
+                outputs.add(new HashMap<>());
+            }
+            state = transitions.get(state)[c];
+        }
+        outputs.get(state).merge(word.length(), rule, Math::min);
+    }
+
+    private static int[] newState() {
+        return new int[ALPHABET];
+    }
+
+    /** 1-26 for letters of either case, 27 for a space, 0 for anything else. */
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 1;
+        return c == ' ' ? ALPHABET - 1 : 0;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
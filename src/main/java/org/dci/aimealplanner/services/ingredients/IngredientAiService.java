@@ -15,7 +15,6 @@ import org.springframework.util.StringUtils;
 
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -55,22 +54,11 @@ public class IngredientAiService {
                 ? ai.getCategory().trim() : "Other";
         var category = ingredientCategoryService.findOrCreateByName(categoryName);
 
-        Function<String, String> norm = s -> {
-            if (s == null) return null;
-            String t = s.trim().toLowerCase();
-            // mass
-            if (t.equals("gram") || t.equals("grams")) return "g";
-            if (t.equals("milliliter") || t.equals("milliliters") || t.equals("mls")) return "ml";
-            if (t.equals("gs")) return "g";
-            if (t.equals("ml.")) return "ml";
-            return t;
-        };
-
         var unitCodes = new LinkedHashSet<String>();
         if (ai.getUnits() != null) {
             ai.getUnits().forEach(u -> {
                 if (u != null && StringUtils.hasText(u.getCode())) {
-                    String code = norm.apply(u.getCode());
+                    String code = UnitRegistry.normalize(u.getCode());
                     if (StringUtils.hasText(code)) unitCodes.add(code);
                 }
             });
@@ -78,11 +66,11 @@ public class IngredientAiService {
         if (ai.getRatios() != null) {
             ai.getRatios().forEach(r -> {
                 if (r != null && StringUtils.hasText(r.getFromUnitCode())) {
-                    String code = norm.apply(r.getFromUnitCode());
+                    String code = UnitRegistry.normalize(r.getFromUnitCode());
                     if (StringUtils.hasText(code)) unitCodes.add(code);
                 }
                 if (r != null && StringUtils.hasText(r.getToUnitCode())) {
-                    String code = norm.apply(r.getToUnitCode());
+                    String code = UnitRegistry.normalize(r.getToUnitCode());
                     if (StringUtils.hasText(code)) unitCodes.add(code);
                 }
             });
@@ -112,8 +100,8 @@ public class IngredientAiService {
             for (var r : ai.getRatios()) {
                 if (r == null) continue;
 
-                String from = norm.apply(r.getFromUnitCode());
-                String to   = norm.apply(r.getToUnitCode());
+                String from = UnitRegistry.normalize(r.getFromUnitCode());
+                String to   = UnitRegistry.normalize(r.getToUnitCode());
                 Double f    = r.getFactor();
 
                 if (!StringUtils.hasText(from) || f == null) continue;
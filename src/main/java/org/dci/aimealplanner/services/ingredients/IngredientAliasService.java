@@ -0,0 +1,92 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.services.utils.TextNormalize;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalized names learned to resolve to an ingredient, persisted in {@code ingredient_aliases}
+ * and held in memory once loaded so a lookup is a single map probe.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngredientAliasService {
+    public static final String SOURCE_PLURAL = "PLURAL";
+    public static final String SOURCE_AI = "AI";
+
+    private static final int MAX_ALIAS_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Map<String, Long> aliases;
+
+    /** Ingredient id for a {@link org.dci.aimealplanner.services.utils.TextNormalize#normName} key, or null. */
+    public Long find(String key) {
+        return key == null ? null : aliases().get(key);
+    }
+
+    public void learn(String key, Long ingredientId, String source) {
+        if (key == null || key.isBlank() || key.length() > MAX_ALIAS_LENGTH || ingredientId == null) return;
+        if (aliases().putIfAbsent(key, ingredientId) != null) return;
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO ingredient_aliases (alias, ingredient_id, source)
+                    SELECT ?, id, ? FROM ingredients WHERE id = ?
+                    ON CONFLICT (alias) DO NOTHING""", key, source, ingredientId);
+        } catch (DataAccessException e) {
+            log.warn("Could not store ingredient alias '{}': {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Aliases of a removed ingredient go with it, and an alias equal to the name of a new or renamed
+     * ingredient is dropped: the name now belongs to that ingredient.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientNameChanged(IngredientNameChangedEvent event) {
+        if (event.ingredientId() == null) return;
+        Map<String, Long> current = aliases;
+        if (event.removed()) {
+            if (current != null) current.values().removeIf(event.ingredientId()::equals);
+            return;
+        }
+
+        String key = TextNormalize.normName(event.name());
+        if (key == null || key.isBlank()) return;
+        if (current != null) current.computeIfPresent(key, (k, id) -> id.equals(event.ingredientId()) ? id : null);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(tx -> jdbcTemplate.update(
+                    "DELETE FROM ingredient_aliases WHERE alias = ? AND ingredient_id <> ?", key, event.ingredientId()));
+        } catch (RuntimeException e) {
+            log.warn("Could not drop ingredient alias '{}': {}", key, e.getMessage());
+        }
+    }
+
+    private Map<String, Long> aliases() {
+        Map<String, Long> current = aliases;
+        if (current != null) return current;
+        synchronized (this) {
+            if (aliases == null) {
+                Map<String, Long> loaded = new ConcurrentHashMap<>();
+                jdbcTemplate.query("SELECT alias, ingredient_id FROM ingredient_aliases",
+                        rs -> { loaded.put(rs.getString(1), rs.getLong(2)); });
+                aliases = loaded;
+            }
+            return aliases;
+        }
+    }
+}
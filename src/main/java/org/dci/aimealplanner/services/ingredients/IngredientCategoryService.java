@@ -1,14 +1,23 @@
 package org.dci.aimealplanner.services.ingredients;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.dci.aimealplanner.entities.ingredients.IngredientCategory;
 import org.dci.aimealplanner.repositories.ingredients.IngredientCategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.*;
 
+/**
+ * Categories are served from a name map loaded once and replaced whenever a category is saved,
+ * so classifying a food needs no database reads; description keywords are matched in a single
+ * pass by a {@link CategoryKeywordMatcher}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class IngredientCategoryService {
@@ -31,71 +40,124 @@ public class IngredientCategoryService {
             Map.entry("Soups, Sauces, and Gravies", "Sauces & Condiments")
     );
 
-    private static final List<Map.Entry<Pattern, String>> KEYWORDS = List.of(
-            Map.entry(Pattern.compile("\\b(walnut|almond|peanut|cashew|pistachio|hazelnut|seed)s?\\b", Pattern.CASE_INSENSITIVE), "Nuts & Seeds"),
-            Map.entry(Pattern.compile("\\b(apple|banana|orange|pear|grape|berry|peach|plum|lemon|lime|mango|pineapple)\\b", Pattern.CASE_INSENSITIVE), "Fruits"),
-            Map.entry(Pattern.compile("\\b(tomato|onion|garlic|spinach|broccoli|cabbage|carrot|pepper|lettuce|kale|zucchini|cucumber|eggplant)\\b", Pattern.CASE_INSENSITIVE), "Vegetables"),
-            Map.entry(Pattern.compile("\\b(milk|yogurt|cheese|butter|cream|egg)s?\\b", Pattern.CASE_INSENSITIVE), "Dairy & Eggs"),
-            Map.entry(Pattern.compile("\\b(beef|pork|chicken|turkey|lamb)\\b", Pattern.CASE_INSENSITIVE), "Meat"),
-            Map.entry(Pattern.compile("\\b(salmon|tuna|shrimp|cod|trout|sardine)\\b", Pattern.CASE_INSENSITIVE), "Fish & Seafood"),
-            Map.entry(Pattern.compile("\\b(rice|wheat|bread|pasta|oat|quinoa|couscous|bulgur)\\b", Pattern.CASE_INSENSITIVE), "Grains & Cereals"),
-            Map.entry(Pattern.compile("\\b(lentil|bean|chickpea|kidney bean|black bean|soy)\\b", Pattern.CASE_INSENSITIVE), "Legumes"),
-            Map.entry(Pattern.compile("\\b(oil|olive oil|sunflower oil|coconut oil)\\b", Pattern.CASE_INSENSITIVE), "Oils & Fats"),
-            Map.entry(Pattern.compile("\\b(basil|parsley|coriander|cumin|paprika|turmeric|cinnamon|thyme|oregano|rosemary|mint|dill)\\b", Pattern.CASE_INSENSITIVE), "Herbs & Spices"),
-            Map.entry(Pattern.compile("\\b(sugar|honey|syrup|sweetener)\\b", Pattern.CASE_INSENSITIVE), "Sweeteners"),
-            Map.entry(Pattern.compile("\\b(ketchup|mustard|mayonnaise|soy sauce|vinegar|miso|tahini|sriracha)\\b", Pattern.CASE_INSENSITIVE), "Sauces & Condiments")
+    static final List<CategoryKeywordMatcher.Rule> KEYWORD_RULES = List.of(
+            new CategoryKeywordMatcher.Rule("Nuts & Seeds", true, List.of("walnut", "almond", "peanut", "cashew", "pistachio", "hazelnut", "seed")),
+            new CategoryKeywordMatcher.Rule("Fruits", false, List.of("apple", "banana", "orange", "pear", "grape", "berry", "peach", "plum", "lemon", "lime", "mango", "pineapple")),
+            new CategoryKeywordMatcher.Rule("Vegetables", false, List.of("tomato", "onion", "garlic", "spinach", "broccoli", "cabbage", "carrot", "pepper", "lettuce", "kale", "zucchini", "cucumber", "eggplant")),
+            new CategoryKeywordMatcher.Rule("Dairy & Eggs", true, List.of("milk", "yogurt", "cheese", "butter", "cream", "egg")),
+            new CategoryKeywordMatcher.Rule("Meat", false, List.of("beef", "pork", "chicken", "turkey", "lamb")),
+            new CategoryKeywordMatcher.Rule("Fish & Seafood", false, List.of("salmon", "tuna", "shrimp", "cod", "trout", "sardine")),
+            new CategoryKeywordMatcher.Rule("Grains & Cereals", false, List.of("rice", "wheat", "bread", "pasta", "oat", "quinoa", "couscous", "bulgur")),
+            new CategoryKeywordMatcher.Rule("Legumes", false, List.of("lentil", "bean", "chickpea", "kidney bean", "black bean", "soy")),
+            new CategoryKeywordMatcher.Rule("Oils & Fats", false, List.of("oil", "olive oil", "sunflower oil", "coconut oil")),
+            new CategoryKeywordMatcher.Rule("Herbs & Spices", false, List.of("basil", "parsley", "coriander", "cumin", "paprika", "turmeric", "cinnamon", "thyme", "oregano", "rosemary", "mint", "dill")),
+            new CategoryKeywordMatcher.Rule("Sweeteners", false, List.of("sugar", "honey", "syrup", "sweetener")),
+            new CategoryKeywordMatcher.Rule("Sauces & Condiments", false, List.of("ketchup", "mustard", "mayonnaise", "soy sauce", "vinegar", "miso", "tahini", "sriracha"))
     );
 
+    private static final CategoryKeywordMatcher KEYWORDS = new CategoryKeywordMatcher(KEYWORD_RULES);
+
+    private volatile Map<String, IngredientCategory> byName;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            log.info("Ingredient categories loaded: {}", categories().size());
+        } catch (RuntimeException e) {
+            log.warn("Ingredient categories not loaded at startup, will retry on first lookup: {}", e.getMessage());
+        }
+    }
+
     public void addAll(List<IngredientCategory> ingredientCategories) {
         ingredientCategoryRepository.saveAll(ingredientCategories);
+        invalidate();
     }
 
     public IngredientCategory findCategory(String usdaFoodCategory, String description) {
+        String canonical = canonicalName(usdaFoodCategory, description);
+        if (canonical == null) return fallbackCategory();
+        IngredientCategory category = categories().get(key(canonical));
+        return category != null ? category : fallbackCategory();
+    }
+
+    /**
+     * Name of the category a USDA food belongs to, from its USDA category or else keywords in its
+     * description, or {@code null} when neither matches.
+     */
+    public String canonicalName(String usdaFoodCategory, String description) {
         if (usdaFoodCategory != null) {
             String canonical = USDA_TO_CANONICAL.get(usdaFoodCategory);
-            if (canonical != null) {
-                return ingredientCategoryRepository.findByNameIgnoreCase(canonical)
-                        .orElseGet(() -> fallbackCategory());
-            }
+            if (canonical != null) return canonical;
         }
-
-        if (description != null) {
-            for (var rule : KEYWORDS) {
-                if (rule.getKey().matcher(description).find()) {
-                    String canonical = rule.getValue();
-                    return ingredientCategoryRepository.findByNameIgnoreCase(canonical)
-                            .orElseGet(this::fallbackCategory);
-                }
-            }
-        }
-
-        return fallbackCategory();
+        return KEYWORDS.match(description);
     }
 
     private IngredientCategory fallbackCategory() {
-        return ingredientCategoryRepository.findByNameIgnoreCase("Uncategorized")
-                .orElseThrow(() -> new IllegalStateException("Default category 'Uncategorized' not found. Seed it first."));
+        IngredientCategory fallback = categories().get(key("Uncategorized"));
+        if (fallback == null) {
+            throw new IllegalStateException("Default category 'Uncategorized' not found. Seed it first.");
+        }
+        return fallback;
     }
 
     public List<IngredientCategory> findAll() {
-        return ingredientCategoryRepository.findAll();
+        return categories().values().stream()
+                .distinct()
+                .sorted(Comparator.comparing(IngredientCategory::getId))
+                .toList();
     }
 
     public IngredientCategory findOrCreateByName(String category) {
-        if (ingredientCategoryRepository.findByNameIgnoreCase(category).isPresent()) {
-            return ingredientCategoryRepository.findByNameIgnoreCase(category).get();
-        } else  {
-            IngredientCategory ingredientCategory = new IngredientCategory();
-            ingredientCategory.setName(category);
-            return ingredientCategoryRepository.save(ingredientCategory);
-        }
+        IngredientCategory existing = findByNameIgnoreCase(category);
+        if (existing != null) return existing;
+
+        IngredientCategory ingredientCategory = new IngredientCategory();
+        ingredientCategory.setName(category);
+        return save(ingredientCategory);
     }
 
     public IngredientCategory findByNameIgnoreCase(String catName) {
-        return ingredientCategoryRepository.findByNameIgnoreCase(catName).orElse(null);
+        return catName == null ? null : categories().get(key(catName));
+    }
+
+    public synchronized IngredientCategory save(IngredientCategory category) {
+        IngredientCategory saved = ingredientCategoryRepository.save(category);
+        Map<String, IngredientCategory> updated = new HashMap<>(categories());
+        updated.values().removeIf(c -> c.getId().equals(saved.getId()));
+        updated.putIfAbsent(key(saved.getName()), saved);
+        byName = Map.copyOf(updated);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) invalidate();
+                }
+            });
+        }
+        return saved;
+    }
+
+    private synchronized void invalidate() {
+        byName = null;
+    }
+
+    private Map<String, IngredientCategory> categories() {
+        Map<String, IngredientCategory> current = byName;
+        return current != null ? current : load();
+    }
+
+    private synchronized Map<String, IngredientCategory> load() {
+        if (byName == null) {
+            Map<String, IngredientCategory> loaded = new HashMap<>();
+            for (IngredientCategory category : ingredientCategoryRepository.findAll()) {
+                if (category.getName() != null) loaded.putIfAbsent(key(category.getName()), category);
+            }
+            byName = Map.copyOf(loaded);
+        }
+        return byName;
     }
 
-    public IngredientCategory save(IngredientCategory category) {
-        return ingredientCategoryRepository.save(category);
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
 }
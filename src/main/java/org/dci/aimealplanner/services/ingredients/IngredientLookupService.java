@@ -6,19 +6,37 @@ import org.dci.aimealplanner.entities.ingredients.Unit;
 import org.dci.aimealplanner.exceptions.IngredientNotFoundException;
 import org.dci.aimealplanner.exceptions.UnitNotFoundException;
 import org.dci.aimealplanner.repositories.ingredients.IngredientRepository;
-import org.dci.aimealplanner.repositories.ingredients.UnitRepository;
 import org.dci.aimealplanner.services.utils.TextNormalize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Resolves free-text ingredient names. Each normalized name is resolved once and kept in memory,
+ * names that matched nothing are remembered for {@value #MISS_TTL_MINUTES} minutes, and plural
+ * forms are stored as aliases so they survive restarts. Exact and alias matches are cached apart
+ * from fuzzy ones, because any new or renamed ingredient can become a better fuzzy match.
+ */
 @Service
 @RequiredArgsConstructor
 public class IngredientLookupService {
+    private static final int FUZZY_CANDIDATES = 50;
+    private static final int MAX_CACHED_NAMES = 20_000;
+    private static final long MISS_TTL_MINUTES = 10;
+
     private final IngredientRepository ingredientRepository;
-    private final UnitRepository unitRepository;
+    private final UnitService unitService;
+    private final IngredientNameIndexService ingredientNameIndexService;
+    private final IngredientAliasService ingredientAliasService;
+
+    private final Map<String, Long> resolved = new ConcurrentHashMap<>();
+    private final Map<String, Long> fuzzyResolved = new ConcurrentHashMap<>();
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
 
     public Ingredient findIngredientByName(String rawName) {
         if (rawName == null || rawName.isBlank()) {
@@ -26,36 +44,96 @@ public class IngredientLookupService {
         }
 
         String q = TextNormalize.normName(rawName);
+        Long id = resolved.get(q);
+        if (id == null) id = fuzzyResolved.get(q);
+        if (id == null) {
+            Long missUntil = misses.get(q);
+            if (missUntil != null && missUntil - System.nanoTime() > 0) {
+                throw new IngredientNotFoundException("Ingredient not found: " + rawName);
+            }
+            id = resolveExact(q);
+            if (id != null) {
+                remember(resolved, q, id);
+            } else {
+                id = resolveFuzzy(q);
+                if (id == null) {
+                    remember(misses, q, System.nanoTime() + TimeUnit.MINUTES.toNanos(MISS_TTL_MINUTES));
+                    throw new IngredientNotFoundException("Ingredient not found: " + rawName);
+                }
+                remember(fuzzyResolved, q, id);
+            }
+            misses.remove(q);
+        }
 
-        Optional<Ingredient> exact = ingredientRepository.findByNameIgnoreCaseLike(q);
-        if (exact.isPresent()) return exact.get();
+        Long cachedId = id;
+        return ingredientRepository.findById(id).orElseThrow(() -> {
+            resolved.remove(q, cachedId);
+            fuzzyResolved.remove(q, cachedId);
+            return new IngredientNotFoundException("Ingredient not found: " + rawName);
+        });
+    }
 
-        String singular = singularize(q);
-        if (!singular.equals(q)) {
-            Optional<Ingredient> singularExact = ingredientRepository.findByNameIgnoreCaseLike(singular);
-            if (singularExact.isPresent()) return singularExact.get();
-        }
+    public Unit findUnitByCode(String rawCode) {
+        return unitService.findOptionalByCode(rawCode)
+                .orElseThrow(() -> new UnitNotFoundException("Unit not found: " + rawCode));
+    }
 
-        List<Ingredient> candidates = ingredientRepository.searchByNameFuzzy(q);
-        if (!candidates.isEmpty()) {
+    /**
+     * A new or renamed ingredient can match names that missed before, beat a cached fuzzy match or
+     * take its own name back from an alias, and a renamed or deleted one may no longer match what
+     * it was cached for.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientNameChanged(IngredientNameChangedEvent event) {
+        misses.clear();
+        fuzzyResolved.clear();
+        if (event.ingredientId() != null) resolved.values().removeIf(event.ingredientId()::equals);
+        if (event.name() != null) resolved.remove(TextNormalize.normName(event.name()));
+    }
 
-            String wordBoundary = ".*\\b" + Pattern.quote(singular) + "\\b.*";
-            return candidates.stream()
-                    .filter(i -> i.getName().toLowerCase().matches(wordBoundary))
-                    .findFirst()
-                    .orElse(candidates.get(0));
+    private Long resolveExact(String q) {
+        Optional<Ingredient> exact = ingredientRepository.findAllByNameLower(q).stream().findFirst();
+        if (exact.isPresent()) return exact.get().getId();
+
+        Long alias = ingredientAliasService.find(q);
+        if (alias != null) return alias;
+
+        String singular = singularize(q);
+        if (!singular.equals(q)) {
+            Optional<Ingredient> singularExact = ingredientRepository.findAllByNameLower(singular).stream().findFirst();
+            if (singularExact.isPresent()) {
+                ingredientAliasService.learn(q, singularExact.get().getId(), IngredientAliasService.SOURCE_PLURAL);
+                return singularExact.get().getId();
+            }
         }
+        return null;
+    }
 
-        List<Ingredient> contains = ingredientRepository.findTop10ByNameContainingIgnoreCaseOrderByNameAsc(q);
-        if (!contains.isEmpty()) return contains.get(0);
+    private Long resolveFuzzy(String q) {
+        String singular = singularize(q);
+        List<IngredientNameIndex.Entry> candidates = ingredientNameIndexService.fuzzy(q, FUZZY_CANDIDATES);
+        if (candidates.isEmpty()) return null;
+        return candidates.stream()
+                .filter(i -> containsWord(i.name().toLowerCase(), singular))
+                .findFirst()
+                .orElse(candidates.get(0))
+                .id();
+    }
 
-        throw new IngredientNotFoundException("Ingredient not found: " + rawName);
+    private static void remember(Map<String, Long> cache, String key, Long value) {
+        if (cache.size() >= MAX_CACHED_NAMES) cache.clear();
+        cache.put(key, value);
     }
 
-    public Unit findUnitByCode(String rawCode) {
-        String normalized = TextNormalize.normUnitCode(rawCode);
-        return unitRepository.findByCodeIgnoreCase(normalized)
-                .orElseThrow(() -> new UnitNotFoundException("Unit not found: " + rawCode));
+    private static boolean containsWord(String text, String word) {
+        if (word.isEmpty()) return false;
+        for (int at = text.indexOf(word); at >= 0; at = text.indexOf(word, at + 1)) {
+            int end = at + word.length();
+            boolean startsWord = at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1));
+            boolean endsWord = end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+            if (startsWord && endsWord) return true;
+        }
+        return false;
     }
 
     private String singularize(String s) {
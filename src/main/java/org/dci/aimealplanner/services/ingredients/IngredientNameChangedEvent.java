@@ -0,0 +1,8 @@
+package org.dci.aimealplanner.services.ingredients;
+
+/**
+ * An ingredient was added, renamed or removed. {@code ingredientId} is {@code null} when many
+ * ingredients were added at once, e.g. by a bulk import.
+ */
+public record IngredientNameChangedEvent(Long ingredientId, String name, boolean removed) {
+}
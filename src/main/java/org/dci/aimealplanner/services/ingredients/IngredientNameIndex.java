@@ -0,0 +1,146 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.dci.aimealplanner.repositories.ingredients.IngredientSummary;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Immutable substring index over ingredient names. Entries are stored in name order and every
+ * bigram and trigram of a lower-cased name points to the ascending positions of the names that
+ * contain it, so a lookup walks one short posting list instead of every name.
+ */
+public final class IngredientNameIndex {
+    private static final Comparator<Entry> NAME_ORDER = Comparator
+            .comparing((Entry e) -> e.name().toLowerCase(Locale.ROOT))
+            .thenComparing(Entry::name)
+            .thenComparing(Entry::id);
+
+    public static final IngredientNameIndex EMPTY = build(List.of());
+
+    public record Entry(Long id, String name) implements IngredientSummary {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Positions of the matching entries in name order, split like the SQL search ranked them:
+     * prefix matches first.
+     */
+    public record Matches(int[] prefix, int[] other) {
+        static final Matches NONE = new Matches(new int[0], new int[0]);
+
+        public int size() {
+            return prefix.length + other.length;
+        }
+    }
+
+    private final Entry[] entries;
+    private final String[] keys;
+    private final Map<String, int[]> postings;
+
+    private IngredientNameIndex(Entry[] entries, String[] keys, Map<String, int[]> postings) {
+        this.entries = entries;
+        this.keys = keys;
+        this.postings = postings;
+    }
+
+    public static IngredientNameIndex build(Collection<Entry> source) {
+        Entry[] entries = source.stream()
+                .filter(e -> e.id() != null && e.name() != null && !e.name().isBlank())
+                .sorted(NAME_ORDER)
+                .toArray(Entry[]::new);
+        String[] keys = new String[entries.length];
+
+        Map<String, int[]> lists = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = key(entries[i].name());
+            grams.clear();
+            addGrams(keys[i], grams);
+            for (String gram : grams) {
+                int n = counts.merge(gram, 1, Integer::sum);
+                int[] list = lists.get(gram);
+                if (list == null || list.length < n) {
+                    list = list == null ? new int[4] : Arrays.copyOf(list, list.length * 2);
+                    lists.put(gram, list);
+                }
+                list[n - 1] = i;
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        lists.forEach((gram, list) -> postings.put(gram, Arrays.copyOf(list, counts.get(gram))));
+        return new IngredientNameIndex(entries, keys, postings);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public List<Entry> entries() {
+        return Collections.unmodifiableList(Arrays.asList(entries));
+    }
+
+    public Entry entry(int position) {
+        return entries[position];
+    }
+
+    /**
+     * Entries whose name contains {@code query}, ignoring case. {@code skip}, if not null, filters
+     * out entries the caller knows to be stale.
+     */
+    public Matches search(String query, Predicate<Entry> skip) {
+        String q = key(query);
+        int[] candidates;
+        boolean verify;
+        if (q.length() < 2) {
+            candidates = null;
+            verify = !q.isEmpty();
+        } else {
+            int gram = Math.min(q.length(), 3);
+            candidates = null;
+            for (int i = 0; i + gram <= q.length(); i++) {
+                int[] list = postings.get(q.substring(i, i + gram));
+                if (list == null) return Matches.NONE;
+                if (candidates == null || list.length < candidates.length) candidates = list;
+            }
+            verify = q.length() > 3;
+        }
+
+        int count = candidates != null ? candidates.length : entries.length;
+        int[] prefix = new int[count];
+        int[] other = new int[count];
+        int p = 0, o = 0;
+        for (int k = 0; k < count; k++) {
+            int position = candidates != null ? candidates[k] : k;
+            String key = keys[position];
+            if (verify && !key.contains(q)) continue;
+            if (skip != null && skip.test(entries[position])) continue;
+            if (key.startsWith(q)) prefix[p++] = position;
+            else other[o++] = position;
+        }
+        return new Matches(Arrays.copyOf(prefix, p), Arrays.copyOf(other, o));
+    }
+
+    static String key(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    static int compare(Entry a, Entry b) {
+        return NAME_ORDER.compare(a, b);
+    }
+
+    private static void addGrams(String key, Set<String> grams) {
+        for (int n = 2; n <= 3; n++) {
+            for (int i = 0; i + n <= key.length(); i++) grams.add(key.substring(i, i + n));
+        }
+    }
+}
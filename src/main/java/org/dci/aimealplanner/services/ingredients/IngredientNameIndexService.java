@@ -0,0 +1,184 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.repositories.ingredients.IngredientRepository;
+import org.dci.aimealplanner.repositories.ingredients.IngredientSummary;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Serves ingredient typeahead from an in-memory {@link IngredientNameIndex} built at startup.
+ * Ingredients saved, renamed or deleted afterwards are kept in a small overlay that is merged
+ * into every result, and folded into a fresh index once it grows past
+ * {@link #REBUILD_AFTER_CHANGES}; the database is only read for the initial load.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngredientNameIndexService {
+    private static final int REBUILD_AFTER_CHANGES = 256;
+
+    private final IngredientRepository ingredientRepository;
+
+    private volatile State state;
+
+    private record State(IngredientNameIndex index, Map<Long, IngredientNameIndex.Entry> changed, Set<Long> removed) {
+        boolean isStale(IngredientNameIndex.Entry entry) {
+            return changed.containsKey(entry.id()) || removed.contains(entry.id());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            long started = System.nanoTime();
+            int size = load().index().size();
+            log.info("Ingredient name index built with {} names in {} ms", size, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Ingredient name index not built at startup, will retry on first search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Names containing {@code query}, ignoring case, with prefix matches first and each group in
+     * name order.
+     */
+    public Page<IngredientSummary> search(String query, Pageable pageable) {
+        Ranked ranked = ranked(query);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        return new PageImpl<>(ranked.slice(from, pageable.getPageSize()), pageable, ranked.size());
+    }
+
+    /**
+     * Names containing {@code query} ranked for name resolution: exact match, prefix, suffix,
+     * anywhere, then shorter names first.
+     */
+    public List<IngredientNameIndex.Entry> fuzzy(String query, int limit) {
+        String q = IngredientNameIndex.key(query);
+        Ranked ranked = ranked(query);
+        return ranked.slice(0, ranked.size()).stream()
+                .map(IngredientNameIndex.Entry.class::cast)
+                .sorted(Comparator
+                        .comparingInt((IngredientNameIndex.Entry e) -> fuzzyRank(IngredientNameIndex.key(e.name()), q))
+                        .thenComparingInt(e -> e.name().length()))
+                .limit(limit)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIngredientNameChanged(IngredientNameChangedEvent event) {
+        State current = state;
+        if (current == null || event.ingredientId() == null) return;
+
+        Map<Long, IngredientNameIndex.Entry> changed = new HashMap<>(current.changed());
+        Set<Long> removed = new HashSet<>(current.removed());
+        if (event.removed() || event.name() == null) {
+            changed.remove(event.ingredientId());
+            removed.add(event.ingredientId());
+        } else {
+            changed.put(event.ingredientId(), new IngredientNameIndex.Entry(event.ingredientId(), event.name()));
+        }
+
+        if (changed.size() + removed.size() > REBUILD_AFTER_CHANGES) {
+            State folded = new State(current.index(), changed, removed);
+            List<IngredientNameIndex.Entry> entries = new ArrayList<>(changed.values());
+            for (IngredientNameIndex.Entry entry : current.index().entries()) {
+                if (!folded.isStale(entry)) entries.add(entry);
+            }
+            state = new State(IngredientNameIndex.build(entries), Map.of(), Set.of());
+        } else {
+            state = new State(current.index(), Map.copyOf(changed), Set.copyOf(removed));
+        }
+    }
+
+    /** Drops the index after a bulk load that bypassed JPA; the next search rebuilds it. */
+    public synchronized void invalidate() {
+        state = null;
+    }
+
+    private Ranked ranked(String query) {
+        State current = state != null ? state : load();
+        boolean overlay = !current.changed().isEmpty() || !current.removed().isEmpty();
+        IngredientNameIndex.Matches matches = current.index().search(query, overlay ? current::isStale : null);
+
+        String q = IngredientNameIndex.key(query);
+        List<IngredientNameIndex.Entry> prefix = new ArrayList<>();
+        List<IngredientNameIndex.Entry> other = new ArrayList<>();
+        for (IngredientNameIndex.Entry entry : current.changed().values()) {
+            String key = IngredientNameIndex.key(entry.name());
+            if (key.contains(q)) (key.startsWith(q) ? prefix : other).add(entry);
+        }
+        prefix.sort(IngredientNameIndex::compare);
+        other.sort(IngredientNameIndex::compare);
+        return new Ranked(current.index(), matches, prefix, other);
+    }
+
+    private synchronized State load() {
+        if (state != null) return state;
+        List<IngredientNameIndex.Entry> entries = ingredientRepository.findAllProjectedBy().stream()
+                .map(s -> new IngredientNameIndex.Entry(s.getId(), s.getName()))
+                .toList();
+        state = new State(IngredientNameIndex.build(entries), Map.of(), Set.of());
+        return state;
+    }
+
+    /** Index matches merged with the overlay, prefix group first, each group in name order. */
+    private record Ranked(IngredientNameIndex index, IngredientNameIndex.Matches matches,
+                          List<IngredientNameIndex.Entry> extraPrefix, List<IngredientNameIndex.Entry> extraOther) {
+        int size() {
+            return matches.size() + extraPrefix.size() + extraOther.size();
+        }
+
+        List<IngredientSummary> slice(int from, int count) {
+            List<IngredientSummary> page = new ArrayList<>(Math.min(count, size()));
+            int prefixSize = matches.prefix().length + extraPrefix.size();
+            if (from < prefixSize) {
+                take(matches.prefix(), extraPrefix, from, count, page);
+                take(matches.other(), extraOther, 0, count - page.size(), page);
+            } else {
+                take(matches.other(), extraOther, from - prefixSize, count, page);
+            }
+            return page;
+        }
+
+        private void take(int[] positions, List<IngredientNameIndex.Entry> extra, int skip, int count,
+                          List<IngredientSummary> page) {
+            if (count <= 0) return;
+            if (extra.isEmpty()) {
+                for (int k = skip; k < positions.length && count-- > 0; k++) page.add(index.entry(positions[k]));
+                return;
+            }
+            int i = 0, j = 0;
+            while ((i < positions.length || j < extra.size()) && count > 0) {
+                IngredientNameIndex.Entry next;
+                if (j == extra.size() || (i < positions.length
+                        && IngredientNameIndex.compare(index.entry(positions[i]), extra.get(j)) <= 0)) {
+                    next = index.entry(positions[i++]);
+                } else {
+                    next = extra.get(j++);
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    page.add(next);
+                    count--;
+                }
+            }
+        }
+    }
+
+    private static int fuzzyRank(String key, String q) {
+        if (key.equals(q)) return 0;
+        if (key.startsWith(q)) return 1;
+        if (key.endsWith(q)) return 2;
+        return 3;
+    }
+}
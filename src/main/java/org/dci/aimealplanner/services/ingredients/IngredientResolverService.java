@@ -1,45 +1,169 @@
 package org.dci.aimealplanner.services.ingredients;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.dci.aimealplanner.entities.ingredients.*;
 import org.dci.aimealplanner.exceptions.InvalidIngredientException;
 import org.dci.aimealplanner.integration.aiapi.GroqApiClient;
 import org.dci.aimealplanner.integration.aiapi.dtos.ingredients.IngredientFromAI;
+import org.dci.aimealplanner.services.utils.TextNormalize;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class IngredientResolverService {
+    private static final int AI_BATCH_SIZE = 8;
+
     private final GroqApiClient groqApiClient;
     private final IngredientService ingredientService;
     private final IngredientCategoryService ingredientCategoryService;
     private final IngredientUnitRatioService ingredientUnitRatioService;
     private final UnitService unitService;
+    private final IngredientAliasService ingredientAliasService;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional
-    public Ingredient resolveOrCreate(String rawName) {
-        if (rawName == null || rawName.isBlank()) {
-            throw new InvalidIngredientException("Ingredient name is blank");
+    private final Map<String, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves ingredient names to ids, keyed by {@link TextNormalize#normName}. Unknown names are
+     * profiled by the AI in batches of {@value #AI_BATCH_SIZE}, and each new ingredient is committed
+     * in its own transaction. A name already being created by another thread is not requested
+     * again; the caller waits for that thread's result instead.
+     */
+    public Map<String, Long> resolveAll(Collection<String> rawNames) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String raw : rawNames) {
+            if (raw == null || raw.isBlank()) continue;
+            names.putIfAbsent(TextNormalize.normName(raw), raw.trim().replaceAll("\\s+", " "));
+        }
+
+        Map<String, Long> resolved = new HashMap<>();
+        Map<String, CompletableFuture<Long>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Long>> joined = new HashMap<>();
+        for (Map.Entry<String, String> name : names.entrySet()) {
+            Optional<Ingredient> existing = ingredientService.findByNameIgnoreCase(name.getValue());
+            if (existing.isPresent()) {
+                resolved.put(name.getKey(), existing.get().getId());
+                continue;
+            }
+            Long alias = ingredientAliasService.find(name.getKey());
+            if (alias != null) {
+                resolved.put(name.getKey(), alias);
+                continue;
+            }
+            CompletableFuture<Long> mine = new CompletableFuture<>();
+            CompletableFuture<Long> other = inFlight.putIfAbsent(name.getKey(), mine);
+            if (other == null) owned.put(name.getKey(), mine);
+            else joined.put(name.getKey(), other);
         }
-        String name = rawName.trim();
 
-        Optional<Ingredient> existing = ingredientService.findByNameIgnoreCase(name);
-        if (existing.isPresent()) return existing.get();
+        try {
+            createAll(owned, names);
+        } finally {
+            owned.forEach((key, future) -> {
+                inFlight.remove(key, future);
+                future.completeExceptionally(new InvalidIngredientException("Could not resolve ingredient: " + names.get(key)));
+            });
+        }
 
-        IngredientFromAI ai = groqApiClient.generateIngredient(name);
-        return persistFromAI(ai, name);
+        owned.forEach((key, future) -> resolved.put(key, await(future)));
+        joined.forEach((key, future) -> resolved.put(key, await(future)));
+        return resolved;
+    }
+
+    private void createAll(Map<String, CompletableFuture<Long>> owned, Map<String, String> names) {
+        List<String> missing = new ArrayList<>();
+        for (String key : owned.keySet()) {
+            Optional<Ingredient> existing = ingredientService.findByNameIgnoreCase(names.get(key));
+            if (existing.isPresent()) owned.get(key).complete(existing.get().getId());
+            else missing.add(key);
+        }
+
+        for (int from = 0; from < missing.size(); from += AI_BATCH_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + AI_BATCH_SIZE, missing.size()));
+            Map<String, IngredientFromAI> profiles = generateProfiles(chunk, names);
+
+            for (String key : chunk) {
+                CompletableFuture<Long> future = owned.get(key);
+                try {
+                    IngredientFromAI ai = profiles.get(key);
+                    if (ai == null) ai = groqApiClient.generateIngredient(names.get(key));
+                    Long id = persistOrFind(ai, names.get(key));
+                    if (ai.getName() != null && !ai.getName().isBlank() && !key.equals(TextNormalize.normName(ai.getName()))) {
+                        ingredientAliasService.learn(key, id, IngredientAliasService.SOURCE_AI);
+                    }
+                    future.complete(id);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private Map<String, IngredientFromAI> generateProfiles(List<String> keys, Map<String, String> names) {
+        List<String> inputs = keys.stream().map(names::get).toList();
+        List<IngredientFromAI> profiles;
+        try {
+            profiles = groqApiClient.generateIngredients(inputs);
+        } catch (RuntimeException e) {
+            log.warn("Batched ingredient request failed, falling back to single requests: {}", e.getMessage());
+            return Map.of();
+        }
+
+        Map<String, IngredientFromAI> byKey = new HashMap<>();
+        for (IngredientFromAI profile : profiles) {
+            if (profile != null && profile.getInput() != null) {
+                String key = TextNormalize.normName(profile.getInput());
+                if (keys.contains(key)) byKey.putIfAbsent(key, profile);
+            }
+        }
+        if (byKey.isEmpty() && profiles.size() == keys.size()) {
+            for (int i = 0; i < keys.size(); i++) {
+                if (profiles.get(i) != null) byKey.put(keys.get(i), profiles.get(i));
+            }
+        }
+        return byKey;
+    }
+
+    private Long persistOrFind(IngredientFromAI ai, String name) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return requiresNew.execute(tx -> persistFromAI(ai, name).getId());
+        } catch (DataIntegrityViolationException e) {
+            return ingredientService.findByNameIgnoreCase(name)
+                    .or(() -> ingredientService.findByNameIgnoreCase(ai.getName()))
+                    .map(Ingredient::getId)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static Long await(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
     }
 
     @Transactional
     public Unit ensureUnit(String code, String display) {
         if (code == null || code.isBlank()) throw new InvalidIngredientException("Unit code is blank");
-        String norm = code.trim().toLowerCase();
-        Unit unit = unitService.findByCode(norm);
-        if (unit != null) return unit;
+        String norm = UnitRegistry.normalize(code);
+        Optional<Unit> unit = unitService.findOptionalByCode(norm);
+        if (unit.isPresent()) return unit.get();
         Unit newUnit = new Unit();
         newUnit.setCode(norm);
         newUnit.setDisplayName((display != null && !display.isBlank()) ? display : norm);
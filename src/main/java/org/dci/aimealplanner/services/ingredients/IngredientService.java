@@ -25,6 +25,7 @@ public class IngredientService {
     private final IngredientRepository ingredientRepository;
     private final IngredientCategoryService ingredientCategoryService;
     private final NutritionFactRepository nutritionFactRepository;
+    private final IngredientNameIndexService ingredientNameIndexService;
 
 
     public boolean exists(String name) {
@@ -63,7 +64,7 @@ public class IngredientService {
     }
 
     public Page<IngredientSummary> search(String query, PageRequest pageRequest) {
-        return ingredientRepository.smartSearch(query, pageRequest);
+        return ingredientNameIndexService.search(query, pageRequest);
     }
 
     public List<IngredientSummary> findByIdIn(List<Long> ids) {
@@ -79,7 +80,7 @@ public class IngredientService {
     public Optional<Ingredient> findByNameIgnoreCase(String name) {
         if (name == null || name.isBlank()) return Optional.empty();
         String collapsed = name.trim().replaceAll("\\s+", " ");
-        return ingredientRepository.findFirstByNameIgnoreCase(collapsed);
+        return ingredientRepository.findAllByNameLower(collapsed).stream().findFirst();
     }
 
     public boolean existsByNameIgnoreCase(String name) {
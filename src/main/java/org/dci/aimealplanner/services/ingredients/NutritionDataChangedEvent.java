@@ -0,0 +1,4 @@
+package org.dci.aimealplanner.services.ingredients;
+
+public record NutritionDataChangedEvent(Long ingredientId, Long nutritionFactId) {
+}
@@ -0,0 +1,49 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.entities.ingredients.Ingredient;
+import org.dci.aimealplanner.entities.ingredients.IngredientUnitRatio;
+import org.dci.aimealplanner.entities.ingredients.NutritionFact;
+import org.dci.aimealplanner.entities.ingredients.Unit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class NutritionDataListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Object entity) {
+        publishFor(entity);
+        if (entity instanceof Ingredient ingredient) {
+            eventPublisher.publishEvent(new IngredientNameChangedEvent(ingredient.getId(), ingredient.getName(), false));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publishFor(entity);
+        if (entity instanceof Ingredient ingredient) {
+            eventPublisher.publishEvent(new IngredientNameChangedEvent(ingredient.getId(), ingredient.getName(), true));
+        }
+    }
+
+    private void publishFor(Object entity) {
+        switch (entity) {
+            case Ingredient ingredient -> publish(ingredient.getId(), null);
+            case NutritionFact nutritionFact -> publish(null, nutritionFact.getId());
+            case IngredientUnitRatio ratio -> publish(ratio.getIngredient() != null ? ratio.getIngredient().getId() : null, null);
+            case Unit unit -> publish(null, null);
+            default -> { }
+        }
+    }
+
+    private void publish(Long ingredientId, Long nutritionFactId) {
+        eventPublisher.publishEvent(new NutritionDataChangedEvent(ingredientId, nutritionFactId));
+    }
+}
@@ -0,0 +1,193 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.dci.aimealplanner.repositories.ingredients.IngredientNutritionRow;
+import org.dci.aimealplanner.repositories.ingredients.UnitRatioRow;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable snapshot of per-100 g macros and grams-per-unit values, laid out in primitive arrays
+ * so nutrition can be computed without touching the database. Ingredients are sorted by id and
+ * {@code grams[i * unitIds.length + k]} holds the grams in one {@code unitIds[k]} of ingredient
+ * {@code i}: the stored ratio when there is one, otherwise a value derived through
+ * {@link UnitConversions} and the ingredient's density (or its category's) in g/ml.
+ */
+public final class NutritionTable {
+    public static final NutritionTable EMPTY = new NutritionTable(
+            new long[0], new long[0], new double[0], new double[0], new double[0], new double[0],
+            new long[0], new double[0], new double[0], new long[0]);
+
+    private final long[] ingredientIds;
+    private final long[] nutritionFactIds;
+    private final double[] kcal;
+    private final double[] protein;
+    private final double[] carbs;
+    private final double[] fat;
+
+    private final long[] unitIds;
+    private final double[] grams;
+    private final double[] density;
+
+    private final long[] gramUnitIds;
+
+    private NutritionTable(long[] ingredientIds, long[] nutritionFactIds,
+                           double[] kcal, double[] protein, double[] carbs, double[] fat,
+                           long[] unitIds, double[] grams, double[] density, long[] gramUnitIds) {
+        this.ingredientIds = ingredientIds;
+        this.nutritionFactIds = nutritionFactIds;
+        this.kcal = kcal;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.fat = fat;
+        this.unitIds = unitIds;
+        this.grams = grams;
+        this.density = density;
+        this.gramUnitIds = gramUnitIds;
+    }
+
+    public static NutritionTable build(List<IngredientNutritionRow> nutritionRows,
+                                       List<UnitRatioRow> ratioRows,
+                                       long[] gramUnitIds) {
+        return build(nutritionRows, ratioRows, UnitConversions.gramsOnly(gramUnitIds));
+    }
+
+    public static NutritionTable build(List<IngredientNutritionRow> nutritionRows,
+                                       List<UnitRatioRow> ratioRows,
+                                       UnitConversions conversions) {
+        int n = nutritionRows.size();
+        long[] ids = new long[n];
+        long[] factIds = new long[n];
+        double[] kcal = new double[n];
+        double[] protein = new double[n];
+        double[] carbs = new double[n];
+        double[] fat = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            IngredientNutritionRow row = nutritionRows.get(i);
+            ids[i] = row.getIngredientId();
+            factIds[i] = row.getNutritionFactId() == null ? 0L : row.getNutritionFactId();
+            kcal[i] = orNaN(row.getKcal());
+            protein[i] = orNaN(row.getProtein());
+            carbs[i] = orNaN(row.getCarbs());
+            fat[i] = orNaN(row.getFat());
+        }
+
+        long[] units = LongStream.concat(
+                        LongStream.of(conversions.unitIds()),
+                        ratioRows.stream().filter(r -> r.getUnitId() != null).mapToLong(UnitRatioRow::getUnitId))
+                .sorted().distinct().toArray();
+        int width = units.length;
+        double[] grams = new double[n * width];
+        Arrays.fill(grams, Double.NaN);
+
+        double[] density = new double[n];
+        Map<Long, List<Double>> categoryDensities = new HashMap<>();
+        List<Double> samples = new ArrayList<>();
+        int cursor = 0;
+        for (int i = 0; i < n; i++) {
+            samples.clear();
+            while (cursor < ratioRows.size() && ratioRows.get(cursor).getIngredientId() < ids[i]) cursor++;
+            while (cursor < ratioRows.size() && ratioRows.get(cursor).getIngredientId() == ids[i]) {
+                UnitRatioRow row = ratioRows.get(cursor++);
+                if (row.getUnitId() == null || row.getRatio() == null) continue;
+                int k = Arrays.binarySearch(units, row.getUnitId());
+                if (Double.isNaN(grams[i * width + k])) grams[i * width + k] = row.getRatio();
+
+                double millilitres = conversions.millilitresPer(row.getUnitId());
+                if (!Double.isNaN(millilitres) && row.getRatio() > 0) samples.add(row.getRatio() / millilitres);
+            }
+            density[i] = median(samples);
+            Long categoryId = nutritionRows.get(i).getCategoryId();
+            if (categoryId != null && !Double.isNaN(density[i])) {
+                categoryDensities.computeIfAbsent(categoryId, c -> new ArrayList<>()).add(density[i]);
+            }
+        }
+
+        Map<Long, Double> categoryDensity = new HashMap<>();
+        categoryDensities.forEach((category, values) -> categoryDensity.put(category, median(values)));
+
+        for (int i = 0; i < n; i++) {
+            Long categoryId = nutritionRows.get(i).getCategoryId();
+            if (Double.isNaN(density[i]) && categoryId != null) {
+                density[i] = categoryDensity.getOrDefault(categoryId, Double.NaN);
+            }
+            for (int k = 0; k < width; k++) {
+                if (!Double.isNaN(grams[i * width + k])) continue;
+                double derived = conversions.gramsPer(units[k]);
+                if (Double.isNaN(derived)) derived = conversions.millilitresPer(units[k]) * density[i];
+                if (!Double.isNaN(derived)) grams[i * width + k] = Math.round(derived * 1e6) / 1e6;
+            }
+        }
+
+        long[] gramUnits = conversions.gramUnitIds();
+        Arrays.sort(gramUnits);
+
+        return new NutritionTable(ids, factIds, kcal, protein, carbs, fat, units, grams, density, gramUnits);
+    }
+
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    public int indexOf(long ingredientId) {
+        return Arrays.binarySearch(ingredientIds, ingredientId);
+    }
+
+    public boolean contains(long ingredientId) {
+        return indexOf(ingredientId) >= 0;
+    }
+
+    public boolean hasNutrition(int index) {
+        return nutritionFactIds[index] != 0L;
+    }
+
+    public long nutritionFactId(int index) {
+        return nutritionFactIds[index];
+    }
+
+    public long ingredientIdOfNutritionFact(long nutritionFactId) {
+        for (int i = 0; i < nutritionFactIds.length; i++) {
+            if (nutritionFactIds[i] == nutritionFactId) return ingredientIds[i];
+        }
+        return 0L;
+    }
+
+    public double kcal(int index)    { return kcal[index]; }
+    public double protein(int index) { return protein[index]; }
+    public double carbs(int index)   { return carbs[index]; }
+    public double fat(int index)     { return fat[index]; }
+
+    public boolean isGramUnit(long unitId) {
+        return Arrays.binarySearch(gramUnitIds, unitId) >= 0;
+    }
+
+    /**
+     * Grams per one {@code unitId} for the ingredient at {@code index}, {@code 1.0} for gram
+     * units, or {@code NaN} when it can neither be looked up nor derived.
+     */
+    public double gramsPerUnit(int index, long unitId) {
+        if (isGramUnit(unitId)) return 1.0d;
+        int k = Arrays.binarySearch(unitIds, unitId);
+        return k < 0 ? Double.NaN : grams[index * unitIds.length + k];
+    }
+
+    /**
+     * Grams per millilitre of the ingredient at {@code index}, from its own volume ratios or else
+     * the median of its category, or {@code NaN} when neither is known.
+     */
+    public double density(int index) {
+        return density[index];
+    }
+
+    private static double orNaN(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static double median(List<Double> values) {
+        if (values.isEmpty()) return Double.NaN;
+        double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+}
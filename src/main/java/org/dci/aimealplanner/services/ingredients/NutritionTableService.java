@@ -0,0 +1,70 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.repositories.ingredients.IngredientRepository;
+import org.dci.aimealplanner.repositories.ingredients.IngredientUnitRatioRepository;
+import org.dci.aimealplanner.repositories.ingredients.UnitRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+public class NutritionTableService {
+    private final IngredientRepository ingredientRepository;
+    private final IngredientUnitRatioRepository ingredientUnitRatioRepository;
+    private final UnitRepository unitRepository;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile NutritionTable table = NutritionTable.EMPTY;
+
+    public NutritionTable current() {
+        return stale.get() ? reload() : table;
+    }
+
+    public NutritionTable currentFor(Collection<Long> ingredientIds) {
+        NutritionTable snapshot = current();
+        for (Long id : ingredientIds) {
+            if (id != null && !snapshot.contains(id)) {
+                stale.set(true);
+                return current();
+            }
+        }
+        return snapshot;
+    }
+
+    public synchronized NutritionTable reload() {
+        if (!stale.getAndSet(false)) return table;
+        try {
+            table = NutritionTable.build(
+                    ingredientRepository.findAllNutritionRows(),
+                    ingredientUnitRatioRepository.findAllRatioRows(),
+                    UnitConversions.of(unitRepository.findAll()));
+            return table;
+        } catch (RuntimeException e) {
+            stale.set(true);
+            throw e;
+        }
+    }
+
+    public void markStale() {
+        stale.set(true);
+    }
+
+    @EventListener
+    public void onNutritionDataChanged(NutritionDataChangedEvent event) {
+        markStale();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    markStale();
+                }
+            });
+        }
+    }
+}
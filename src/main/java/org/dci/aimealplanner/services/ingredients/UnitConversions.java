@@ -0,0 +1,117 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.dci.aimealplanner.entities.ingredients.Unit;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Fixed conversions between units that measure the same thing, independent of the ingredient.
+ * The standard factors form a graph (tsp → tbsp → cup, lb → oz → g, ...) that is walked from the
+ * two base units, so every known mass unit gets its size in grams and every known volume unit its
+ * size in millilitres. Units outside the graph, such as {@code piece}, need a per-ingredient ratio.
+ */
+public final class UnitConversions {
+    private static final String GRAM = "g";
+    private static final String MILLILITRE = "ml";
+
+    private record Edge(String from, String to, double factor) {}
+
+    /** {@code 1 from = factor × to}. */
+    private static final List<Edge> STANDARD = List.of(
+            new Edge("kg", "g", 1000),
+            new Edge("mg", "g", 0.001),
+            new Edge("oz", "g", 28.349523125),
+            new Edge("lb", "oz", 16),
+            new Edge("l", "ml", 1000),
+            new Edge("dl", "ml", 100),
+            new Edge("cl", "ml", 10),
+            new Edge("tsp", "ml", 4.92892159375),
+            new Edge("tbsp", "tsp", 3),
+            new Edge("cup", "tbsp", 16),
+            new Edge("fl_oz", "tbsp", 2),
+            new Edge("pint", "cup", 2),
+            new Edge("quart", "pint", 2));
+
+    private static final Map<String, Double> GRAMS_PER = walk(GRAM);
+    private static final Map<String, Double> MILLILITRES_PER = walk(MILLILITRE);
+
+    private final long[] unitIds;
+    private final double[] gramsPerUnit;
+    private final double[] millilitresPerUnit;
+
+    private UnitConversions(long[] unitIds, double[] gramsPerUnit, double[] millilitresPerUnit) {
+        this.unitIds = unitIds;
+        this.gramsPerUnit = gramsPerUnit;
+        this.millilitresPerUnit = millilitresPerUnit;
+    }
+
+    public static UnitConversions of(Collection<Unit> units) {
+        Map<Long, String> codes = new TreeMap<>();
+        for (Unit unit : units) {
+            if (unit.getId() != null && unit.getCode() != null) codes.put(unit.getId(), UnitRegistry.normalize(unit.getCode()));
+        }
+        long[] ids = new long[codes.size()];
+        double[] grams = new double[ids.length];
+        double[] millilitres = new double[ids.length];
+        int i = 0;
+        for (Map.Entry<Long, String> unit : codes.entrySet()) {
+            ids[i] = unit.getKey();
+            grams[i] = GRAMS_PER.getOrDefault(unit.getValue(), Double.NaN);
+            millilitres[i] = MILLILITRES_PER.getOrDefault(unit.getValue(), Double.NaN);
+            i++;
+        }
+        return new UnitConversions(ids, grams, millilitres);
+    }
+
+    /** Conversions that only know the given units as grams, for tables built without unit codes. */
+    public static UnitConversions gramsOnly(long[] gramUnitIds) {
+        long[] ids = Arrays.stream(gramUnitIds).sorted().distinct().toArray();
+        double[] grams = new double[ids.length];
+        double[] millilitres = new double[ids.length];
+        Arrays.fill(grams, 1.0d);
+        Arrays.fill(millilitres, Double.NaN);
+        return new UnitConversions(ids, grams, millilitres);
+    }
+
+    public long[] unitIds() {
+        return unitIds.clone();
+    }
+
+    public long[] gramUnitIds() {
+        return IntStream.range(0, unitIds.length)
+                .filter(i -> gramsPerUnit[i] == 1.0d)
+                .mapToLong(i -> unitIds[i])
+                .toArray();
+    }
+
+    /** Grams in one {@code unitId} when it is a mass unit, otherwise {@code NaN}. */
+    public double gramsPer(long unitId) {
+        int i = Arrays.binarySearch(unitIds, unitId);
+        return i < 0 ? Double.NaN : gramsPerUnit[i];
+    }
+
+    /** Millilitres in one {@code unitId} when it is a volume unit, otherwise {@code NaN}. */
+    public double millilitresPer(long unitId) {
+        int i = Arrays.binarySearch(unitIds, unitId);
+        return i < 0 ? Double.NaN : millilitresPerUnit[i];
+    }
+
+    private static Map<String, Double> walk(String base) {
+        Map<String, Double> factors = new HashMap<>();
+        factors.put(base, 1.0d);
+        Deque<String> queue = new ArrayDeque<>(List.of(base));
+        while (!queue.isEmpty()) {
+            String unit = queue.poll();
+            double known = factors.get(unit);
+            for (Edge edge : STANDARD) {
+                if (edge.to().equals(unit) && factors.putIfAbsent(edge.from(), edge.factor() * known) == null) {
+                    queue.add(edge.from());
+                } else if (edge.from().equals(unit) && factors.putIfAbsent(edge.to(), known / edge.factor()) == null) {
+                    queue.add(edge.to());
+                }
+            }
+        }
+        return Map.copyOf(factors);
+    }
+}
@@ -0,0 +1,115 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.dci.aimealplanner.entities.ingredients.Unit;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of all units, indexed by id, by normalized code and by display name.
+ * Every unit is also reachable through the common spellings in {@link #ALIASES}, so callers can
+ * look codes up as the AI or a form sent them.
+ */
+public final class UnitRegistry {
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("gram", "g"),
+            Map.entry("grams", "g"),
+            Map.entry("gs", "g"),
+            Map.entry("gr", "g"),
+            Map.entry("milliliter", "ml"),
+            Map.entry("milliliters", "ml"),
+            Map.entry("millilitre", "ml"),
+            Map.entry("millilitres", "ml"),
+            Map.entry("mls", "ml"),
+            Map.entry("ml.", "ml"),
+            Map.entry("kilogram", "kg"),
+            Map.entry("kilograms", "kg"),
+            Map.entry("liter", "l"),
+            Map.entry("liters", "l"),
+            Map.entry("litre", "l"),
+            Map.entry("litres", "l"),
+            Map.entry("teaspoon", "tsp"),
+            Map.entry("teaspoons", "tsp"),
+            Map.entry("tablespoon", "tbsp"),
+            Map.entry("tablespoons", "tbsp"),
+            Map.entry("cups", "cup"),
+            Map.entry("ounce", "oz"),
+            Map.entry("ounces", "oz"),
+            Map.entry("pound", "lb"),
+            Map.entry("pounds", "lb"),
+            Map.entry("lbs", "lb"),
+            Map.entry("pieces", "piece"),
+            Map.entry("pcs", "piece"));
+
+    private final List<Unit> units;
+    private final Map<Long, Unit> byId;
+    private final Map<String, Unit> byCode;
+    private final Map<String, Unit> byDisplayName;
+
+    private UnitRegistry(List<Unit> units, Map<Long, Unit> byId, Map<String, Unit> byCode,
+                         Map<String, Unit> byDisplayName) {
+        this.units = units;
+        this.byId = byId;
+        this.byCode = byCode;
+        this.byDisplayName = byDisplayName;
+    }
+
+    public static UnitRegistry build(Collection<Unit> source) {
+        List<Unit> units = source.stream()
+                .filter(u -> u.getId() != null)
+                .sorted(Comparator.comparing(Unit::getId))
+                .toList();
+        Map<Long, Unit> byId = new HashMap<>();
+        Map<String, Unit> byCode = new HashMap<>();
+        Map<String, Unit> byDisplayName = new HashMap<>();
+        for (Unit unit : units) {
+            byId.put(unit.getId(), unit);
+            if (unit.getCode() != null) {
+                byCode.putIfAbsent(unit.getCode(), unit);
+                byCode.putIfAbsent(normalize(unit.getCode()), unit);
+            }
+            if (unit.getDisplayName() != null) byDisplayName.putIfAbsent(unit.getDisplayName(), unit);
+        }
+        ALIASES.forEach((alias, code) -> {
+            Unit unit = byCode.get(code);
+            if (unit != null) byCode.putIfAbsent(alias, unit);
+        });
+        return new UnitRegistry(units, Map.copyOf(byId), Map.copyOf(byCode), Map.copyOf(byDisplayName));
+    }
+
+    /** Canonical form of a unit code: trimmed, lower-cased and with known spellings mapped to their code. */
+    public static String normalize(String code) {
+        if (code == null) return null;
+        String t = code.trim().toLowerCase(Locale.ROOT);
+        return ALIASES.getOrDefault(t, t);
+    }
+
+    public UnitRegistry with(Unit unit) {
+        Map<Long, Unit> merged = new LinkedHashMap<>(byId);
+        merged.put(unit.getId(), unit);
+        return build(merged.values());
+    }
+
+    public Optional<Unit> byId(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    /** Codes are tried as given first, so the usual lower-case codes need no normalization. */
+    public Optional<Unit> byCode(String code) {
+        if (code == null) return Optional.empty();
+        Unit unit = byCode.get(code);
+        if (unit == null) unit = byCode.get(normalize(code));
+        return Optional.ofNullable(unit);
+    }
+
+    public Optional<Unit> byDisplayName(String displayName) {
+        return displayName == null ? Optional.empty() : Optional.ofNullable(byDisplayName.get(displayName));
+    }
+
+    public List<Unit> units() {
+        return units;
+    }
+
+    public int size() {
+        return units.size();
+    }
+}
@@ -1,41 +1,91 @@
 package org.dci.aimealplanner.services.ingredients;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.dci.aimealplanner.entities.ingredients.Unit;
 import org.dci.aimealplanner.exceptions.UnitNotFoundException;
 import org.dci.aimealplanner.repositories.ingredients.UnitRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
+/**
+ * Unit lookups are served from a {@link UnitRegistry} loaded once; the registry is replaced
+ * whenever a unit is saved through {@link #save}, and reloaded if that save is rolled back.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UnitService {
     private final UnitRepository unitRepository;
 
+    private volatile UnitRegistry registry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            log.info("Unit registry loaded with {} units", registry().size());
+        } catch (RuntimeException e) {
+            log.warn("Unit registry not loaded at startup, will retry on first lookup: {}", e.getMessage());
+        }
+    }
+
     public Unit findByCode(String code) {
-        return unitRepository.findByCode(code).orElseThrow(() -> new UnitNotFoundException("Unit with code " + code + " not found"));
+        return registry().byCode(code).orElseThrow(() -> new UnitNotFoundException("Unit with code " + code + " not found"));
+    }
+
+    public Optional<Unit> findOptionalByCode(String code) {
+        return registry().byCode(code);
     }
 
     public Unit findByDisplayName(String displayName) {
-        return unitRepository.findByDisplayName(displayName).orElseThrow(() -> new UnitNotFoundException("Unit with display name " + displayName + " not found"));
+        return registry().byDisplayName(displayName).orElseThrow(() -> new UnitNotFoundException("Unit with display name " + displayName + " not found"));
     }
 
     public List<Unit> findAll() {
-        return unitRepository.findAll();
+        return registry().units();
     }
 
     public Unit findById(Long id) {
-        return unitRepository.findById(id).orElseThrow(() -> new UnitNotFoundException("Unit with id " + id + " not found"));
+        return registry().byId(id).orElseThrow(() -> new UnitNotFoundException("Unit with id " + id + " not found"));
     }
 
     public Map<String, Unit> ensureUnitsByCode(LinkedHashSet<String> unitCodes) {
+        UnitRegistry current = registry();
         Map<String, Unit> unitsByCode = new LinkedHashMap<String, Unit>();
-        unitCodes.forEach(unitCode -> {unitRepository.findByCodeIgnoreCase(unitCode).ifPresent(unit -> unitsByCode.put(unitCode, unit));});
+        unitCodes.forEach(unitCode -> current.byCode(unitCode).ifPresent(unit -> unitsByCode.put(unitCode, unit)));
         return unitsByCode;
     }
 
-    public Unit save(Unit newUnit) {
-        return unitRepository.save(newUnit);
+    public synchronized Unit save(Unit newUnit) {
+        Unit saved = unitRepository.save(newUnit);
+        registry = registry().with(saved);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) invalidate();
+                }
+            });
+        }
+        return saved;
+    }
+
+    private synchronized void invalidate() {
+        registry = null;
+    }
+
+    private UnitRegistry registry() {
+        UnitRegistry current = registry;
+        return current != null ? current : load();
+    }
+
+    private synchronized UnitRegistry load() {
+        if (registry == null) registry = UnitRegistry.build(unitRepository.findAll());
+        return registry;
     }
 }
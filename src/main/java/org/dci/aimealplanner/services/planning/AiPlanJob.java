@@ -0,0 +1,178 @@
+package org.dci.aimealplanner.services.planning;
+
+import org.dci.aimealplanner.models.planning.AiPlanJobMealDTO;
+import org.dci.aimealplanner.models.planning.AiPlanJobStatusDTO;
+import org.dci.aimealplanner.models.planning.PlannedMealDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+
+/**
+ * Mutable state of one background plan population. Updates come from the job thread,
+ * snapshots are read by request threads, so all state changes go through this monitor.
+ */
+class AiPlanJob implements AiPlanProgressListener {
+    static final String QUEUED = "QUEUED";
+    static final String PLANNING = "PLANNING";
+    static final String GENERATING = "GENERATING";
+    static final String COMPLETED = "COMPLETED";
+    static final String CANCELLED = "CANCELLED";
+    static final String FAILED = "FAILED";
+
+    private final String jobId;
+    private final Long planId;
+    private final Long userId;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private String state = QUEUED;
+    private List<AiPlanJobMealDTO> meals = List.of();
+    private String error;
+    private LocalDateTime finishedAt;
+    private volatile boolean cancelled;
+    private Future<?> future;
+
+    AiPlanJob(String jobId, Long planId, Long userId) {
+        this.jobId = jobId;
+        this.planId = planId;
+        this.userId = userId;
+    }
+
+    String jobId()  { return jobId; }
+    Long planId()   { return planId; }
+    Long userId()   { return userId; }
+
+    synchronized void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean isActive() {
+        return finishedAt == null;
+    }
+
+    synchronized boolean finishedBefore(LocalDateTime cutoff) {
+        return finishedAt != null && finishedAt.isBefore(cutoff);
+    }
+
+    void cancel() {
+        cancelled = true;
+        Future<?> running;
+        synchronized (this) {
+            running = future;
+            if (QUEUED.equals(state) || PLANNING.equals(state)) {
+                if (running != null) running.cancel(true);
+                finish(CANCELLED, null);
+            }
+        }
+        publish();
+    }
+
+    boolean started() {
+        synchronized (this) {
+            if (finishedAt != null) return false;
+            state = PLANNING;
+        }
+        publish();
+        return true;
+    }
+
+    void completed() {
+        synchronized (this) {
+            if (finishedAt != null) return;
+            finish(cancelled ? CANCELLED : COMPLETED, null);
+        }
+        publish();
+    }
+
+    void failed(String reason) {
+        synchronized (this) {
+            if (finishedAt != null) return;
+            finish(cancelled ? CANCELLED : FAILED, reason);
+        }
+        publish();
+    }
+
+    @Override
+    public void onMealsPlanned(List<PlannedMealDTO> planned) {
+        synchronized (this) {
+            meals = new ArrayList<>(planned.stream().map(AiPlanJobMealDTO::pending).toList());
+            if (finishedAt == null) state = GENERATING;
+        }
+        publish();
+    }
+
+    @Override
+    public void onMealTitled(int index, String title) {
+        synchronized (this) {
+            meals.set(index, meals.get(index).titled(title));
+        }
+        publish();
+    }
+
+    @Override
+    public void onMealSaved(int index, Long recipeId, String recipeTitle) {
+        synchronized (this) {
+            meals.set(index, meals.get(index).done(recipeId, recipeTitle));
+        }
+        publish();
+    }
+
+    @Override
+    public void onMealFailed(int index, String reason) {
+        synchronized (this) {
+            String mealState = cancelled ? CANCELLED : FAILED;
+            meals.set(index, meals.get(index).failed(mealState, reason));
+        }
+        publish();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized AiPlanJobStatusDTO snapshot() {
+        int done = 0, failed = 0;
+        for (AiPlanJobMealDTO meal : meals) {
+            if ("DONE".equals(meal.state())) done++;
+            else if (!"PENDING".equals(meal.state())) failed++;
+        }
+        return new AiPlanJobStatusDTO(jobId, planId, state, meals.size(), done, failed,
+                List.copyOf(meals), error, startedAt, finishedAt);
+    }
+
+    void subscribe(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        send(emitter, snapshot());
+    }
+
+    private void finish(String finalState, String reason) {
+        state = finalState;
+        error = reason;
+        finishedAt = LocalDateTime.now();
+    }
+
+    private void publish() {
+        AiPlanJobStatusDTO status = snapshot();
+        for (SseEmitter emitter : emitters) {
+            send(emitter, status);
+        }
+    }
+
+    private void send(SseEmitter emitter, AiPlanJobStatusDTO status) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(status));
+            if (status.isFinished()) emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+        }
+    }
+}
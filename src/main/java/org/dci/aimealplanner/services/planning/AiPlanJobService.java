@@ -0,0 +1,104 @@
+package org.dci.aimealplanner.services.planning;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.entities.users.User;
+import org.dci.aimealplanner.models.planning.AiPlanJobStatusDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiPlanJobService {
+    private static final Duration RETENTION = Duration.ofMinutes(30);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(15).toMillis();
+
+    private final MealPlanAiService mealPlanAiService;
+    private final MealPlanningService mealPlanningService;
+
+    private final Map<String, AiPlanJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, AiPlanJob> latestByPlan = new ConcurrentHashMap<>();
+    private final ExecutorService runner = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ai-plan-job-", 0).factory());
+
+    /**
+     * Starts populating the plan in the background, or returns the job that is already
+     * running for it.
+     */
+    public AiPlanJobStatusDTO start(Long planId, User user) {
+        mealPlanningService.getPlanForUser(planId, user.getId());
+        evictFinished();
+
+        AiPlanJob created = new AiPlanJob(UUID.randomUUID().toString(), planId, user.getId());
+        AiPlanJob job = latestByPlan.compute(planId,
+                (id, current) -> current != null && current.isActive() ? current : created);
+        if (job == created) {
+            jobs.put(job.jobId(), job);
+            job.attach(runner.submit(() -> run(job, user)));
+        }
+        return job.snapshot();
+    }
+
+    public Optional<AiPlanJobStatusDTO> findStatus(String jobId, Long userId) {
+        return find(jobId, userId).map(AiPlanJob::snapshot);
+    }
+
+    public Optional<AiPlanJobStatusDTO> findActiveForPlan(Long planId, Long userId) {
+        return jobs.values().stream()
+                .filter(job -> job.planId().equals(planId) && job.userId().equals(userId) && job.isActive())
+                .findFirst()
+                .map(AiPlanJob::snapshot);
+    }
+
+    public boolean cancel(String jobId, Long userId) {
+        Optional<AiPlanJob> job = find(jobId, userId);
+        job.ifPresent(AiPlanJob::cancel);
+        return job.isPresent();
+    }
+
+    public Optional<SseEmitter> subscribe(String jobId, Long userId) {
+        return find(jobId, userId).map(job -> {
+            SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+            job.subscribe(emitter);
+            return emitter;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run(AiPlanJob job, User user) {
+        if (!job.started()) return;
+        try {
+            mealPlanAiService.populatePlanWithAi(job.planId(), user, job);
+            job.completed();
+        } catch (RuntimeException e) {
+            log.warn("AI plan job {} for plan {} failed: {}", job.jobId(), job.planId(), e.getMessage());
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private Optional<AiPlanJob> find(String jobId, Long userId) {
+        AiPlanJob job = jobs.get(jobId);
+        return job != null && job.userId().equals(userId) ? Optional.of(job) : Optional.empty();
+    }
+
+    private void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+        latestByPlan.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+}
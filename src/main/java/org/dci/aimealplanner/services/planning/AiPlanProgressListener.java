@@ -0,0 +1,26 @@
+package org.dci.aimealplanner.services.planning;
+
+import org.dci.aimealplanner.models.planning.PlannedMealDTO;
+
+import java.util.List;
+
+/**
+ * Receives progress while {@link MealPlanAiService} populates a plan. Meal indexes refer
+ * to the list passed to {@link #onMealsPlanned}, which is sorted by date and slot.
+ */
+public interface AiPlanProgressListener {
+    AiPlanProgressListener NONE = new AiPlanProgressListener() {};
+
+    default void onMealsPlanned(List<PlannedMealDTO> meals) {}
+
+    /** A placeholder meal passed to {@link #onMealsPlanned} got its final title. */
+    default void onMealTitled(int index, String title) {}
+
+    default void onMealSaved(int index, Long recipeId, String recipeTitle) {}
+
+    default void onMealFailed(int index, String reason) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -2,9 +2,12 @@ package org.dci.aimealplanner.services.planning;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.dci.aimealplanner.entities.planning.MealPlan;
+import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.entities.users.User;
 import org.dci.aimealplanner.entities.users.UserInformation;
+import org.dci.aimealplanner.integration.aiapi.AiUsageContext;
 import org.dci.aimealplanner.integration.aiapi.GroqApiClient;
 import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanDayFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanFromAI;
@@ -12,31 +15,294 @@ import org.dci.aimealplanner.integration.aiapi.dtos.planning.MealPlanGenerationR
 import org.dci.aimealplanner.integration.aiapi.dtos.planning.PlannedMealFromAI;
 import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
 import org.dci.aimealplanner.models.planning.AddMealEntryDTO;
+import org.dci.aimealplanner.models.planning.AiPlanPopulationResultDTO;
+import org.dci.aimealplanner.models.planning.MealGenerationFailureDTO;
+import org.dci.aimealplanner.models.planning.PlannedMealDTO;
 import org.dci.aimealplanner.models.recipes.MealSlot;
+import org.dci.aimealplanner.services.recipes.AiRecipeIndex;
+import org.dci.aimealplanner.services.recipes.AiRecipeReuseService;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserInformationService;
-import org.dci.aimealplanner.services.users.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.util.Comparator;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MealPlanAiService {
+    private static final long CANCEL_CHECK_MS = 500L;
+    private static final String PER_DAY = "per-day";
+    private static final String PLANNING_TITLE = "Planning…";
+
     private final GroqApiClient groqApiClient;
     private final UserInformationService userInformationService;
     private final MealPlanningService mealPlanningService;
     private final RecipeService recipeService;
+    private final AiRecipeReuseService aiRecipeReuseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ai.plan.generation-mode:per-meal}")
+    private String generationMode;
+
+    @Value("${ai.plan.recipe-concurrency:4}")
+    private int recipeConcurrency;
+
+    @Value("${ai.plan.reuse.enabled:true}")
+    private boolean reuseEnabled;
+
+    @Value("${ai.plan.reuse.min-similarity:0.85}")
+    private double reuseMinSimilarity;
+
+    public AiPlanPopulationResultDTO populatePlanWithAi(Long planId, User currectUser) {
+        return populatePlanWithAi(planId, currectUser, AiPlanProgressListener.NONE);
+    }
+
+    /**
+     * Recipes are generated concurrently (at most {@code ai.plan.recipe-concurrency} calls in
+     * flight, all sharing the Groq rate limit). Each meal is saved in its own transaction as soon as
+     * its recipe arrives, so a failing meal does not undo the others. Meals whose title and slot
+     * match one of the user's existing AI recipes reuse it, and repeated meals in the plan share one
+     * generated recipe.
+     * <p>
+     * With {@code ai.plan.generation-mode=per-meal} the plan is outlined in one call and every
+     * recipe is requested separately; {@code per-day} asks for one day at a time with the recipes
+     * embedded, which sends the planning rules once per day instead of once per meal.
+     */
+    public AiPlanPopulationResultDTO populatePlanWithAi(Long planId, User currectUser, AiPlanProgressListener listener) {
+        PlanningContext context = transactionTemplate.execute(tx -> loadContext(planId, currectUser));
+        AiRecipeIndex existing = reuseEnabled ? aiRecipeReuseService.loadIndex(currectUser.getId()) : new AiRecipeIndex();
+
+        return PER_DAY.equalsIgnoreCase(generationMode)
+                ? populatePerDay(context, currectUser, listener, existing)
+                : populatePerMeal(context, currectUser, listener, existing);
+    }
+
+    private AiPlanPopulationResultDTO populatePerMeal(PlanningContext context, User currectUser,
+                                                      AiPlanProgressListener listener, AiRecipeIndex existing) {
+        Long planId = context.plan().getId();
+        MealPlanFromAI aiPlan = AiUsageContext.callAs(currectUser.getId(),
+                () -> groqApiClient.generateMealPlanFromProfile(context.request()));
+
+        Integer targetKcalPerDay = aiPlan.targetKcalPerDay() != null
+                ? aiPlan.targetKcalPerDay()
+                : context.request().targetKcalPerDay();
+
+        List<PlannedMealDTO> meals = plannedMeals(aiPlan, context.plan());
+        listener.onMealsPlanned(meals);
+
+        MealGenerationFailureDTO[] failures = new MealGenerationFailureDTO[meals.size()];
+        int created = 0, reused = 0;
+
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < meals.size(); i++) {
+            PlannedMealDTO meal = meals.get(i);
+            groups.computeIfAbsent(meal.slot() + "|" + AiRecipeIndex.normalizeTitle(meal.title()), k -> new ArrayList<>()).add(i);
+        }
+
+        Semaphore permits = new Semaphore(Math.max(1, recipeConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<RecipeFromAI> completion = new ExecutorCompletionService<>(executor);
+            Map<Future<RecipeFromAI>, List<Integer>> pending = new HashMap<>();
+
+            for (List<Integer> group : groups.values()) {
+                PlannedMealDTO first = meals.get(group.get(0));
+                Optional<AiRecipeIndex.Match> match = existing.find(first.title(), first.slot(), reuseMinSimilarity);
+                if (match.isPresent()) {
+                    int added = addEntries(group, match.get().recipeId(), match.get().title(), meals, context, currectUser, listener, failures);
+                    created += added;
+                    reused += added;
+                    continue;
+                }
+                String prompt = buildMealRecipeUserPrompt(first.title(), first.slot(), first.servings(),
+                        targetKcalPerDay, context.mealsPerDay(), context);
+                pending.put(completion.submit(() -> generateRecipe(prompt, permits, currectUser.getId())), group);
+            }
+
+            while (!pending.isEmpty()) {
+                if (listener.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    executor.shutdownNow();
+                    pending.values().forEach(group -> group.forEach(i -> fail(listener, failures, meals, i, "Cancelled")));
+                    break;
+                }
+
+                Future<RecipeFromAI> done;
+                try {
+                    done = completion.poll(CANCEL_CHECK_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    continue;
+                }
+                if (done == null) continue;
+
+                List<Integer> group = pending.remove(done);
+                PlannedMealDTO meal = meals.get(group.get(0));
+                try {
+                    RecipeFromAI aiRecipe = done.get();
+                    Recipe saved = recipeService.saveFromAI(aiRecipe, currectUser.getEmail());
+                    created += addEntries(group, saved.getId(), saved.getTitle(), meals, context, currectUser, listener, failures);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    group.forEach(i -> fail(listener, failures, meals, i, "Cancelled"));
+                } catch (ExecutionException | RuntimeException e) {
+                    Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                    log.warn("AI meal {} {} '{}' failed: {}", meal.date(), meal.slot(), meal.title(), cause.getMessage());
+                    group.forEach(i -> fail(listener, failures, meals, i, reason(cause)));
+                }
+            }
+        }
+
+        if (reused > 0) log.info("AI plan {}: reused existing recipes for {} of {} meals", planId, reused, meals.size());
+        return new AiPlanPopulationResultDTO(meals.size(), created, reused,
+                Arrays.stream(failures).filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * One streaming call per day returns that day's meals with their recipes. Each meal is saved
+     * as soon as it has been parsed, while the rest of the day is still streaming in.
+     */
+    private AiPlanPopulationResultDTO populatePerDay(PlanningContext context, User currectUser,
+                                                     AiPlanProgressListener listener, AiRecipeIndex existing) {
+        MealPlan plan = context.plan();
+        List<MealSlot> slots = slotsFor(context.mealsPerDay());
+        List<String> slotNames = slots.stream().map(MealSlot::name).toList();
+        List<LocalDate> dates = plan.getStartDate().datesUntil(plan.getEndDate().plusDays(1)).toList();
+
+        List<PlannedMealDTO> meals = Collections.synchronizedList(new ArrayList<>());
+        for (LocalDate date : dates) {
+            for (MealSlot slot : slots) meals.add(new PlannedMealDTO(date, slot, PLANNING_TITLE, 1.0));
+        }
+        listener.onMealsPlanned(List.copyOf(meals));
+
+        MealGenerationFailureDTO[] failures = new MealGenerationFailureDTO[meals.size()];
+        Set<Integer> returned = ConcurrentHashMap.newKeySet();
+        Set<Integer> settled = ConcurrentHashMap.newKeySet();
+        Map<String, CompletableFuture<SavedRecipe>> recipes = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> entries = new CopyOnWriteArrayList<>();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger reused = new AtomicInteger();
+
+        Semaphore permits = new Semaphore(Math.max(1, recipeConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> days = new ArrayList<>();
+            for (int d = 0; d < dates.size(); d++) {
+                LocalDate date = dates.get(d);
+                int dayNumber = d + 1;
+                int firstIndex = d * slots.size();
+
+                Consumer<PlannedMealFromAI> onMeal = m -> {
+                    MealSlot slot = toSlot(m.slot());
+                    int position = slots.indexOf(slot);
+                    if (position < 0 || m.title() == null || !returned.add(firstIndex + position)) return;
+
+                    int index = firstIndex + position;
+                    PlannedMealDTO meal = new PlannedMealDTO(date, slot, m.title(), m.servings());
+                    meals.set(index, meal);
+                    listener.onMealTitled(index, m.title());
+
+                    String key = slot + "|" + AiRecipeIndex.normalizeTitle(m.title());
+                    CompletableFuture<SavedRecipe> recipe = recipes.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(
+                            () -> saveEmbeddedRecipe(m, slot, existing, currectUser), executor));
+                    entries.add(recipe.handleAsync((saved, error) -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            log.warn("AI meal {} {} '{}' failed: {}", meal.date(), meal.slot(), meal.title(), cause.getMessage());
+                            fail(listener, failures, meals, index, reason(cause));
+                        } else {
+                            int added = addEntries(List.of(index), saved.id(), saved.title(), meals, context, currectUser, listener, failures);
+                            created.addAndGet(added);
+                            if (saved.reused()) reused.addAndGet(added);
+                        }
+                        settled.add(index);
+                        return null;
+                    }, executor));
+                };
+
+                days.add(CompletableFuture.runAsync(() -> {
+                    String missing = "Not returned by AI";
+                    try {
+                        permits.acquire();
+                        try {
+                            AiUsageContext.callAs(currectUser.getId(), () -> groqApiClient.streamMealPlanDay(
+                                    context.request(), date, dayNumber, slotNames, onMeal, listener::isCancelled));
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        missing = "Cancelled";
+                    } catch (RuntimeException e) {
+                        log.warn("AI plan {} day {} failed: {}", plan.getId(), date, e.getMessage());
+                        missing = reason(e);
+                    }
+                    for (int i = firstIndex; i < firstIndex + slots.size(); i++) {
+                        if (!returned.contains(i) && settled.add(i)) fail(listener, failures, meals, i, missing);
+                    }
+                }, executor));
+            }
+
+            boolean finished = awaitUnlessCancelled(CompletableFuture.allOf(days.toArray(CompletableFuture[]::new)), listener)
+                    && awaitUnlessCancelled(CompletableFuture.allOf(entries.toArray(CompletableFuture[]::new)), listener);
+            if (!finished) {
+                executor.shutdownNow();
+                for (int i = 0; i < meals.size(); i++) {
+                    if (settled.add(i)) fail(listener, failures, meals, i, "Cancelled");
+                }
+            }
+        }
+
+        if (reused.get() > 0) log.info("AI plan {}: reused existing recipes for {} of {} meals", plan.getId(), reused.get(), meals.size());
+        return new AiPlanPopulationResultDTO(meals.size(), created.get(), reused.get(),
+                Arrays.stream(failures).filter(Objects::nonNull).toList());
+    }
+
+    private SavedRecipe saveEmbeddedRecipe(PlannedMealFromAI meal, MealSlot slot, AiRecipeIndex existing, User currectUser) {
+        Optional<AiRecipeIndex.Match> match = existing.find(meal.title(), slot, reuseMinSimilarity);
+        if (match.isPresent()) return new SavedRecipe(match.get().recipeId(), match.get().title(), true);
 
-    @Transactional
-    public void populatePlanWithAi(Long planId, User currectUser) {
+        RecipeFromAI aiRecipe = meal.recipe();
+        if (aiRecipe == null) throw new IllegalStateException("No recipe returned by AI");
+        if (aiRecipe.getTitle() == null || aiRecipe.getTitle().isBlank()) aiRecipe.setTitle(meal.title());
+        Recipe saved = recipeService.saveFromAI(aiRecipe, currectUser.getEmail());
+        return new SavedRecipe(saved.getId(), saved.getTitle(), false);
+    }
+
+    private boolean awaitUnlessCancelled(CompletableFuture<Void> all, AiPlanProgressListener listener) {
+        while (true) {
+            if (listener.isCancelled() || Thread.currentThread().isInterrupted()) return false;
+            try {
+                all.get(CANCEL_CHECK_MS, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                // poll the cancel flag again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+    }
+
+    private static List<MealSlot> slotsFor(Integer mealsPerDay) {
+        int count = mealsPerDay == null ? 3 : mealsPerDay;
+        if (count <= 1) return List.of(MealSlot.LUNCH);
+        if (count == 2) return List.of(MealSlot.LUNCH, MealSlot.DINNER);
+        if (count == 3) return List.of(MealSlot.BREAKFAST, MealSlot.LUNCH, MealSlot.DINNER);
+        return List.of(MealSlot.BREAKFAST, MealSlot.LUNCH, MealSlot.DINNER, MealSlot.SNACK);
+    }
+
+    private PlanningContext loadContext(Long planId, User currectUser) {
         MealPlan plan = mealPlanningService.getPlanForUser(planId, currectUser.getId());
 
         UserInformation information = userInformationService.getUserInformationByUser(currectUser);
+        List<String> preferences = information.getDietaryPreferences().stream().map(dp -> dp.getName()).toList();
 
         MealPlanGenerationRequest req = new MealPlanGenerationRequest(
                 plan.getStartDate(),
@@ -48,57 +314,76 @@ public class MealPlanAiService {
                 information.getActivityLevel() != null ? information.getActivityLevel().name() : null,
                 information.getGoal() != null ? information.getGoal().name() : null,
                 information.getMealsPerDay(),
-                information.getDietaryPreferences().stream().map(dp -> dp.getName()).toList(),
+                preferences,
                 List.of(),
                 List.of(),
                 List.of(),
                 information.getTargetKcalPerDay()
         );
-        MealPlanFromAI aiPlan = groqApiClient.generateMealPlanFromProfile(req);
+        return new PlanningContext(plan, req, information.getMealsPerDay(), preferences, req.goal(), req.activityLevel());
+    }
 
-        Integer targetKcalPerDay = aiPlan.targetKcalPerDay() != null
-                ? aiPlan.targetKcalPerDay()
-                : information.getTargetKcalPerDay();
-
-        aiPlan.days().stream()
-                .sorted(Comparator.comparing(MealPlanDayFromAI::date))
-                .forEach(day -> {
-                    LocalDate date = LocalDate.parse(day.date());
-                    if (date.isBefore(plan.getStartDate()) || date.isAfter(plan.getEndDate())) return;
-
-                    for (PlannedMealFromAI m : day.meals()) {
-                        MealSlot slot = toSlot(m.slot());
-                        if (slot == null) continue;
-
-                        String mealRecipePrompt = buildMealRecipeUserPrompt(
-                                m.title(),
-                                slot,
-                                m.servings(),
-                                targetKcalPerDay,
-                                information.getMealsPerDay(),
-                                information
-                        );
-
-                        RecipeFromAI aiRecipe = null;
-                        try {
-                            aiRecipe = groqApiClient.generateRecipeFromPrompt(mealRecipePrompt);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException(e);
-                        }
-                        var saved = recipeService.saveFromAI(aiRecipe, currectUser.getEmail());
-
-                        mealPlanningService.addEntry(
-                                currectUser.getId(),
-                                new AddMealEntryDTO(
-                                        plan.getId(),
-                                        date,
-                                        slot,
-                                        saved.getId(),
-                                        m.servings() != null ? BigDecimal.valueOf(m.servings()) : BigDecimal.ONE
-                                )
-                        );
-                    }
-                });
+    private List<PlannedMealDTO> plannedMeals(MealPlanFromAI aiPlan, MealPlan plan) {
+        List<PlannedMealDTO> meals = new ArrayList<>();
+        for (MealPlanDayFromAI day : aiPlan.days()) {
+            LocalDate date = LocalDate.parse(day.date());
+            if (date.isBefore(plan.getStartDate()) || date.isAfter(plan.getEndDate())) continue;
+
+            for (PlannedMealFromAI m : day.meals()) {
+                MealSlot slot = toSlot(m.slot());
+                if (slot == null) continue;
+                meals.add(new PlannedMealDTO(date, slot, m.title(), m.servings()));
+            }
+        }
+        meals.sort(Comparator.comparing(PlannedMealDTO::date).thenComparing(PlannedMealDTO::slot));
+        return meals;
+    }
+
+    private RecipeFromAI generateRecipe(String prompt, Semaphore permits, Long userId) throws InterruptedException, JsonProcessingException {
+        permits.acquire();
+        try {
+            return AiUsageContext.callAs(userId, () -> groqApiClient.generateRecipeFromPrompt(prompt));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int addEntries(List<Integer> group, Long recipeId, String recipeTitle, List<PlannedMealDTO> meals,
+                           PlanningContext context, User currectUser, AiPlanProgressListener listener,
+                           MealGenerationFailureDTO[] failures) {
+        int added = 0;
+        for (int i : group) {
+            PlannedMealDTO meal = meals.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(tx -> mealPlanningService.addEntry(
+                        currectUser.getId(),
+                        new AddMealEntryDTO(
+                                context.plan().getId(),
+                                meal.date(),
+                                meal.slot(),
+                                recipeId,
+                                meal.servings() != null ? BigDecimal.valueOf(meal.servings()) : BigDecimal.ONE
+                        )
+                ));
+                added++;
+                listener.onMealSaved(i, recipeId, recipeTitle);
+            } catch (RuntimeException e) {
+                log.warn("AI meal {} {} '{}' could not be added: {}", meal.date(), meal.slot(), meal.title(), e.getMessage());
+                fail(listener, failures, meals, i, reason(e));
+            }
+        }
+        return added;
+    }
+
+    private void fail(AiPlanProgressListener listener, MealGenerationFailureDTO[] failures,
+                      List<PlannedMealDTO> meals, int index, String reason) {
+        PlannedMealDTO meal = meals.get(index);
+        failures[index] = new MealGenerationFailureDTO(meal.date(), meal.slot(), meal.title(), reason);
+        listener.onMealFailed(index, reason);
+    }
+
+    private String reason(Throwable cause) {
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
     }
 
     private MealSlot toSlot(String s) {
@@ -112,7 +397,7 @@ public class MealPlanAiService {
                                              Double servings,
                                              Integer targetKcalPerDay,
                                              Integer mealsPerDay,
-                                             UserInformation ui) {
+                                             PlanningContext ctx) {
 
         Integer kcalPerMeal = null;
         if (targetKcalPerDay != null && mealsPerDay != null && mealsPerDay > 0) {
@@ -126,15 +411,24 @@ public class MealPlanAiService {
             sb.append(" Aim around ").append(kcalPerMeal).append(" kcal total.");
         }
 
-        var prefs = ui.getDietaryPreferences().stream().map(dp -> dp.getName()).toList();
+        var prefs = ctx.dietaryPreferences();
         if (!prefs.isEmpty()) {
             sb.append(" Respect these preferences: ").append(String.join(", ", prefs)).append(".");
         }
 
-        if (ui.getGoal() != null) sb.append(" Goal: ").append(ui.getGoal().name()).append(".");
-        if (ui.getActivityLevel() != null) sb.append(" Activity: ").append(ui.getActivityLevel().name()).append(".");
+        if (ctx.goal() != null) sb.append(" Goal: ").append(ctx.goal()).append(".");
+        if (ctx.activityLevel() != null) sb.append(" Activity: ").append(ctx.activityLevel()).append(".");
 
 
         return sb.toString();
     }
+
+    private record SavedRecipe(Long id, String title, boolean reused) {}
+
+    private record PlanningContext(MealPlan plan,
+                                   MealPlanGenerationRequest request,
+                                   Integer mealsPerDay,
+                                   List<String> dietaryPreferences,
+                                   String goal,
+                                   String activityLevel) {}
 }
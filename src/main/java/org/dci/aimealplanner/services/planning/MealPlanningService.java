@@ -12,8 +12,12 @@ import org.dci.aimealplanner.repositories.planning.MealEntryRepository;
 import org.dci.aimealplanner.repositories.planning.MealPlanRepository;
 import org.dci.aimealplanner.services.recipes.RecipeService;
 import org.dci.aimealplanner.services.users.UserService;
+import org.dci.aimealplanner.services.utils.TextNormalize;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -142,9 +146,11 @@ public class MealPlanningService {
     }
 
 
-    public Page<MealPlan> searchByEmailOrPlanName(String q, Pageable pageable) {
-        String qq = (q == null) ? "" : q.trim();
-        return mealPlanRepository.searchByEmailOrPlanName(qq, pageable);
+    /** Plans with an id below {@code beforeId}, newest first, without counting the matches. */
+    public Slice<MealPlan> searchByEmailOrPlanName(String q, long beforeId, int size) {
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+        if (q == null || q.isBlank()) return mealPlanRepository.findByIdLessThan(beforeId, pageable);
+        return mealPlanRepository.searchByEmailOrPlanName(TextNormalize.likeContains(q), beforeId, pageable);
     }
 
     public MealPlan findById(Long id) {
@@ -0,0 +1,101 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.dci.aimealplanner.models.recipes.MealSlot;
+
+import java.util.*;
+
+/**
+ * Title lookup over one user's AI recipes. Titles are reduced to sorted, singularized
+ * content tokens ("Oatmeal with Berries" and "berry oatmeal" both become "berry oatmeal")
+ * and compared by trigram Dice similarity, using a trigram → recipe inverted index so only
+ * recipes sharing at least one trigram are scored.
+ */
+public final class AiRecipeIndex {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "with", "of", "in", "on", "or", "to", "for", "style", "easy", "quick", "simple");
+
+    public record Match(Long recipeId, String title, double similarity) {}
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Integer>> byTrigram = new HashMap<>();
+
+    private record Entry(Long recipeId, String title, String key, Set<String> trigrams, EnumSet<MealSlot> slots) {}
+
+    public void add(Long recipeId, String title, Collection<MealSlot> slots) {
+        String key = normalizeTitle(title);
+        if (recipeId == null || key.isEmpty()) return;
+
+        Set<String> trigrams = trigrams(key);
+        EnumSet<MealSlot> slotSet = slots.isEmpty() ? EnumSet.noneOf(MealSlot.class) : EnumSet.copyOf(slots);
+        int position = entries.size();
+        entries.add(new Entry(recipeId, title, key, trigrams, slotSet));
+        for (String trigram : trigrams) {
+            byTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(position);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Best recipe whose title is at least {@code minSimilarity} similar and which has been used
+     * for (or is categorized as) {@code slot}. Recipes without any slot information only match
+     * on an identical normalized title. Ties go to the newest recipe.
+     */
+    public Optional<Match> find(String title, MealSlot slot, double minSimilarity) {
+        String key = normalizeTitle(title);
+        if (key.isEmpty()) return Optional.empty();
+
+        Set<String> query = trigrams(key);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : query) {
+            for (int position : byTrigram.getOrDefault(trigram, List.of())) {
+                shared.merge(position, 1, Integer::sum);
+            }
+        }
+
+        Match best = null;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            Entry entry = entries.get(candidate.getKey());
+            boolean sameKey = entry.key().equals(key);
+            if (entry.slots().isEmpty() ? !sameKey : !entry.slots().contains(slot)) continue;
+
+            double similarity = sameKey ? 1.0 : 2.0 * candidate.getValue() / (query.size() + entry.trigrams().size());
+            if (similarity < minSimilarity) continue;
+            if (best == null || similarity > best.similarity()
+                    || (similarity == best.similarity() && entry.recipeId() > best.recipeId())) {
+                best = new Match(entry.recipeId(), entry.title(), similarity);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public static String normalizeTitle(String title) {
+        if (title == null) return "";
+        String[] words = title.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim().split(" ");
+        TreeSet<String> tokens = new TreeSet<>();
+        for (String word : words) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) continue;
+            tokens.add(singular(word));
+        }
+        return String.join(" ", tokens);
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) return word.substring(0, word.length() - 3) + "y";
+        if (word.length() > 4 && (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")))
+            return word.substring(0, word.length() - 2);
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) return word.substring(0, word.length() - 1);
+        return word;
+    }
+
+    private static Set<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
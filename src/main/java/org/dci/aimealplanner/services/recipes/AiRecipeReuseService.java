@@ -0,0 +1,48 @@
+package org.dci.aimealplanner.services.recipes;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.models.recipes.MealSlot;
+import org.dci.aimealplanner.repositories.planning.MealEntryRepository;
+import org.dci.aimealplanner.repositories.planning.RecipeSlotRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeCategoryRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
+import org.dci.aimealplanner.repositories.recipes.RecipeTitleRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class AiRecipeReuseService {
+    private final RecipeRepository recipeRepository;
+    private final MealEntryRepository mealEntryRepository;
+
+    /**
+     * Index of the user's AI recipes. A recipe counts for a slot when it was planned in that
+     * slot before or carries a meal category of the same name.
+     */
+    @Transactional(readOnly = true)
+    public AiRecipeIndex loadIndex(Long userId) {
+        Map<Long, EnumSet<MealSlot>> slots = new HashMap<>();
+        for (RecipeSlotRow row : mealEntryRepository.findAiRecipeSlots(userId)) {
+            slots.computeIfAbsent(row.getRecipeId(), id -> EnumSet.noneOf(MealSlot.class)).add(row.getSlot());
+        }
+        for (RecipeCategoryRow row : recipeRepository.findAiRecipeCategories(userId)) {
+            MealSlot slot = toSlot(row.getName());
+            if (slot != null) slots.computeIfAbsent(row.getRecipeId(), id -> EnumSet.noneOf(MealSlot.class)).add(slot);
+        }
+
+        AiRecipeIndex index = new AiRecipeIndex();
+        for (RecipeTitleRow row : recipeRepository.findAiRecipeTitles(userId)) {
+            index.add(row.getRecipeId(), row.getTitle(), slots.getOrDefault(row.getRecipeId(), EnumSet.noneOf(MealSlot.class)));
+        }
+        return index;
+    }
+
+    private static MealSlot toSlot(String name) {
+        if (name == null) return null;
+        try { return MealSlot.valueOf(name.trim().toUpperCase(Locale.ROOT)); }
+        catch (IllegalArgumentException ex) { return null; }
+    }
+}
@@ -0,0 +1,150 @@
+package org.dci.aimealplanner.services.recipes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.exceptions.AiBudgetExceededException;
+import org.dci.aimealplanner.integration.aiapi.AiUsageContext;
+import org.dci.aimealplanner.integration.aiapi.GroqApiClient;
+import org.dci.aimealplanner.integration.aiapi.RecipeStreamListener;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.IngredientLine;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
+import org.dci.aimealplanner.models.recipes.AiRecipeFieldDTO;
+import org.dci.aimealplanner.models.recipes.AiRecipeStepDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates a recipe from a prompt and pushes it to the browser as Server-Sent Events:
+ * {@code field}, {@code ingredient} and {@code instruction} while the completion streams in,
+ * then {@code done} with the full recipe, or {@code error}.
+ * <p>
+ * A generation is registered by {@link #register} from a CSRF-protected POST and run when its
+ * owner opens the stream. Each job id runs at most once and expires if it is never opened.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiRecipeStreamService {
+    private static final String GENERIC_ERROR = "Sorry, I couldn't generate a recipe. Please try again.";
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(3).toMillis();
+    private static final Duration PENDING_TTL = Duration.ofMinutes(2);
+
+    private final GroqApiClient groqApiClient;
+
+    private final ExecutorService runner = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ai-recipe-stream-", 0).factory());
+
+    private final Map<String, PendingRecipe> pending = new ConcurrentHashMap<>();
+
+    public String register(String prompt, Long userId) {
+        Instant now = Instant.now();
+        pending.values().removeIf(job -> job.createdAt().isBefore(now.minus(PENDING_TTL)));
+        String jobId = UUID.randomUUID().toString();
+        pending.put(jobId, new PendingRecipe(prompt, userId, now));
+        return jobId;
+    }
+
+    /** Starts the registered job; empty when it is unknown, expired, already started or not the user's. */
+    public Optional<SseEmitter> stream(String jobId, Long userId) {
+        PendingRecipe job = pending.get(jobId);
+        if (job == null || !job.userId().equals(userId) || !pending.remove(jobId, job)
+                || job.createdAt().isBefore(Instant.now().minus(PENDING_TTL))) {
+            return Optional.empty();
+        }
+        return Optional.of(start(job.prompt(), userId));
+    }
+
+    private SseEmitter start(String prompt, Long userId) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        EmitterListener listener = new EmitterListener(emitter);
+        emitter.onCompletion(listener::close);
+        emitter.onTimeout(listener::close);
+        emitter.onError(e -> listener.close());
+        runner.submit(() -> run(prompt, userId, listener));
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run(String prompt, Long userId, EmitterListener listener) {
+        try {
+            RecipeFromAI recipe = AiUsageContext.callAs(userId, () -> groqApiClient.streamRecipeFromPrompt(prompt, listener));
+            listener.send("done", recipe);
+        } catch (CancellationException e) {
+            return;
+        } catch (AiBudgetExceededException e) {
+            listener.send("error", Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.warn("Streaming recipe generation failed", e);
+            listener.send("error", Map.of("message", GENERIC_ERROR));
+        }
+        listener.complete();
+    }
+
+    private record PendingRecipe(String prompt, Long userId, Instant createdAt) {
+    }
+
+    private static class EmitterListener implements RecipeStreamListener {
+        private final SseEmitter emitter;
+        private volatile boolean closed;
+
+        EmitterListener(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onField(String name, JsonNode value) {
+            send("field", new AiRecipeFieldDTO(name, value));
+        }
+
+        @Override
+        public void onIngredient(int index, IngredientLine ingredient) {
+            send("ingredient", ingredient);
+        }
+
+        @Override
+        public void onInstruction(int index, String step) {
+            send("instruction", new AiRecipeStepDTO(index, step));
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        void send(String event, Object data) {
+            if (closed) return;
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+            }
+        }
+
+        void complete() {
+            if (closed) return;
+            closed = true;
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.dci.aimealplanner.services.recipes;
+
+import java.math.BigDecimal;
+
+/**
+ * Accumulator for per-serving macros using scaled {@code long} arithmetic.
+ * Amounts are thousandths, grams-per-unit ratios millionths, macros ten-thousandths and
+ * servings hundredths. Every step is exact and applies the same HALF_UP rounding as the
+ * {@code BigDecimal} path, so results are identical whenever all inputs fit these scales.
+ * When an input does not fit or a product overflows, {@link #isExact()} turns false and
+ * the caller must fall back to {@code BigDecimal}.
+ */
+public final class FixedPointNutritionCalculator {
+    public static final long NOT_EXACT = Long.MIN_VALUE;
+    public static final long ABSENT = Long.MIN_VALUE + 1;
+    public static final long GRAM_UNIT = Long.MIN_VALUE + 2;
+
+    public static final int AMOUNT_SCALE = 3;
+    public static final int RATIO_SCALE = 6;
+    public static final int MACRO_SCALE = 4;
+    public static final int SERVINGS_SCALE = 2;
+
+    private static final double[] POW10 = {1d, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+    private static final double MAX_EXACT_INPUT = 1e9;
+    private static final long SERVINGS_DIVISOR = 100_000_000L;
+
+    private long kcal;
+    private long protein;
+    private long carbs;
+    private long fat;
+    private boolean exact = true;
+
+    public void reset() {
+        kcal = protein = carbs = fat = 0L;
+        exact = true;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * @param amountMilli amount in thousandths of the line's unit, must be positive
+     * @param ratioMicro  grams per unit in millionths, or {@link #GRAM_UNIT}
+     */
+    public void addLine(long amountMilli, long ratioMicro,
+                        long kcalE4, long proteinE4, long carbsE4, long fatE4) {
+        if (!exact) return;
+        if (amountMilli == NOT_EXACT || ratioMicro == NOT_EXACT
+                || kcalE4 == NOT_EXACT || proteinE4 == NOT_EXACT || carbsE4 == NOT_EXACT || fatE4 == NOT_EXACT) {
+            exact = false;
+            return;
+        }
+        try {
+            long factorE8 = (ratioMicro == GRAM_UNIT)
+                    ? Math.multiplyExact(amountMilli, 1_000L)
+                    : roundHalfUp(Math.multiplyExact(amountMilli, ratioMicro), 1_000L);
+
+            kcal    = accumulate(kcal, kcalE4, factorE8);
+            protein = accumulate(protein, proteinE4, factorE8);
+            carbs   = accumulate(carbs, carbsE4, factorE8);
+            fat     = accumulate(fat, fatE4, factorE8);
+        } catch (ArithmeticException overflow) {
+            exact = false;
+        }
+    }
+
+    public long kcalPerServingCenti(long servingsCenti)    { return perServing(kcal, servingsCenti); }
+    public long proteinPerServingCenti(long servingsCenti) { return perServing(protein, servingsCenti); }
+    public long carbsPerServingCenti(long servingsCenti)   { return perServing(carbs, servingsCenti); }
+    public long fatPerServingCenti(long servingsCenti)     { return perServing(fat, servingsCenti); }
+
+    public static long toScaled(double value, int scale) {
+        if (Double.isNaN(value)) return ABSENT;
+        if (Double.isInfinite(value) || Math.abs(value) >= MAX_EXACT_INPUT) return NOT_EXACT;
+        double pow = POW10[scale];
+        long scaled = Math.round(value * pow);
+        return (scaled / pow == value) ? scaled : NOT_EXACT;
+    }
+
+    public static long toScaled(BigDecimal value, int scale) {
+        if (value == null) return ABSENT;
+        try {
+            return value.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            return NOT_EXACT;
+        }
+    }
+
+    private long perServing(long totalE12, long servingsCenti) {
+        if (!exact || servingsCenti <= 0) return NOT_EXACT;
+        try {
+            return roundHalfUp(totalE12, Math.multiplyExact(servingsCenti, SERVINGS_DIVISOR));
+        } catch (ArithmeticException overflow) {
+            return NOT_EXACT;
+        }
+    }
+
+    private static long accumulate(long totalE12, long macroE4, long factorE8) {
+        if (macroE4 == ABSENT) return totalE12;
+        return Math.addExact(totalE12, Math.multiplyExact(macroE4, factorE8));
+    }
+
+    static long roundHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (Math.abs(remainder) >= denominator - Math.abs(remainder)) {
+            quotient += (numerator < 0) ? -1 : 1;
+        }
+        return quotient;
+    }
+}
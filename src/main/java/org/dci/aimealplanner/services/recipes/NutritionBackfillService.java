@@ -0,0 +1,171 @@
+package org.dci.aimealplanner.services.recipes;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.entities.recipes.Recipe;
+import org.dci.aimealplanner.models.recipes.NutritionBackfillStatusDTO;
+import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
+import org.dci.aimealplanner.services.ingredients.NutritionDataChangedEvent;
+import org.dci.aimealplanner.services.ingredients.NutritionTable;
+import org.dci.aimealplanner.services.ingredients.NutritionTableService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NutritionBackfillService {
+    private static final int CHUNK_SIZE = 50;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeIngredientIndex recipeIngredientIndex;
+    private final NutritionTableService nutritionTableService;
+    private final RecipeService recipeService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pendingIngredientIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingNutritionFactIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("nutrition-backfill").factory());
+
+    private volatile NutritionBackfillStatusDTO status = NutritionBackfillStatusDTO.idle();
+
+    /**
+     * Runs after commit, before {@link NutritionTableService}'s own after-completion callback, so the
+     * table is marked stale here; otherwise the worker could recompute from the pre-commit snapshot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNutritionDataChanged(NutritionDataChangedEvent event) {
+        nutritionTableService.markStale();
+        if (event.ingredientId() != null) pendingIngredientIds.add(event.ingredientId());
+        if (event.nutritionFactId() != null) pendingNutritionFactIds.add(event.nutritionFactId());
+        if (event.ingredientId() != null || event.nutritionFactId() != null) schedule();
+    }
+
+    public void enqueue(Collection<Long> ingredientIds) {
+        ingredientIds.stream().filter(Objects::nonNull).forEach(pendingIngredientIds::add);
+        schedule();
+    }
+
+    public NutritionBackfillStatusDTO getStatus() {
+        NutritionBackfillStatusDTO current = status;
+        int pending = pendingIngredientIds.size() + pendingNutritionFactIds.size();
+        return new NutritionBackfillStatusDTO(current.state(), pending, current.totalRecipes(),
+                current.processedRecipes(), current.updatedRecipes(), current.failedRecipes(),
+                current.startedAt(), current.finishedAt());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!pendingIngredientIds.isEmpty() || !pendingNutritionFactIds.isEmpty()) {
+                run(takePendingIngredientIds());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Nutrition backfill stopped: {}", e.getMessage());
+        } finally {
+            scheduled.set(false);
+            if ((!pendingIngredientIds.isEmpty() || !pendingNutritionFactIds.isEmpty()) && !worker.isShutdown()) {
+                schedule();
+            }
+        }
+    }
+
+    private Set<Long> takePendingIngredientIds() {
+        Set<Long> ingredientIds = new HashSet<>();
+        drainInto(pendingIngredientIds, ingredientIds);
+
+        Set<Long> nutritionFactIds = new HashSet<>();
+        drainInto(pendingNutritionFactIds, nutritionFactIds);
+        if (!nutritionFactIds.isEmpty()) {
+            NutritionTable table = nutritionTableService.current();
+            for (Long nutritionFactId : nutritionFactIds) {
+                long ingredientId = table.ingredientIdOfNutritionFact(nutritionFactId);
+                if (ingredientId != 0L) ingredientIds.add(ingredientId);
+            }
+        }
+        return ingredientIds;
+    }
+
+    private static void drainInto(Set<Long> source, Set<Long> target) {
+        for (Iterator<Long> it = source.iterator(); it.hasNext(); ) {
+            target.add(it.next());
+            it.remove();
+        }
+    }
+
+    private void run(Set<Long> ingredientIds) {
+        List<Long> recipeIds = new ArrayList<>(recipeIngredientIndex.recipesUsing(ingredientIds));
+        if (recipeIds.isEmpty()) return;
+
+        int processed = 0, updated = 0, failed = 0;
+        LocalDateTime startedAt = LocalDateTime.now();
+        status = new NutritionBackfillStatusDTO("RUNNING", 0, recipeIds.size(), 0, 0, 0, startedAt, null);
+        log.info("Nutrition backfill started: {} ingredient(s), {} recipe(s)", ingredientIds.size(), recipeIds.size());
+
+        for (int from = 0; from < recipeIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = recipeIds.subList(from, Math.min(from + CHUNK_SIZE, recipeIds.size()));
+            try {
+                Integer changed = transactionTemplate.execute(tx -> recomputeChunk(chunk));
+                updated += changed == null ? 0 : changed;
+            } catch (RuntimeException e) {
+                failed += chunk.size();
+                log.warn("Nutrition backfill chunk {}..{} failed: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+            }
+            processed += chunk.size();
+            status = new NutritionBackfillStatusDTO("RUNNING", 0, recipeIds.size(), processed, updated, failed, startedAt, null);
+        }
+
+        status = new NutritionBackfillStatusDTO("IDLE", 0, recipeIds.size(), processed, updated, failed, startedAt, LocalDateTime.now());
+        log.info("Nutrition backfill finished: processed={}, updated={}, failed={}", processed, updated, failed);
+    }
+
+    private int recomputeChunk(List<Long> recipeIds) {
+        int changed = 0;
+        for (Recipe recipe : recipeRepository.findWithIngredientsByIdIn(recipeIds)) {
+            BigDecimal kcal = recipe.getKcalPerServ();
+            BigDecimal protein = recipe.getProteinPerServ();
+            BigDecimal carbs = recipe.getCarbsPerServ();
+            BigDecimal fat = recipe.getFatPerServ();
+
+            recipeService.calculateNutritionFacts(recipe);
+
+            if (!sameValue(kcal, recipe.getKcalPerServ()) || !sameValue(protein, recipe.getProteinPerServ())
+                    || !sameValue(carbs, recipe.getCarbsPerServ()) || !sameValue(fat, recipe.getFatPerServ())) {
+                changed++;
+            } else {
+                recipe.setKcalPerServ(kcal);
+                recipe.setProteinPerServ(protein);
+                recipe.setCarbsPerServ(carbs);
+                recipe.setFatPerServ(fat);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) return a == b;
+        return a.compareTo(b) == 0;
+    }
+}
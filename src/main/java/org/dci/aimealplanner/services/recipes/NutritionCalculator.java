@@ -0,0 +1,128 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
+import org.dci.aimealplanner.services.ingredients.NutritionTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.dci.aimealplanner.services.recipes.FixedPointNutritionCalculator.*;
+
+public final class NutritionCalculator {
+    private static final ThreadLocal<FixedPointNutritionCalculator> FIXED_POINT =
+            ThreadLocal.withInitial(FixedPointNutritionCalculator::new);
+
+    private NutritionCalculator() {}
+
+    public record PerServing(BigDecimal kcal, BigDecimal protein, BigDecimal carbs, BigDecimal fat) {}
+
+    public static PerServing calculate(NutritionTable table, List<RecipeIngredient> lines, BigDecimal servings) {
+        PerServing result = fixedPoint(table, lines, servings);
+        return result != null ? result : decimal(table, lines, servings);
+    }
+
+    /**
+     * Scaled-long fast path. Returns {@code null} when any input cannot be represented
+     * exactly, in which case {@link #decimal} must be used.
+     */
+    public static PerServing fixedPoint(NutritionTable table, List<RecipeIngredient> lines, BigDecimal servings) {
+        long servingsCenti = toScaled(effectiveServings(servings), SERVINGS_SCALE);
+        if (servingsCenti == NOT_EXACT) return null;
+
+        FixedPointNutritionCalculator calculator = FIXED_POINT.get();
+        calculator.reset();
+
+        for (int i = 0, n = lines.size(); i < n; i++) {
+            RecipeIngredient line = lines.get(i);
+            int idx = indexOfUsableLine(table, line);
+            if (idx < 0) continue;
+
+            long unitId = line.getUnit().getId();
+            long ratioMicro;
+            if (table.isGramUnit(unitId)) {
+                ratioMicro = GRAM_UNIT;
+            } else {
+                double ratio = table.gramsPerUnit(idx, unitId);
+                if (Double.isNaN(ratio) || ratio <= 0) continue;
+                ratioMicro = toScaled(ratio, RATIO_SCALE);
+            }
+
+            calculator.addLine(
+                    toScaled(line.getAmount(), AMOUNT_SCALE),
+                    ratioMicro,
+                    toScaled(table.kcal(idx), MACRO_SCALE),
+                    toScaled(table.protein(idx), MACRO_SCALE),
+                    toScaled(table.carbs(idx), MACRO_SCALE),
+                    toScaled(table.fat(idx), MACRO_SCALE));
+            if (!calculator.isExact()) return null;
+        }
+
+        long kcal = calculator.kcalPerServingCenti(servingsCenti);
+        long protein = calculator.proteinPerServingCenti(servingsCenti);
+        long carbs = calculator.carbsPerServingCenti(servingsCenti);
+        long fat = calculator.fatPerServingCenti(servingsCenti);
+        if (kcal == NOT_EXACT || protein == NOT_EXACT || carbs == NOT_EXACT || fat == NOT_EXACT) return null;
+
+        return new PerServing(
+                BigDecimal.valueOf(kcal, 2),
+                BigDecimal.valueOf(protein, 2),
+                BigDecimal.valueOf(carbs, 2),
+                BigDecimal.valueOf(fat, 2));
+    }
+
+    public static PerServing decimal(NutritionTable table, List<RecipeIngredient> lines, BigDecimal servings) {
+        BigDecimal totalKcal   = BigDecimal.ZERO;
+        BigDecimal totalCarbs  = BigDecimal.ZERO;
+        BigDecimal totalFat    = BigDecimal.ZERO;
+        BigDecimal totalProtein= BigDecimal.ZERO;
+
+        for (RecipeIngredient line : lines) {
+            int idx = indexOfUsableLine(table, line);
+            if (idx < 0) continue;
+
+            long unitId = line.getUnit().getId();
+            BigDecimal gramsForLine;
+            if (table.isGramUnit(unitId)) {
+                gramsForLine = line.getAmount();
+            } else {
+                double ratio = table.gramsPerUnit(idx, unitId);
+                if (Double.isNaN(ratio) || ratio <= 0) continue;
+                gramsForLine = line.getAmount().multiply(BigDecimal.valueOf(ratio));
+            }
+
+            if (gramsForLine.compareTo(BigDecimal.ZERO) <= 0) continue;
+
+            BigDecimal factor = gramsForLine.divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP);
+
+            if (!Double.isNaN(table.kcal(idx)))    totalKcal    = totalKcal   .add(BigDecimal.valueOf(table.kcal(idx)   ).multiply(factor));
+            if (!Double.isNaN(table.protein(idx))) totalProtein = totalProtein.add(BigDecimal.valueOf(table.protein(idx)).multiply(factor));
+            if (!Double.isNaN(table.carbs(idx)))   totalCarbs   = totalCarbs  .add(BigDecimal.valueOf(table.carbs(idx)  ).multiply(factor));
+            if (!Double.isNaN(table.fat(idx)))     totalFat     = totalFat    .add(BigDecimal.valueOf(table.fat(idx)    ).multiply(factor));
+        }
+
+        BigDecimal effectiveServings = effectiveServings(servings);
+
+        return new PerServing(
+                totalKcal   .divide(effectiveServings, 2, RoundingMode.HALF_UP),
+                totalProtein.divide(effectiveServings, 2, RoundingMode.HALF_UP),
+                totalCarbs  .divide(effectiveServings, 2, RoundingMode.HALF_UP),
+                totalFat    .divide(effectiveServings, 2, RoundingMode.HALF_UP));
+    }
+
+    private static int indexOfUsableLine(NutritionTable table, RecipeIngredient line) {
+        if (line == null || line.getIngredient() == null || line.getUnit() == null || line.getAmount() == null) return -1;
+        if (line.getAmount().signum() <= 0) return -1;
+
+        Long ingredientId = line.getIngredient().getId();
+        Long unitId = line.getUnit().getId();
+        if (ingredientId == null || unitId == null) return -1;
+
+        int idx = table.indexOf(ingredientId);
+        return (idx >= 0 && table.hasNutrition(idx)) ? idx : -1;
+    }
+
+    private static BigDecimal effectiveServings(BigDecimal servings) {
+        return (servings == null || servings.compareTo(BigDecimal.ZERO) <= 0) ? BigDecimal.ONE : servings;
+    }
+}
@@ -0,0 +1,22 @@
+package org.dci.aimealplanner.services.recipes;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.entities.recipes.Recipe;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RecipeChangeListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Recipe recipe) {
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId()));
+    }
+}
@@ -0,0 +1,59 @@
+package org.dci.aimealplanner.services.recipes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the recipes whose row or ingredient lines change in a transaction and publishes them
+ * as one {@link RecipesChangedEvent} after it commits, so indexes over recipes are updated once
+ * per transaction instead of once per saved row.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeChangeTracker {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        track(event.recipeId());
+    }
+
+    @EventListener
+    public void onRecipeIngredientChanged(RecipeIngredientChangedEvent event) {
+        track(event.recipeId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void track(Long recipeId) {
+        if (recipeId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new RecipesChangedEvent(Set.of(recipeId)));
+            return;
+        }
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> collected = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(new RecipesChangedEvent(Set.copyOf(collected)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RecipeChangeTracker.this);
+                }
+            });
+            pending = collected;
+        }
+        pending.add(recipeId);
+    }
+}
@@ -0,0 +1,4 @@
+package org.dci.aimealplanner.services.recipes;
+
+public record RecipeChangedEvent(Long recipeId) {
+}
@@ -0,0 +1,319 @@
+package org.dci.aimealplanner.services.recipes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.models.Difficulty;
+import org.dci.aimealplanner.models.SourceType;
+import org.dci.aimealplanner.repositories.recipes.IngredientRecipeRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeCategoryIdRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeFilterRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeIngredientRepository;
+import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for the recipe list filters. Ingredient and meal category ids map to
+ * {@link RecipeIdBitmap}s of recipe ids, so "contains all of these" is a bitmap AND; source type,
+ * difficulty, preparation time and title order are kept per recipe, so the slice of ids to show
+ * is chosen here, seeking from a {@link PageCursor} without counting, and only that slice is loaded
+ * from the database. Recipes in a {@link RecipesChangedEvent} are reloaded after their transaction
+ * commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeFilterIndex {
+    private static final Comparator<Entry> TITLE_ORDER = Comparator
+            .comparing(Entry::titleKey, PageCursor::compareTitleKeys)
+            .thenComparingInt(Entry::id);
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RecipeIdBitmap> byIngredient = new HashMap<>();
+    private final Map<Long, RecipeIdBitmap> byCategory = new HashMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private int[] titleOrder;
+    private Map<Integer, Integer> titlePosition;
+    private volatile boolean loaded;
+    private boolean loading;
+
+    /** Empty sets and {@code null} values do not filter, as in {@code RecipeSpecification}. */
+    public record Filter(Set<Long> ingredientIds, Set<Long> categoryIds, Integer maxPreparationTime,
+                         Difficulty difficulty, SourceType sourceType) {}
+
+    /** {@code titleKey} is the {@link PageCursor#titleKey} of the title. */
+    private record Entry(int id, String titleKey, int preparationTime, Difficulty difficulty, SourceType sourceType,
+                         long[] ingredientIds, long[] categoryIds) {}
+
+    /**
+     * Ids of the next {@code size} recipes after {@code cursor}, in title order or, when
+     * {@code rankedIds} is given, in that order restricted to its ids; empty when the index cannot be used.
+     */
+    public Optional<Slice<Long>> slice(Filter filter, List<Long> rankedIds, PageCursor cursor, int size) {
+        if (!ensureLoaded()) return Optional.empty();
+
+        lock.readLock().lock();
+        try {
+            if (!loaded) return Optional.empty();
+            while (rankedIds == null && titleOrder == null) {
+                lock.readLock().unlock();
+                try {
+                    buildTitleOrder();
+                } finally {
+                    lock.readLock().lock();
+                }
+            }
+            Pageable pageable = PageRequest.ofSize(size);
+            RecipeIdBitmap candidates = candidates(filter);
+            if (candidates != null && candidates.isEmpty()) {
+                return Optional.of(new SliceImpl<>(List.of(), pageable, false));
+            }
+
+            List<Long> ids = new ArrayList<>(size + 1);
+            PrimitiveIterator.OfInt order = rankedIds != null
+                    ? rankedAfter(rankedIds, cursor).stream()
+                        .filter(id -> id <= Integer.MAX_VALUE).mapToInt(Long::intValue).iterator()
+                    : candidates != null && candidates.cardinality() < entries.size() / 8
+                    ? inTitleOrder(candidates, cursor)
+                    : titleOrderAfter(cursor);
+            while (order.hasNext() && ids.size() <= size) {
+                int id = order.nextInt();
+                if (candidates != null && !candidates.contains(id)) continue;
+                Entry entry = entries.get(id);
+                if (entry != null && matches(entry, filter)) ids.add((long) id);
+            }
+            boolean hasNext = ids.size() > size;
+            return Optional.of(new SliceImpl<>(hasNext ? List.copyOf(ids.subList(0, size)) : ids, pageable, hasNext));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The ranked ids after the cursor's id; none once that recipe has dropped out of the ranking. */
+    static List<Long> rankedAfter(List<Long> rankedIds, PageCursor cursor) {
+        if (cursor == null) return rankedIds;
+        int position = rankedIds.indexOf(cursor.id());
+        return position < 0 ? List.of() : rankedIds.subList(position + 1, rankedIds.size());
+    }
+
+    @EventListener
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        synchronized (this) {
+            if (loading) {
+                changedWhileLoading.addAll(event.recipeIds());
+                return;
+            }
+        }
+        if (!loaded) return;
+        try {
+            reload(event.recipeIds());
+        } catch (RuntimeException e) {
+            log.warn("Recipe filter index could not reload recipes {}, rebuilding on next use: {}",
+                    event.recipeIds(), e.getMessage());
+            clear();
+        }
+    }
+
+    private RecipeIdBitmap candidates(Filter filter) {
+        List<RecipeIdBitmap> bitmaps = new ArrayList<>();
+        if (!collect(byIngredient, filter.ingredientIds(), bitmaps)) return new RecipeIdBitmap();
+        if (!collect(byCategory, filter.categoryIds(), bitmaps)) return new RecipeIdBitmap();
+        return bitmaps.isEmpty() ? null : RecipeIdBitmap.and(bitmaps);
+    }
+
+    private static boolean collect(Map<Long, RecipeIdBitmap> index, Set<Long> ids, List<RecipeIdBitmap> bitmaps) {
+        if (ids == null) return true;
+        for (Long id : ids) {
+            RecipeIdBitmap bitmap = index.get(id);
+            if (bitmap == null) return false;
+            bitmaps.add(bitmap);
+        }
+        return true;
+    }
+
+    private static boolean matches(Entry entry, Filter filter) {
+        if (filter.sourceType() != null && entry.sourceType() != filter.sourceType()) return false;
+        if (filter.difficulty() != null && entry.difficulty() != filter.difficulty()) return false;
+        Integer max = filter.maxPreparationTime();
+        return max == null || max < 0 || entry.preparationTime() <= max;
+    }
+
+    private PrimitiveIterator.OfInt inTitleOrder(RecipeIdBitmap candidates, PageCursor cursor) {
+        List<int[]> positioned = new ArrayList<>(candidates.cardinality());
+        candidates.forEach(id -> {
+            Integer position = titlePosition.get(id);
+            if (position != null && (cursor == null || compareToCursor(entries.get(id), cursor) > 0)) {
+                positioned.add(new int[]{position, id});
+            }
+        });
+        positioned.sort(Comparator.comparingInt(p -> p[0]));
+        return positioned.stream().mapToInt(p -> p[1]).iterator();
+    }
+
+    private PrimitiveIterator.OfInt titleOrderAfter(PageCursor cursor) {
+        int low = 0;
+        int high = titleOrder.length;
+        while (cursor != null && low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToCursor(entries.get(titleOrder[mid]), cursor) <= 0) low = mid + 1;
+            else high = mid;
+        }
+        return Arrays.stream(titleOrder, low, titleOrder.length).iterator();
+    }
+
+    private static int compareToCursor(Entry entry, PageCursor cursor) {
+        int byTitle = PageCursor.compareTitleKeys(entry.titleKey(), PageCursor.titleKey(cursor.title()));
+        return byTitle != 0 ? byTitle : Long.compare(entry.id(), cursor.id());
+    }
+
+    private void buildTitleOrder() {
+        lock.writeLock().lock();
+        try {
+            if (titleOrder != null) return;
+            int[] order = entries.values().stream().sorted(TITLE_ORDER).mapToInt(Entry::id).toArray();
+            Map<Integer, Integer> positions = new HashMap<>(order.length * 2);
+            for (int i = 0; i < order.length; i++) positions.put(order[i], i);
+            titlePosition = positions;
+            titleOrder = order;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean ensureLoaded() {
+        if (loaded) return true;
+        synchronized (this) {
+            if (loaded) return true;
+            loading = true;
+        }
+        try {
+            List<Entry> all = read(recipeRepository.findAllFilterRows(),
+                    recipeIngredientRepository.findAllIngredientRecipePairs(),
+                    recipeRepository.findAllRecipeCategoryIds());
+            lock.writeLock().lock();
+            try {
+                all.forEach(this::put);
+                titleOrder = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Recipe filter index loaded with {} recipes", all.size());
+        } catch (RuntimeException e) {
+            clear();
+            log.warn("Recipe filter index not available, filtering in the database: {}", e.getMessage());
+            synchronized (this) {
+                loading = false;
+                changedWhileLoading.clear();
+            }
+            return false;
+        }
+        Set<Long> changed;
+        synchronized (this) {
+            changed = Set.copyOf(changedWhileLoading);
+            changedWhileLoading.clear();
+            loading = false;
+            loaded = true;
+        }
+        if (!changed.isEmpty()) reload(changed);
+        return true;
+    }
+
+    private void reload(Set<Long> recipeIds) {
+        List<Long> ids = recipeIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) return;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        List<Entry> current = transaction.execute(tx -> read(recipeRepository.findFilterRowsByIdIn(ids),
+                recipeIngredientRepository.findIngredientRecipePairsByRecipeIdIn(ids),
+                recipeRepository.findRecipeCategoryIdsByIdIn(ids)));
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) removeEntry(Math.toIntExact(id));
+            current.forEach(this::put);
+            titleOrder = null;
+            titlePosition = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            entries.clear();
+            byIngredient.clear();
+            byCategory.clear();
+            titleOrder = null;
+            titlePosition = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Entry> read(List<RecipeFilterRow> rows, List<IngredientRecipeRow> ingredients,
+                                    List<RecipeCategoryIdRow> categories) {
+        Map<Long, List<Long>> ingredientIds = new HashMap<>();
+        for (IngredientRecipeRow row : ingredients) {
+            ingredientIds.computeIfAbsent(row.getRecipeId(), k -> new ArrayList<>()).add(row.getIngredientId());
+        }
+        Map<Long, List<Long>> categoryIds = new HashMap<>();
+        for (RecipeCategoryIdRow row : categories) {
+            categoryIds.computeIfAbsent(row.getRecipeId(), k -> new ArrayList<>()).add(row.getCategoryId());
+        }
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (RecipeFilterRow row : rows) {
+            entries.add(new Entry(Math.toIntExact(row.getRecipeId()),
+                    PageCursor.titleKey(row.getTitle()),
+                    row.getPreparationTimeMinutes() == null ? 0 : row.getPreparationTimeMinutes(),
+                    row.getDifficulty(), row.getSourceType(),
+                    toArray(ingredientIds.get(row.getRecipeId())), toArray(categoryIds.get(row.getRecipeId()))));
+        }
+        return entries;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids == null ? new long[0] : ids.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.id(), entry);
+        for (long ingredientId : entry.ingredientIds()) {
+            byIngredient.computeIfAbsent(ingredientId, k -> new RecipeIdBitmap()).add(entry.id());
+        }
+        for (long categoryId : entry.categoryIds()) {
+            byCategory.computeIfAbsent(categoryId, k -> new RecipeIdBitmap()).add(entry.id());
+        }
+    }
+
+    private void removeEntry(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (long ingredientId : entry.ingredientIds()) remove(byIngredient, ingredientId, id);
+        for (long categoryId : entry.categoryIds()) remove(byCategory, categoryId, id);
+    }
+
+    private static void remove(Map<Long, RecipeIdBitmap> index, long key, int id) {
+        RecipeIdBitmap bitmap = index.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) index.remove(key);
+    }
+}
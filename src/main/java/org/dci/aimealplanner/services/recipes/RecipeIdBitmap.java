@@ -0,0 +1,217 @@
+package org.dci.aimealplanner.services.recipes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative int ids in the layout of a Roaring bitmap: ids are split by
+ * their upper 16 bits into chunks, and each chunk holds its lower 16 bits either as a sorted
+ * {@code char[]} while it has at most {@value #ARRAY_MAX} ids or as a 65536-bit {@code long[]}
+ * once it has more. Not thread-safe.
+ */
+final class RecipeIdBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[0];
+    private Object[] chunks = new Object[0];
+    private int[] counts = new int[0];
+    private int size;
+
+    int cardinality() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int id) {
+        int k = Arrays.binarySearch(keys, high(id));
+        return k >= 0 && contains(chunks[k], counts[k], low(id));
+    }
+
+    boolean add(int id) {
+        checkId(id);
+        int k = Arrays.binarySearch(keys, high(id));
+        if (k < 0) {
+            k = -k - 1;
+            insertChunk(k, high(id), new char[4], 0);
+        }
+        char low = low(id);
+        if (chunks[k] instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) return false;
+            words[low >>> 6] |= bit;
+        } else {
+            char[] values = (char[]) chunks[k];
+            int n = counts[k];
+            int i = Arrays.binarySearch(values, 0, n, low);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (n == ARRAY_MAX) {
+                long[] words = toWords(values, n);
+                words[low >>> 6] |= 1L << low;
+                chunks[k] = words;
+            } else {
+                if (n == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, n * 2));
+                System.arraycopy(values, i, values, i + 1, n - i);
+                values[i] = low;
+                chunks[k] = values;
+            }
+        }
+        counts[k]++;
+        size++;
+        return true;
+    }
+
+    boolean remove(int id) {
+        int k = Arrays.binarySearch(keys, high(id));
+        if (k < 0) return false;
+        char low = low(id);
+        if (chunks[k] instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return false;
+            words[low >>> 6] &= ~bit;
+            if (counts[k] - 1 == ARRAY_MAX) chunks[k] = toValues(words, ARRAY_MAX);
+        } else {
+            char[] values = (char[]) chunks[k];
+            int n = counts[k];
+            int i = Arrays.binarySearch(values, 0, n, low);
+            if (i < 0) return false;
+            System.arraycopy(values, i + 1, values, i, n - i - 1);
+        }
+        size--;
+        if (--counts[k] == 0) removeChunk(k);
+        return true;
+    }
+
+    /** Ids in ascending order. */
+    void forEach(IntConsumer action) {
+        for (int k = 0; k < keys.length; k++) {
+            int base = keys[k] << 16;
+            if (chunks[k] instanceof long[] words) {
+                for (int w = 0; w < WORDS; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        action.accept(base | (w << 6) + Long.numberOfTrailingZeros(word));
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunks[k];
+                for (int i = 0; i < counts[k]; i++) action.accept(base | values[i]);
+            }
+        }
+    }
+
+    /** Ids present in every bitmap; the smallest one is scanned, the others probed per chunk. */
+    static RecipeIdBitmap and(List<RecipeIdBitmap> bitmaps) {
+        RecipeIdBitmap result = new RecipeIdBitmap();
+        if (bitmaps.isEmpty()) return result;
+        RecipeIdBitmap smallest = bitmaps.getFirst();
+        for (RecipeIdBitmap bitmap : bitmaps) {
+            if (bitmap.size < smallest.size) smallest = bitmap;
+        }
+        chunks:
+        for (int k = 0; k < smallest.keys.length; k++) {
+            char key = smallest.keys[k];
+            Object chunk = smallest.chunks[k];
+            int count = smallest.counts[k];
+            for (RecipeIdBitmap other : bitmaps) {
+                if (other == smallest) continue;
+                int o = Arrays.binarySearch(other.keys, key);
+                if (o < 0) continue chunks;
+                Object[] intersected = intersect(chunk, count, other.chunks[o], other.counts[o]);
+                chunk = intersected[0];
+                count = (int) intersected[1];
+                if (count == 0) continue chunks;
+            }
+            result.insertChunk(result.keys.length, key,
+                    chunk == smallest.chunks[k] ? copy(chunk) : chunk, count);
+            result.size += count;
+        }
+        return result;
+    }
+
+    private static Object[] intersect(Object a, int countA, Object b, int countB) {
+        if (a instanceof long[] wa && b instanceof long[] wb) {
+            long[] words = new long[WORDS];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] = wa[w] & wb[w];
+                count += Long.bitCount(words[w]);
+            }
+            return new Object[]{count <= ARRAY_MAX ? toValues(words, count) : words, count};
+        }
+        if (a instanceof long[]) return intersect(b, countB, a, countA);
+
+        char[] values = (char[]) a;
+        char[] out = new char[countA];
+        int count = 0;
+        for (int i = 0; i < countA; i++) {
+            if (contains(b, countB, values[i])) out[count++] = values[i];
+        }
+        return new Object[]{out, count};
+    }
+
+    private static boolean contains(Object chunk, int count, char low) {
+        if (chunk instanceof long[] words) return (words[low >>> 6] & (1L << low)) != 0;
+        return Arrays.binarySearch((char[]) chunk, 0, count, low) >= 0;
+    }
+
+    private static long[] toWords(char[] values, int n) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < n; i++) words[values[i] >>> 6] |= 1L << values[i];
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int count) {
+        char[] values = new char[Math.max(4, count)];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+        return values;
+    }
+
+    private static Object copy(Object chunk) {
+        return chunk instanceof long[] words ? words.clone() : ((char[]) chunk).clone();
+    }
+
+    private void insertChunk(int k, char key, Object chunk, int count) {
+        int n = keys.length;
+        keys = Arrays.copyOf(keys, n + 1);
+        chunks = Arrays.copyOf(chunks, n + 1);
+        counts = Arrays.copyOf(counts, n + 1);
+        System.arraycopy(keys, k, keys, k + 1, n - k);
+        System.arraycopy(chunks, k, chunks, k + 1, n - k);
+        System.arraycopy(counts, k, counts, k + 1, n - k);
+        keys[k] = key;
+        chunks[k] = chunk;
+        counts[k] = count;
+    }
+
+    private void removeChunk(int k) {
+        int n = keys.length;
+        System.arraycopy(keys, k + 1, keys, k, n - k - 1);
+        System.arraycopy(chunks, k + 1, chunks, k, n - k - 1);
+        System.arraycopy(counts, k + 1, counts, k, n - k - 1);
+        keys = Arrays.copyOf(keys, n - 1);
+        chunks = Arrays.copyOf(chunks, n - 1);
+        counts = Arrays.copyOf(counts, n - 1);
+    }
+
+    private static char high(int id) {
+        return (char) (id >>> 16);
+    }
+
+    private static char low(int id) {
+        return (char) id;
+    }
+
+    private static void checkId(int id) {
+        if (id < 0) throw new IllegalArgumentException("Negative id " + id);
+    }
+}
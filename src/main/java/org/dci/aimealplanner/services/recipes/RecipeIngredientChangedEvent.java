@@ -0,0 +1,4 @@
+package org.dci.aimealplanner.services.recipes;
+
+public record RecipeIngredientChangedEvent(Long ingredientId, Long recipeId, boolean removed) {
+}
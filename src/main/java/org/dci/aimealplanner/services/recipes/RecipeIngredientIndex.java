@@ -0,0 +1,80 @@
+package org.dci.aimealplanner.services.recipes;
+
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.repositories.recipes.IngredientRecipeRow;
+import org.dci.aimealplanner.repositories.recipes.RecipeIngredientRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which recipes use each ingredient, kept in memory. A recipe can list the same ingredient on
+ * several lines, so the index counts lines per recipe and only drops the recipe when its last
+ * line with the ingredient is gone; link and unlink events may therefore arrive in any order.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeIngredientIndex {
+    private final RecipeIngredientRepository recipeIngredientRepository;
+
+    private final Map<Long, Map<Long, Integer>> recipesByIngredient = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public Set<Long> recipesUsing(Collection<Long> ingredientIds) {
+        ensureLoaded();
+        Set<Long> recipeIds = new TreeSet<>();
+        for (Long ingredientId : ingredientIds) {
+            Map<Long, Integer> lines = recipesByIngredient.get(ingredientId);
+            if (lines != null) recipeIds.addAll(lines.keySet());
+        }
+        return recipeIds;
+    }
+
+    public void link(Long ingredientId, Long recipeId) {
+        if (!loaded || ingredientId == null || recipeId == null) return;
+        add(ingredientId, recipeId, 1);
+    }
+
+    public void unlink(Long ingredientId, Long recipeId) {
+        if (!loaded || ingredientId == null || recipeId == null) return;
+        add(ingredientId, recipeId, -1);
+    }
+
+    private void add(Long ingredientId, Long recipeId, int delta) {
+        recipesByIngredient.compute(ingredientId, (k, lines) -> {
+            if (lines == null) lines = new ConcurrentHashMap<>();
+            lines.compute(recipeId, (id, count) -> {
+                int next = (count == null ? 0 : count) + delta;
+                return next <= 0 ? null : next;
+            });
+            return lines.isEmpty() ? null : lines;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeIngredientChanged(RecipeIngredientChangedEvent event) {
+        if (event.removed()) {
+            unlink(event.ingredientId(), event.recipeId());
+        } else {
+            link(event.ingredientId(), event.recipeId());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            for (IngredientRecipeRow row : recipeIngredientRepository.findAllIngredientRecipePairs()) {
+                if (row.getIngredientId() != null && row.getRecipeId() != null) {
+                    add(row.getIngredientId(), row.getRecipeId(), 1);
+                }
+            }
+            loaded = true;
+        }
+    }
+}
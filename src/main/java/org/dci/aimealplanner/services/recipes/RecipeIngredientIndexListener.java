@@ -0,0 +1,56 @@
+package org.dci.aimealplanner.services.recipes;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class RecipeIngredientIndexListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(RecipeIngredient line) {
+        line.setSavedIngredientId(ingredientId(line));
+    }
+
+    @PostPersist
+    public void onPersist(RecipeIngredient line) {
+        Long current = ingredientId(line);
+        publish(current, line, false);
+        line.setSavedIngredientId(current);
+    }
+
+    /** Each line is counted once per ingredient, so an update only matters when the ingredient changed. */
+    @PostUpdate
+    public void onUpdate(RecipeIngredient line) {
+        Long previous = line.getSavedIngredientId();
+        Long current = ingredientId(line);
+        if (Objects.equals(previous, current)) return;
+        if (previous != null) publish(previous, line, true);
+        publish(current, line, false);
+        line.setSavedIngredientId(current);
+    }
+
+    @PostRemove
+    public void onRemove(RecipeIngredient line) {
+        Long previous = line.getSavedIngredientId();
+        publish(previous != null ? previous : ingredientId(line), line, true);
+    }
+
+    private static Long ingredientId(RecipeIngredient line) {
+        return line.getIngredient() != null ? line.getIngredient().getId() : null;
+    }
+
+    private void publish(Long ingredientId, RecipeIngredient line, boolean removed) {
+        Long recipeId = line.getRecipe() != null ? line.getRecipe().getId() : null;
+        eventPublisher.publishEvent(new RecipeIngredientChangedEvent(ingredientId, recipeId, removed));
+    }
+}
@@ -0,0 +1,71 @@
+package org.dci.aimealplanner.services.recipes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dci.aimealplanner.services.ingredients.IngredientNameChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Keeps the full-text documents in {@code recipe_search} current: documents are rebuilt for the
+ * recipes in each {@link RecipesChangedEvent} and for recipes using a renamed ingredient; deleted
+ * recipes lose theirs through the foreign key.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeSearchIndexer {
+    private static final String REFRESH = """
+            INSERT INTO recipe_search (recipe_id, document)
+            SELECT r.id,
+                   setweight(to_tsvector('english', coalesce(r.title, '')), 'A')
+                       || setweight(to_tsvector('english', coalesce(
+                              (SELECT string_agg(i.name, ' ')
+                                 FROM recipe_ingredients ri JOIN ingredients i ON i.id = ri.ingredient_id
+                                WHERE ri.recipe_id = r.id), '')), 'B')
+                       || setweight(to_tsvector('english', coalesce(r.instructions, '')), 'C')
+              FROM recipe r
+             WHERE r.id = ?
+                ON CONFLICT (recipe_id) DO UPDATE SET document = EXCLUDED.document, updated_at = now()""";
+    private static final String LEARN_WORDS = """
+            INSERT INTO recipe_search_words (word)
+            SELECT unnest(tsvector_to_array(document)) FROM recipe_search WHERE recipe_id = ?
+                ON CONFLICT (word) DO NOTHING""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final RecipeIngredientIndex recipeIngredientIndex;
+
+    @EventListener
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        refresh(event.recipeIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientNameChanged(IngredientNameChangedEvent event) {
+        if (event.removed() || event.ingredientId() == null) return;
+        refresh(recipeIngredientIndex.recipesUsing(List.of(event.ingredientId())));
+    }
+
+    public void refresh(Collection<Long> recipeIds) {
+        List<Object[]> args = recipeIds.stream().filter(Objects::nonNull).map(id -> new Object[]{id}).toList();
+        if (args.isEmpty()) return;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(tx -> {
+                jdbcTemplate.batchUpdate(REFRESH, args);
+                jdbcTemplate.batchUpdate(LEARN_WORDS, args);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh search documents of recipes {}: {}", recipeIds, e.getMessage());
+        }
+    }
+}
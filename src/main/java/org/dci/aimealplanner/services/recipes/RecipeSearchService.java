@@ -4,23 +4,84 @@ import lombok.RequiredArgsConstructor;
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
+/**
+ * Ranked full-text search over the documents kept by {@link RecipeSearchIndexer}. Every query word
+ * has to match, as a prefix of a word in the recipe or, when no recipe contains the word itself,
+ * as one of the closest words recipes do contain, so small typos still find results. Stopwords
+ * are left out, since no recipe document contains them.
+ */
 @Service
 @RequiredArgsConstructor
 public class RecipeSearchService {
+    private static final int MAX_WORDS = 8;
+    private static final int MAX_RANKED_IDS = 10_000;
+    private static final String EXPAND = """
+            SELECT to_tsquery('english', quote_literal(t.token) || ':*')::text AS prefix,
+                   CASE WHEN EXISTS (SELECT 1 FROM recipe_search_words w
+                                      WHERE w.word = ANY (tsvector_to_array(to_tsvector('english', t.token))))
+                        THEN ARRAY[]::text[]
+                        ELSE ARRAY(SELECT w.word FROM recipe_search_words w
+                                    WHERE w.word % t.token ORDER BY w.word <-> t.token LIMIT 3)
+                   END AS similar
+              FROM unnest(string_to_array(?, ' ')) WITH ORDINALITY AS t(token, position)
+             WHERE numnode(plainto_tsquery('english', t.token)) > 0
+             ORDER BY t.position""";
+
     private final RecipeRepository recipeRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     public Page<Recipe> searchForPlanner(String q, Long userId, int size) {
         String term = (q == null) ? "" : q.trim();
         if (term.length() < 2) {
             return Page.empty();
         }
-        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(size, 50)),
-                Sort.by(Sort.Direction.ASC, "title"));
-        return recipeRepository.searchForPlanner(term, userId, pageable);
+        String query = fullTextQuery(term);
+        if (query == null) {
+            return Page.empty();
+        }
+        return new PageImpl<>(recipeRepository.searchForPlanner(query, userId,
+                PageRequest.of(0, Math.max(1, Math.min(size, 50)))));
+    }
+
+    /** Ids of the {@value #MAX_RANKED_IDS} recipes matching {@code query} best, most relevant first. */
+    public List<Long> rankedRecipeIds(String query) {
+        return recipeRepository.findRankedIdsByFullText(query, PageRequest.of(0, MAX_RANKED_IDS));
+    }
+
+    /** {@code tsquery} text for {@code text}, or {@code null} when it has no searchable words. */
+    public String fullTextQuery(String text) {
+        List<String> words = words(text);
+        if (words.isEmpty()) return null;
+
+        List<String> terms = jdbcTemplate.query(EXPAND, (rs, rowNum) -> {
+            List<String> alternatives = new ArrayList<>();
+            String prefix = rs.getString("prefix");
+            if (prefix != null && !prefix.isBlank()) alternatives.add(prefix);
+            for (String word : (String[]) rs.getArray("similar").getArray()) alternatives.add(lexeme(word));
+            return alternatives.isEmpty() ? null : "(" + String.join(" | ", alternatives) + ")";
+        }, String.join(" ", words));
+
+        return terms.stream().filter(Objects::nonNull).reduce((a, b) -> a + " & " + b).orElse(null);
+    }
+
+    static List<String> words(String text) {
+        if (text == null) return List.of();
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 2) words.add(word);
+            if (words.size() == MAX_WORDS) break;
+        }
+        return List.copyOf(words);
+    }
+
+    private static String lexeme(String word) {
+        return "'" + word.replace("\\", "\\\\").replace("'", "''") + "'";
     }
 }
@@ -3,14 +3,14 @@ package org.dci.aimealplanner.services.recipes;
 import lombok.RequiredArgsConstructor;
 import org.dci.aimealplanner.entities.recipes.ImageMetaData;
 import org.dci.aimealplanner.entities.ingredients.Ingredient;
-import org.dci.aimealplanner.entities.ingredients.IngredientUnitRatio;
-import org.dci.aimealplanner.entities.ingredients.NutritionFact;
 import org.dci.aimealplanner.entities.ingredients.Unit;
 import org.dci.aimealplanner.entities.recipes.MealCategory;
 import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
 import org.dci.aimealplanner.exceptions.IngredientNotFoundException;
+import org.dci.aimealplanner.exceptions.InvalidIngredientException;
 import org.dci.aimealplanner.exceptions.RecipeNotFoundException;
+import org.dci.aimealplanner.integration.aiapi.AiUsageContext;
 import org.dci.aimealplanner.integration.aiapi.dtos.recipes.RecipeFromAI;
 import org.dci.aimealplanner.models.Difficulty;
 import org.dci.aimealplanner.models.SourceType;
@@ -20,26 +20,32 @@ import org.dci.aimealplanner.models.recipes.UpdateRecipeDTO;
 import org.dci.aimealplanner.repositories.recipes.RecipeRepository;
 import org.dci.aimealplanner.services.ingredients.*;
 import org.dci.aimealplanner.services.utils.CloudinaryService;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.dci.aimealplanner.services.utils.TextNormalize;
 import org.dci.aimealplanner.services.users.UserService;
 import org.dci.aimealplanner.specifications.RecipeSpecification;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RecipeService {
+    private static final int RANKED_CHUNK = 200;
+
     private final RecipeRepository recipeRepository;
     private final CloudinaryService cloudinaryService;
     private final UserService userService;
@@ -47,8 +53,12 @@ public class RecipeService {
     private final IngredientService ingredientService;
     private final IngredientLookupService lookup;
     private final MealCategoryService mealCategoryService;
-    private final IngredientUnitRatioService ingredientUnitRatioService;
     private final IngredientResolverService ingredientResolverService;
+    private final NutritionTableService nutritionTableService;
+    private final RecipeSearchService recipeSearchService;
+    private final RecipeFilterIndex recipeFilterIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public Recipe addNewRecipe(UpdateRecipeDTO recipeDTO, MultipartFile imageFile, String email) {
@@ -122,6 +132,8 @@ public class RecipeService {
         calculateNutritionFacts(existingRecipe);
 
         updateRecipeFields(existingRecipe, recipeDTO, imageFile, email);
+        // a change to the meal categories alone does not make Hibernate call @PostUpdate
+        eventPublisher.publishEvent(new RecipeChangedEvent(existingRecipe.getId()));
 
         return recipeRepository.save(existingRecipe);
     }
@@ -190,27 +202,76 @@ public class RecipeService {
         return recipeRepository.findAll();
     }
 
-    @Transactional(readOnly = true)
-    public Page<Recipe> findAll(Pageable pageable) {
-        return recipeRepository.findAll(pageable);
-    }
+    /**
+     * Filters on the in-memory {@link RecipeFilterIndex} and loads only the recipes of the slice; a
+     * title is matched against the full-text index, ranked. Each slice continues after
+     * {@code cursor}, the title and id of the last recipe shown. The specification query is the
+     * fallback when the index is unavailable or the title has no searchable words.
+     */
+    public Slice<Recipe> filterRecipes(String title, Set<Long> categoryIds,
+                                       Set<Long> ingredientIds, Integer preparationTime,
+                                       Difficulty difficulty, PageCursor cursor, int size, SourceType sourceType) {
+        String fullTextQuery = recipeSearchService.fullTextQuery(title);
+        List<Long> rankedIds = fullTextQuery != null ? recipeSearchService.rankedRecipeIds(fullTextQuery) : null;
+        if (fullTextQuery != null || !StringUtils.hasText(title)) {
+            Optional<Slice<Long>> ids = recipeFilterIndex.slice(
+                    new RecipeFilterIndex.Filter(ingredientIds, categoryIds, preparationTime, difficulty, sourceType),
+                    rankedIds, cursor, size);
+            if (ids.isPresent()) return findSlice(ids.get());
+        }
 
-    public Page<Recipe> filterRecipes(String title, Set<Long> categoryIds,
-                                      Set<Long> ingredientIds, Integer preparationTime,
-                                      Difficulty difficulty, int page, int size, SourceType sourceType) {
         Specification<Recipe> recipeSpecification = RecipeSpecification.byDifficulty(difficulty).and(
                 RecipeSpecification.byPreparationTimeLessThan(preparationTime).and(
-                        RecipeSpecification.byTitleContains(title).and(
-                                RecipeSpecification.byCategoryIds(categoryIds).and(
-                                        RecipeSpecification.byIngredientContains(ingredientIds)))).and(RecipeSpecification.bySourceType(sourceType)));
+                        RecipeSpecification.byCategoryIds(categoryIds).and(
+                                RecipeSpecification.byIngredientContains(ingredientIds))).and(RecipeSpecification.bySourceType(sourceType)));
+
+        if (rankedIds != null) return findRankedSlice(recipeSpecification, rankedIds, cursor, size);
+        return recipeRepository.findBy(
+                recipeSpecification.and(RecipeSpecification.byTitleContains(title)).and(RecipeSpecification.afterTitle(cursor))
+                        .and(RecipeSpecification.orderByTitle()),
+                query -> query.slice(PageRequest.of(0, size)));
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
+    private Slice<Recipe> findSlice(Slice<Long> ids) {
+        Map<Long, Recipe> byId = recipeRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+        List<Recipe> recipes = ids.getContent().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new SliceImpl<>(recipes, ids.getPageable(), ids.hasNext());
+    }
 
-        return recipeRepository.findAll(recipeSpecification, pageable);
+    /** Walks the ranked ids after the cursor in chunks until one recipe past the slice passes the filters. */
+    private Slice<Recipe> findRankedSlice(Specification<Recipe> filters, List<Long> rankedIds,
+                                          PageCursor cursor, int size) {
+        List<Long> remaining = RecipeFilterIndex.rankedAfter(rankedIds, cursor);
+        List<Recipe> recipes = new ArrayList<>(size + 1);
+        for (int from = 0; from < remaining.size() && recipes.size() <= size; from += RANKED_CHUNK) {
+            List<Long> chunk = remaining.subList(from, Math.min(remaining.size(), from + RANKED_CHUNK));
+            Map<Long, Recipe> byId = recipeRepository.findAll(filters.and(RecipeSpecification.byIdIn(chunk))).stream()
+                    .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+            chunk.stream().map(byId::get).filter(Objects::nonNull).forEach(recipes::add);
+        }
+        boolean hasNext = recipes.size() > size;
+        return new SliceImpl<>(hasNext ? List.copyOf(recipes.subList(0, size)) : recipes, PageRequest.ofSize(size), hasNext);
     }
 
-    @Transactional
+    /**
+     * Unknown ingredients are resolved (and committed) before the recipe transaction opens,
+     * so the AI round trip for them does not hold a database connection.
+     */
     public Recipe saveFromAI(RecipeFromAI recipeFromAI, String email) {
+        List<String> names = new ArrayList<>();
+        if (recipeFromAI.getIngredients() != null) {
+            for (var line : recipeFromAI.getIngredients()) {
+                if (isAiLineUsable(line.getAmount())) names.add(line.getName());
+            }
+        }
+        Long authorId = userService.findByEmail(email).getId();
+        Map<String, Long> ingredientIds = AiUsageContext.callAs(authorId, () -> ingredientResolverService.resolveAll(names));
+
+        return transactionTemplate.execute(tx -> saveFromAI(recipeFromAI, email, ingredientIds));
+    }
+
+    private Recipe saveFromAI(RecipeFromAI recipeFromAI, String email, Map<String, Long> ingredientIds) {
         Recipe recipe = recipeFromAI.toRecipeSkeleton();
 
         recipe.setFeatured(false);
@@ -224,11 +285,15 @@ public class RecipeService {
         if (recipeFromAI.getIngredients() != null) {
             for (var line : recipeFromAI.getIngredients()) {
                 BigDecimal amt = line.getAmount();
-                if (amt == null || amt.compareTo(new BigDecimal("0.001")) < 0) {
+                if (!isAiLineUsable(amt)) {
                     continue;
                 }
 
-                Ingredient ingredient = ingredientResolverService.resolveOrCreate(line.getName());
+                Long ingredientId = line.getName() == null ? null : ingredientIds.get(TextNormalize.normName(line.getName()));
+                if (ingredientId == null) {
+                    throw new InvalidIngredientException("Ingredient name is blank");
+                }
+                Ingredient ingredient = ingredientService.findById(ingredientId);
                 Unit unit = ingredientResolverService.ensureUnit(line.getUnitCode(), null);
 
                 RecipeIngredient ri = new RecipeIngredient();
@@ -266,6 +331,10 @@ public class RecipeService {
         return recipeRepository.save(recipe);
     }
 
+    private static boolean isAiLineUsable(BigDecimal amount) {
+        return amount != null && amount.compareTo(new BigDecimal("0.001")) >= 0;
+    }
+
     @Transactional
     public void calculateNutritionFacts(Recipe recipe) {
         if (recipe == null || recipe.getIngredients() == null || recipe.getIngredients().isEmpty()) {
@@ -275,70 +344,20 @@ public class RecipeService {
             recipe.setFatPerServ(null);
             return;
         }
-        final Set<String> GRAM_CODES = Set.of("g","gram","grams","gr");
-
-        BigDecimal totalKcal   = BigDecimal.ZERO;
-        BigDecimal totalCarbs  = BigDecimal.ZERO;
-        BigDecimal totalFat    = BigDecimal.ZERO;
-        BigDecimal totalProtein= BigDecimal.ZERO;
-
-        int lines = 0, used = 0, skipped = 0;
-
-        for (RecipeIngredient line : recipe.getIngredients()) {
-            lines++;
-            if (line == null) { skipped++; continue; }
-            if (line.getIngredient() == null || line.getUnit() == null || line.getAmount() == null) {
-                skipped++;
-                continue;
-            }
-            if (line.getAmount().compareTo(BigDecimal.ZERO) <= 0) { skipped++; continue; }
-
-            NutritionFact nf = line.getIngredient().getNutritionFact();
-            if (nf == null) {
-                skipped++;
-                continue;
-            }
-
-            String code = Optional.ofNullable(line.getUnit().getCode()).orElse("").trim().toLowerCase();
-
-            BigDecimal gramsForLine = null;
-            if (GRAM_CODES.contains(code)) {
-                gramsForLine = line.getAmount();
-            } else {
-                IngredientUnitRatio iur = ingredientUnitRatioService.findRatio(line.getIngredient(), line.getUnit());
-                if (iur == null || iur.getRatio() == null || iur.getRatio() <= 0) {
-                    skipped++;
-                    continue;
-                }
-                gramsForLine = line.getAmount().multiply(BigDecimal.valueOf(iur.getRatio()));
-            }
-
-            if (gramsForLine == null || gramsForLine.compareTo(BigDecimal.ZERO) <= 0) {
-                skipped++;
-                continue;
-            }
-
-            BigDecimal factor = gramsForLine.divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP);
-
-            if (nf.getKcal()    != null) totalKcal    = totalKcal   .add(BigDecimal.valueOf(nf.getKcal()   ).multiply(factor));
-            if (nf.getProtein() != null) totalProtein = totalProtein.add(BigDecimal.valueOf(nf.getProtein()).multiply(factor));
-            if (nf.getCarbs()   != null) totalCarbs   = totalCarbs  .add(BigDecimal.valueOf(nf.getCarbs()  ).multiply(factor));
-            if (nf.getFat()     != null) totalFat     = totalFat    .add(BigDecimal.valueOf(nf.getFat()    ).multiply(factor));
-
-            used++;
-        }
 
-        BigDecimal servings = (recipe.getServings() == null || recipe.getServings().compareTo(BigDecimal.ZERO) <= 0)
-                ? BigDecimal.ONE : recipe.getServings();
+        List<Long> ingredientIds = recipe.getIngredients().stream()
+                .filter(line -> line != null && line.getIngredient() != null)
+                .map(line -> line.getIngredient().getId())
+                .toList();
+        NutritionTable table = nutritionTableService.currentFor(ingredientIds);
 
-        recipe.setKcalPerServ   ( totalKcal   .divide(servings, 2, RoundingMode.HALF_UP) );
-        recipe.setProteinPerServ( totalProtein.divide(servings, 2, RoundingMode.HALF_UP) );
-        recipe.setCarbsPerServ  ( totalCarbs  .divide(servings, 2, RoundingMode.HALF_UP) );
-        recipe.setFatPerServ    ( totalFat    .divide(servings, 2, RoundingMode.HALF_UP) );
+        NutritionCalculator.PerServing perServing =
+                NutritionCalculator.calculate(table, recipe.getIngredients(), recipe.getServings());
 
-        if (used == 0 && lines > 0) {
-        } else if (skipped > 0) {
-        }
+        recipe.setKcalPerServ   ( perServing.kcal() );
+        recipe.setProteinPerServ( perServing.protein() );
+        recipe.setCarbsPerServ  ( perServing.carbs() );
+        recipe.setFatPerServ    ( perServing.fat() );
     }
 
     private static String safeName(Ingredient ing) {
@@ -413,6 +432,7 @@ public class RecipeService {
     public Recipe updateUserRecipe(Long userId, Long recipeId, RecipeForm form) {
         var r = getUserRecipeForEdit(userId, recipeId);
         applyForm(r, form);
+        eventPublisher.publishEvent(new RecipeChangedEvent(r.getId()));
         return recipeRepository.save(r);
     }
 
@@ -435,11 +455,13 @@ public class RecipeService {
         }
     }
 
+    /** The author's recipes of {@code sourceType}, newest first, continuing below the cursor's id. */
     @Transactional(readOnly = true)
-    public Page<Recipe> findByAuthorAndSourceType(Long authorId, SourceType sourceType, Pageable pageable) {
+    public Slice<Recipe> findByAuthorAndSourceType(Long authorId, SourceType sourceType, PageCursor cursor, int size) {
         if (authorId == null) throw new IllegalArgumentException("authorId is required");
         if (sourceType == null) throw new IllegalArgumentException("sourceType is required");
-        return recipeRepository.findByAuthor_IdAndSourceType(authorId, sourceType, pageable);
+        return recipeRepository.findByAuthor_IdAndSourceTypeAndIdLessThan(authorId, sourceType,
+                cursor == null ? Long.MAX_VALUE : cursor.id(), PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")));
     }
 
     public long countAll() {
@@ -450,12 +472,15 @@ public class RecipeService {
         return recipeRepository.countBySourceType(sourceType);
     }
 
+    /** Recipes of {@code sourceType}, or all when it is {@code null}, in id order after the cursor's id. */
     @Transactional(readOnly = true)
-    public Page<Recipe> findBySource(SourceType sourceType, Pageable pageable) {
+    public Slice<Recipe> findBySource(SourceType sourceType, PageCursor cursor, int size) {
+        long afterId = cursor == null ? 0 : cursor.id();
+        Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
         if (sourceType == null) {
-            return recipeRepository.findAll(pageable);
+            return recipeRepository.findByIdGreaterThan(afterId, pageable);
         }
-        return recipeRepository.findBySourceType(sourceType, pageable);
+        return recipeRepository.findBySourceTypeAndIdGreaterThan(sourceType, afterId, pageable);
     }
 
     private List<RecipeIngredient> mergeDuplicateLines(List<RecipeIngredient> lines) {
@@ -0,0 +1,6 @@
+package org.dci.aimealplanner.services.recipes;
+
+import java.util.Set;
+
+public record RecipesChangedEvent(Set<Long> recipeIds) {
+}
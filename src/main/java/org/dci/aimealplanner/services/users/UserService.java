@@ -9,8 +9,8 @@ import org.dci.aimealplanner.exceptions.VerificationTokenInvalidException;
 import org.dci.aimealplanner.models.Role;
 import org.dci.aimealplanner.models.UserType;
 import org.dci.aimealplanner.repositories.users.UserRepository;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -227,35 +227,35 @@ public class UserService implements UserDetailsService {
         return userRepository.countByIsDeletedTrue();
     }
 
-    public Page<User> searchDeleted(String like, Pageable pageable) {
-        return userRepository.searchDeleted(like, pageable);
+    public Slice<User> searchDeleted(String like, long afterId, Pageable pageable) {
+        return userRepository.searchDeleted(like, afterId, pageable);
     }
 
-    public Page<User> searchDeletedByType(String like, UserType type, Pageable pageable) {
-        return userRepository.searchDeletedByType(like, type, pageable);
+    public Slice<User> searchDeletedByType(String like, UserType type, long afterId, Pageable pageable) {
+        return userRepository.searchDeletedByType(like, type, afterId, pageable);
     }
 
-    public Page<User> searchActiveVerified(String like, Pageable pageable) {
-        return userRepository.searchActiveVerified(like, pageable);
+    public Slice<User> searchActiveVerified(String like, long afterId, Pageable pageable) {
+        return userRepository.searchActiveVerified(like, afterId, pageable);
     }
 
-    public Page<User> searchActiveVerifiedByType(String like, UserType type, Pageable pageable) {
-        return userRepository.searchActiveVerifiedByType(like, type, pageable);
+    public Slice<User> searchActiveVerifiedByType(String like, UserType type, long afterId, Pageable pageable) {
+        return userRepository.searchActiveVerifiedByType(like, type, afterId, pageable);
     }
 
-    public Page<User> searchActiveUnverified(String like, Pageable pageable) {
-        return userRepository.searchActiveUnverified(like, pageable);
+    public Slice<User> searchActiveUnverified(String like, long afterId, Pageable pageable) {
+        return userRepository.searchActiveUnverified(like, afterId, pageable);
     }
 
-    public Page<User> searchActiveUnverifiedByType(String like, UserType type, Pageable pageable) {
-        return userRepository.searchActiveUnverifiedByType(like, type, pageable);
+    public Slice<User> searchActiveUnverifiedByType(String like, UserType type, long afterId, Pageable pageable) {
+        return userRepository.searchActiveUnverifiedByType(like, type, afterId, pageable);
     }
 
-    public Page<User> searchActive(String like, Pageable pageable) {
-        return userRepository.searchActive(like, pageable);
+    public Slice<User> searchActive(String like, long afterId, Pageable pageable) {
+        return userRepository.searchActive(like, afterId, pageable);
     }
 
-    public Page<User> searchActiveByType(String like, UserType type, Pageable pageable) {
-        return userRepository.searchActiveByType(like, type, pageable);
+    public Slice<User> searchActiveByType(String like, UserType type, long afterId, Pageable pageable) {
+        return userRepository.searchActiveByType(like, type, afterId, pageable);
     }
 }
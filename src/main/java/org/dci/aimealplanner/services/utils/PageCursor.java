@@ -0,0 +1,71 @@
+package org.dci.aimealplanner.services.utils;
+
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Sort key of the last row shown by a keyset-paginated list: its id and, for lists in title order,
+ * its title. The next page starts after it, so no offset is skipped and no total is counted.
+ * {@link #encode()} gives the opaque {@code cursor} request parameter.
+ */
+public record PageCursor(long id, String title) {
+
+    public static PageCursor of(long id) {
+        return new PageCursor(id, null);
+    }
+
+    public static PageCursor of(String title, long id) {
+        return new PageCursor(id, title == null ? "" : title);
+    }
+
+    public String encode() {
+        String key = title == null ? Long.toString(id) : id + ":" + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The cursor in {@code token}; {@code null}, meaning the first page, when it is missing or malformed. */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int colon = key.indexOf(':');
+            return colon < 0
+                    ? of(Long.parseLong(key))
+                    : of(key.substring(colon + 1), Long.parseLong(key.substring(0, colon)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Sort key of a title in title-ordered lists; compare keys with {@link #compareTitleKeys}. */
+    public static String titleKey(String title) {
+        return title == null ? "" : title.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Title order shared by the in-memory filter index and the database, which sorts on
+     * {@code lower(title) COLLATE "C"}, the byte order of UTF-8 and so the code point order.
+     */
+    public static int compareTitleKeys(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) return Integer.compare(ca, cb);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /** Token for the page after {@code slice}, or {@code null} when it is the last one. */
+    public static <T> String next(Slice<T> slice, Function<T, PageCursor> key) {
+        if (!slice.hasNext() || !slice.hasContent()) return null;
+        return key.apply(slice.getContent().getLast()).encode();
+    }
+}
@@ -6,8 +6,13 @@ public final class TextNormalize {
         if (s == null) return null;
         return s.trim().replaceAll("\\s+", " ").toLowerCase();
     }
-    public static String normUnitCode(String s) {
-        if (s == null) return null;
-        return s.trim().toLowerCase();
+    /**
+     * Lower-cased {@code %term%} pattern with LIKE wildcards in the term escaped by a backslash,
+     * Postgres' default LIKE escape; blank terms match everything.
+     */
+    public static String likeContains(String s) {
+        if (s == null || s.isBlank()) return "%";
+        String escaped = s.trim().toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 }
@@ -7,9 +7,11 @@ import org.dci.aimealplanner.entities.recipes.Recipe;
 import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
 import org.dci.aimealplanner.models.Difficulty;
 import org.dci.aimealplanner.models.SourceType;
+import org.dci.aimealplanner.services.utils.PageCursor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Set;
 
 public class RecipeSpecification {
@@ -22,6 +24,40 @@ public class RecipeSpecification {
         };
     }
 
+    /**
+     * Recipes after {@code cursor} in title order, {@code lower(title) COLLATE "C"} then id, the
+     * order {@link #orderByTitle} sorts by; no restriction for the first slice.
+     */
+    public static Specification<Recipe> afterTitle(PageCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) return null;
+            Expression<String> title = titleKey(root, cb);
+            Expression<String> after = cb.literal(PageCursor.titleKey(cursor.title()));
+            return cb.or(
+                    cb.greaterThan(title, after),
+                    cb.and(cb.equal(title, after), cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    /**
+     * Sorts by title the way {@code RecipeFilterIndex} does, so a cursor from either path can be
+     * resumed on the other; use with an unsorted page request.
+     */
+    public static Specification<Recipe> orderByTitle() {
+        return (root, query, cb) -> {
+            query.orderBy(cb.asc(titleKey(root, cb)), cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    private static Expression<String> titleKey(Root<Recipe> root, CriteriaBuilder cb) {
+        return ((HibernateCriteriaBuilder) cb).collate(cb.lower(root.get("title")), "\"C\"");
+    }
+
+    public static Specification<Recipe> byIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
     public static Specification<Recipe> byDifficulty(Difficulty difficulty) {
         return (root, query, criteriaBuilder) -> {
             if (difficulty == null) {
@@ -0,0 +1,23 @@
+-- Tables previously created on startup by GroqCompletionCache and GroqUsageTracker.
+
+CREATE TABLE IF NOT EXISTS ai_completion_cache (
+    cache_key   CHAR(64) PRIMARY KEY,
+    model       VARCHAR(100) NOT NULL,
+    content     TEXT NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL,
+    last_hit_at TIMESTAMPTZ NOT NULL,
+    hits        INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_completion_cache_last_hit ON ai_completion_cache (last_hit_at);
+
+CREATE TABLE IF NOT EXISTS ai_usage_daily (
+    usage_date        DATE NOT NULL,
+    user_id           BIGINT NOT NULL,
+    feature           VARCHAR(32) NOT NULL,
+    calls             BIGINT NOT NULL DEFAULT 0,
+    prompt_tokens     BIGINT NOT NULL DEFAULT 0,
+    completion_tokens BIGINT NOT NULL DEFAULT 0,
+    latency_ms        BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (usage_date, user_id, feature)
+);
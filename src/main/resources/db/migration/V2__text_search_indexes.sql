@@ -0,0 +1,10 @@
+-- Trigram GIN indexes let Postgres answer lower(col) LIKE '%term%' from an index instead of a
+-- sequential scan; the btree lower() index serves case-insensitive name lookups.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_recipe_title_trgm ON recipe USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_meal_plans_name_trgm ON meal_plans USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_ingredients_name_lower ON ingredients (lower(name));
@@ -0,0 +1,11 @@
+-- Normalized names that resolved to an ingredient other than by its own name: plural forms and
+-- names the AI renamed when it created the ingredient.
+
+CREATE TABLE IF NOT EXISTS ingredient_aliases (
+    alias         VARCHAR(255) PRIMARY KEY,
+    ingredient_id BIGINT NOT NULL REFERENCES ingredients (id) ON DELETE CASCADE,
+    source        VARCHAR(20) NOT NULL,
+    created_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_ingredient_aliases_ingredient ON ingredient_aliases (ingredient_id);
@@ -0,0 +1,10 @@
+-- Per-item checkpoints of the seeding jobs, so an interrupted run resumes where it stopped.
+
+CREATE TABLE IF NOT EXISTS seeding_progress (
+    job        VARCHAR(50) NOT NULL,
+    item_key   VARCHAR(255) NOT NULL,
+    status     VARCHAR(20) NOT NULL,
+    detail     TEXT,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (job, item_key)
+);
@@ -0,0 +1,40 @@
+-- Full-text search documents for recipes: the title weighted A, ingredient names B and the
+-- instructions C. recipe_search_words holds every lexeme in use so misspelled query words can be
+-- matched to their nearest lexemes by trigram similarity.
+
+CREATE TABLE IF NOT EXISTS recipe_search (
+    recipe_id  BIGINT PRIMARY KEY REFERENCES recipe (id) ON DELETE CASCADE,
+    document   TSVECTOR NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_search_document ON recipe_search USING gin (document);
+
+CREATE TABLE IF NOT EXISTS recipe_search_words (
+    word TEXT PRIMARY KEY
+);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_search_words_trgm ON recipe_search_words USING gist (word gist_trgm_ops);
+
+CREATE OR REPLACE FUNCTION recipe_search_matches(document TSVECTOR, query TEXT) RETURNS BOOLEAN
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+    AS 'SELECT document @@ query::tsquery';
+
+CREATE OR REPLACE FUNCTION recipe_search_rank(document TSVECTOR, query TEXT) RETURNS REAL
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+    AS 'SELECT ts_rank(document, query::tsquery, 1)';
+
+INSERT INTO recipe_search (recipe_id, document)
+SELECT r.id,
+       setweight(to_tsvector('english', coalesce(r.title, '')), 'A')
+           || setweight(to_tsvector('english', coalesce(
+                  (SELECT string_agg(i.name, ' ')
+                     FROM recipe_ingredients ri JOIN ingredients i ON i.id = ri.ingredient_id
+                    WHERE ri.recipe_id = r.id), '')), 'B')
+           || setweight(to_tsvector('english', coalesce(r.instructions, '')), 'C')
+  FROM recipe r
+    ON CONFLICT (recipe_id) DO NOTHING;
+
+INSERT INTO recipe_search_words (word)
+SELECT DISTINCT unnest(tsvector_to_array(document)) FROM recipe_search
+    ON CONFLICT (word) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Btree indexes matching the keyset pagination orders, so each slice is an index range scan
+-- starting at the cursor: recipes by (title, id) and by id within a source type or an author's
+-- recipes of one source type. Users and meal plans seek on their primary keys.
+
+CREATE INDEX IF NOT EXISTS idx_recipe_title_id ON recipe (title, id);
+CREATE INDEX IF NOT EXISTS idx_recipe_source_type_id ON recipe (source_type, id);
+CREATE INDEX IF NOT EXISTS idx_recipe_author_source_type_id ON recipe (author_id, source_type, id);
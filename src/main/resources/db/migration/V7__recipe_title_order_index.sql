@@ -0,0 +1,4 @@
+-- Recipes in title order are sorted on lower(title) COLLATE "C", the order the in-memory filter
+-- index uses too, so a keyset cursor means the same on both paths whatever the database collation.
+
+CREATE INDEX IF NOT EXISTS idx_recipe_title_key_id ON recipe ((lower(title) COLLATE "C"), id);
@@ -0,0 +1,101 @@
+package org.dci.aimealplanner.bootstrap.migrations;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints EXPLAIN ANALYZE plans for the text search queries before and after
+ * {@code V2__text_search_indexes.sql}. Synthetic tables are created in a scratch schema of the
+ * database given by {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD}; the schema is
+ * dropped afterwards. Run with {@code mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test}, then {@code java -cp
+ * target/test-classes:target/classes:$(cat target/test-classpath.txt)
+ * org.dci.aimealplanner.bootstrap.migrations.TextSearchExplainBenchmark}.
+ */
+public class TextSearchExplainBenchmark {
+    private static final String SCHEMA = "explain_bench";
+    private static final int ROWS = 200_000;
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("RecipeRepository.searchForPlanner", """
+                SELECT r.id, r.title FROM recipe r
+                 WHERE lower(r.title) LIKE '%chickpea%'
+                   AND (r.source_type = 'USER' OR (r.source_type = 'AI' AND r.author_id = 42))
+                 ORDER BY r.title LIMIT 20""");
+        QUERIES.put("MealPlanRepository.searchByEmailOrPlanName", """
+                SELECT mp.id, mp.name FROM meal_plans mp
+                 WHERE mp.id IN (SELECT p.id FROM meal_plans p WHERE lower(p.name) LIKE '%week 123%')
+                    OR mp.user_id IN (SELECT u.id FROM users u WHERE lower(u.email) LIKE '%user1234%')
+                 ORDER BY mp.id DESC LIMIT 20""");
+        QUERIES.put("UserRepository.searchActive", """
+                SELECT u.id, u.email FROM users u
+                 WHERE u.is_deleted = false AND lower(u.email) LIKE '%user4321%'
+                 ORDER BY u.id LIMIT 20""");
+        QUERIES.put("IngredientService.findByNameIgnoreCase", """
+                SELECT i.id FROM ingredients i WHERE lower(i.name) = lower('Ingredient 98765') ORDER BY i.id""");
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"))) {
+            try {
+                createTables(connection);
+                explainAll(connection, "before");
+                ScriptUtils.executeSqlScript(connection, new EncodedResource(
+                        new ClassPathResource("db/migration/V2__text_search_indexes.sql"), StandardCharsets.UTF_8));
+                execute(connection, "ANALYZE users, recipe, meal_plans, ingredients");
+                explainAll(connection, "after");
+            } finally {
+                execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+        }
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute(connection, "CREATE SCHEMA " + SCHEMA);
+        execute(connection, "SET search_path TO " + SCHEMA + ", public");
+        execute(connection, """
+                CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL, is_deleted BOOLEAN NOT NULL);
+                INSERT INTO users SELECT g, 'user' || g || '@example.com', mod(g, 20) = 0 FROM generate_series(1, %d) g;
+                CREATE TABLE recipe (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, source_type VARCHAR(20), author_id BIGINT);
+                INSERT INTO recipe SELECT g,
+                       (ARRAY['Chickpea curry','Oat porridge','Tomato soup','Beef stew','Green salad'])[1 + mod(g, 5)] || ' ' || g,
+                       CASE WHEN mod(g, 3) = 0 THEN 'AI' ELSE 'USER' END, 1 + mod(g, 5000)
+                  FROM generate_series(1, %d) g;
+                CREATE TABLE meal_plans (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, name VARCHAR(255));
+                INSERT INTO meal_plans SELECT g, 1 + mod(g, %d), 'Week ' || g FROM generate_series(1, %d) g;
+                CREATE TABLE ingredients (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL);
+                INSERT INTO ingredients SELECT g, 'Ingredient ' || g FROM generate_series(1, %d) g;
+                ANALYZE users, recipe, meal_plans, ingredients""".formatted(ROWS, ROWS, ROWS, ROWS, ROWS));
+    }
+
+    private static void explainAll(Connection connection, String phase) throws SQLException {
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            System.out.println("=== " + query.getKey() + " (" + phase + ")");
+            try (Statement statement = connection.createStatement();
+                 ResultSet plan = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + query.getValue())) {
+                while (plan.next()) System.out.println(plan.getString(1));
+            }
+            System.out.println();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dci.aimealplanner.integration.aiapi.dtos.planning.PlannedMealFromAI;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayStreamParserTest {
+    private static final String DAY = """
+            {"date": "2025-03-01", "meals": [
+              {"slot": "BREAKFAST", "title": "Crème fraîche oats", "servings": 1,
+               "meal_categories": ["breakfast"], "notes": "braces { in } text",
+               "recipe": {"title": "Crème fraîche oats", "ingredients": [{"name": "oats", "amount": 50, "unit_code": "GRAM"}],
+                          "instructions": ["Mix.", "Serve."]}},
+              {"slot": "LUNCH", "title": "Lentil soup", "servings": 2, "meal_categories": [], "notes": null,
+               "recipe": {"title": "Lentil soup", "ingredients": [], "instructions": ["Simmer."]}},
+              {"slot": "DINNER", "title": "Rice bowl", "servings": 2, "meal_categories": ["dinner"],
+               "recipe": {"title": "Rice bowl", "ingredients": [], "instructions": []}}
+            ]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void emitsEachMealOnceWhereverTheStreamIsSplit() {
+        for (int split = 0; split <= DAY.length(); split++) {
+            List<PlannedMealFromAI> meals = new ArrayList<>();
+            JsonArrayStreamParser<PlannedMealFromAI> parser = newParser(meals);
+            parser.feed(DAY.substring(0, split));
+            parser.feed(DAY.substring(split));
+
+            assertEquals(List.of("BREAKFAST", "LUNCH", "DINNER"), meals.stream().map(PlannedMealFromAI::slot).toList(),
+                    "split at " + split);
+        }
+    }
+
+    @Test
+    void emitsEachMealOnceWhenFedOneCharacterAtATime() {
+        List<PlannedMealFromAI> meals = new ArrayList<>();
+        JsonArrayStreamParser<PlannedMealFromAI> parser = newParser(meals);
+        DAY.chars().forEach(c -> parser.feed(String.valueOf((char) c)));
+
+        assertEquals(3, meals.size());
+        assertEquals("Crème fraîche oats", meals.get(0).recipe().getTitle());
+        assertEquals(List.of("Mix.", "Serve."), meals.get(0).recipe().getInstructions());
+    }
+
+    @Test
+    void cachedCompletionFedInOnePieceEmitsAllMeals() {
+        List<PlannedMealFromAI> meals = new ArrayList<>();
+        newParser(meals).feed("```json\n" + DAY + "\n```");
+
+        assertEquals(List.of("Crème fraîche oats", "Lentil soup", "Rice bowl"),
+                meals.stream().map(PlannedMealFromAI::title).toList());
+    }
+
+    @Test
+    void truncatedStreamEmitsOnlyCompleteMeals() {
+        List<PlannedMealFromAI> meals = new ArrayList<>();
+        newParser(meals).feed(DAY.substring(0, DAY.indexOf("\"Rice bowl\"")));
+
+        assertEquals(List.of("BREAKFAST", "LUNCH"), meals.stream().map(PlannedMealFromAI::slot).toList());
+    }
+
+    private JsonArrayStreamParser<PlannedMealFromAI> newParser(List<PlannedMealFromAI> meals) {
+        return new JsonArrayStreamParser<>(objectMapper, "meals", PlannedMealFromAI.class, meals::add);
+    }
+}
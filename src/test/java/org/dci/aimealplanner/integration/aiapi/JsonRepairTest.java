@@ -0,0 +1,36 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRepairTest {
+
+    @Test
+    void stripsFencesAndTrailingCommas() {
+        JsonRepair.Result result = JsonRepair.repair("```json\n{\"a\": [1, 2, 3,], \"b\": \"x\",}\n```");
+        assertEquals("{\"a\": [1, 2, 3], \"b\": \"x\"}", result.json());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    void escapesRawNewlinesAndKeepsQuotedBraces() {
+        JsonRepair.Result result = JsonRepair.repair("{\"s\": \"line1\nline2\", \"t\": \"a \\\"}\\\" b\"} trailing text");
+        assertEquals("{\"s\": \"line1\\nline2\", \"t\": \"a \\\"}\\\" b\"}", result.json());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    void truncatedOutputKeepsCompleteValues() {
+        JsonRepair.Result result = JsonRepair.repair("{\"items\": [{\"n\": \"a\"}, {\"n\": \"b\", \"v\": 12");
+        assertEquals("{\"items\": [{\"n\": \"a\"}, {\"n\": \"b\"}]}", result.json());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void truncatedKeyIsDropped() {
+        JsonRepair.Result result = JsonRepair.repair("{\"title\": \"Soup\", \"instru");
+        assertEquals("{\"title\": \"Soup\"}", result.json());
+        assertTrue(result.truncated());
+    }
+}
@@ -0,0 +1,77 @@
+package org.dci.aimealplanner.integration.aiapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dci.aimealplanner.integration.aiapi.dtos.recipes.IngredientLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeStreamParserTest {
+    private static final String RECIPE = """
+            {"title": "Crème brûlée {easy}", "difficulty": "medium", "preparation_time_minutes": 45,
+             "servings": 4, "meal_categories": ["dessert"], "notes": {"tip": "chill [overnight]"},
+             "ingredients": [
+               {"name": "cream", "amount": 500, "unit_code": "ML", "note": null},
+               {"name": "sugar", "amount": 80.5, "unit_code": "GRAM"}
+             ],
+             "instructions": ["Heat the cream.", "Whisk in \\"yolks\\".", "Bake."]}""";
+
+    private static final List<String> EXPECTED = List.of(
+            "field title=\"Crème brûlée {easy}\"",
+            "field difficulty=\"medium\"",
+            "field preparation_time_minutes=45",
+            "field servings=4",
+            "field meal_categories=[\"dessert\"]",
+            "field notes={\"tip\":\"chill [overnight]\"}",
+            "ingredient 0 cream 500 ML",
+            "ingredient 1 sugar 80.5 GRAM",
+            "instruction 0 Heat the cream.",
+            "instruction 1 Whisk in \"yolks\".",
+            "instruction 2 Bake.");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void reportsEachPartOnceWhereverTheStreamIsSplit() {
+        for (int split = 0; split <= RECIPE.length(); split++) {
+            List<String> events = new ArrayList<>();
+            RecipeStreamParser parser = new RecipeStreamParser(objectMapper, recorder(events));
+            parser.feed(RECIPE.substring(0, split));
+            parser.feed(RECIPE.substring(split));
+
+            assertEquals(EXPECTED, events, "split at " + split);
+        }
+    }
+
+    @Test
+    void cachedCompletionFedInOnePieceReportsEverything() {
+        List<String> events = new ArrayList<>();
+        new RecipeStreamParser(objectMapper, recorder(events)).feed("```json\n" + RECIPE + "\n```");
+
+        assertEquals(EXPECTED, events);
+    }
+
+    private static RecipeStreamListener recorder(List<String> events) {
+        return new RecipeStreamListener() {
+            @Override
+            public void onField(String name, JsonNode value) {
+                events.add("field " + name + "=" + value);
+            }
+
+            @Override
+            public void onIngredient(int index, IngredientLine ingredient) {
+                events.add("ingredient " + index + " " + ingredient.getName() + " "
+                        + ingredient.getAmount().toPlainString() + " " + ingredient.getUnitCode());
+            }
+
+            @Override
+            public void onInstruction(int index, String step) {
+                events.add("instruction " + index + " " + step);
+            }
+        };
+    }
+}
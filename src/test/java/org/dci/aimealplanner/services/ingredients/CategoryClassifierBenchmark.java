@@ -0,0 +1,95 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares classifying 100k food descriptions with one regex per category rule against the
+ * {@link CategoryKeywordMatcher}; scores are descriptions per second.
+ * Run with {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * -Dmdep.includeScope=test}, then {@code java -cp target/test-classes:target/classes:$(cat
+ * target/test-classpath.txt) org.openjdk.jmh.Main CategoryClassifierBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryClassifierBenchmark {
+    private static final int DESCRIPTIONS = 100_000;
+
+    private static final String[] FILLER = {
+            "raw", "cooked", "boiled", "frozen", "canned", "dried", "fresh", "organic", "with salt",
+            "without salt", "unenriched", "NFS", "drained solids", "prepared", "sliced", "whole", "ground"};
+    private static final String[] OTHER = {
+            "Beverages, carbonated", "Snacks, potato chips", "Tofu, firm", "Gelatin dessert",
+            "Baby food, mixed", "Candies, fudge", "Soup, stock", "Tea, brewed"};
+
+    private List<String> descriptions;
+    private List<Map.Entry<Pattern, String>> patterns;
+    private CategoryKeywordMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        List<String> keywords = IngredientCategoryService.KEYWORD_RULES.stream()
+                .flatMap(rule -> rule.words().stream())
+                .toList();
+        descriptions = new ArrayList<>(DESCRIPTIONS);
+        for (int i = 0; i < DESCRIPTIONS; i++) {
+            StringBuilder description = new StringBuilder(random.nextInt(4) == 0
+                    ? OTHER[random.nextInt(OTHER.length)]
+                    : capitalize(keywords.get(random.nextInt(keywords.size()))));
+            for (int k = random.nextInt(4); k > 0; k--) description.append(", ").append(FILLER[random.nextInt(FILLER.length)]);
+            descriptions.add(description.toString());
+        }
+
+        patterns = IngredientCategoryService.KEYWORD_RULES.stream()
+                .map(rule -> Map.entry(Pattern.compile("\\b(" + String.join("|", rule.words()) + ")"
+                        + (rule.plurals() ? "s?" : "") + "\\b", Pattern.CASE_INSENSITIVE), rule.category()))
+                .toList();
+        matcher = new CategoryKeywordMatcher(IngredientCategoryService.KEYWORD_RULES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESCRIPTIONS)
+    public int regexPerRule() {
+        int matched = 0;
+        for (String description : descriptions) {
+            for (var rule : patterns) {
+                if (rule.getKey().matcher(description).find()) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESCRIPTIONS)
+    public int automaton() {
+        int matched = 0;
+        for (String description : descriptions) {
+            if (matcher.match(description) != null) matched++;
+        }
+        return matched;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CategoryClassifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
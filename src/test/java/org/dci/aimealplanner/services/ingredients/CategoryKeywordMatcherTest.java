@@ -0,0 +1,45 @@
+package org.dci.aimealplanner.services.ingredients;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryKeywordMatcherTest {
+    private final CategoryKeywordMatcher matcher = new CategoryKeywordMatcher(IngredientCategoryService.KEYWORD_RULES);
+
+    @Test
+    void matchesWholeWordsOnly() {
+        assertEquals("Fruits", matcher.match("Apple, raw, with skin"));
+        assertEquals("Oils & Fats", matcher.match("Oil, olive, extra virgin"));
+        assertNull(matcher.match("Pineapples, canned"));
+        assertNull(matcher.match("Boiled potato"));
+        assertNull(matcher.match("Crème brûlée"));
+        assertNull(matcher.match(null));
+    }
+
+    @Test
+    void acceptsPluralsOnlyWhereTheRuleAllowsThem() {
+        assertEquals("Nuts & Seeds", matcher.match("Almonds, dry roasted"));
+        assertEquals("Dairy & Eggs", matcher.match("EGGS, whole, raw"));
+        assertNull(matcher.match("Apples, raw"));
+    }
+
+    @Test
+    void firstListedRuleWinsRegardlessOfPosition() {
+        assertEquals("Nuts & Seeds", matcher.match("Chicken salad with walnuts"));
+        assertEquals("Legumes", matcher.match("Soy sauce"));
+        assertEquals("Nuts & Seeds", matcher.match("Butter cookies with almonds"));
+    }
+
+    @Test
+    void overlappingKeywordsAreAllFound() {
+        CategoryKeywordMatcher overlapping = new CategoryKeywordMatcher(List.of(
+                new CategoryKeywordMatcher.Rule("A", false, List.of("sunflower seed")),
+                new CategoryKeywordMatcher.Rule("B", false, List.of("flower"))));
+        assertEquals("A", overlapping.match("roasted sunflower seed"));
+        assertNull(overlapping.match("sunflower"));
+        assertEquals("B", overlapping.match("sun flower seed"));
+    }
+}
@@ -0,0 +1,204 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.dci.aimealplanner.entities.ingredients.Ingredient;
+import org.dci.aimealplanner.entities.ingredients.Unit;
+import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
+import org.dci.aimealplanner.repositories.ingredients.IngredientNutritionRow;
+import org.dci.aimealplanner.repositories.ingredients.UnitRatioRow;
+import org.dci.aimealplanner.services.ingredients.NutritionTable;
+import org.dci.aimealplanner.services.ingredients.UnitConversions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NutritionCalculatorTest {
+    private static final int INGREDIENTS = 200;
+    private static final long GRAM_UNIT_ID = 1L;
+    private static final long[] OTHER_UNIT_IDS = {2L, 3L, 4L, 5L};
+
+    private final Random random = new Random(20240611L);
+
+    @Test
+    void fixedPointMatchesDecimalOnRandomRecipes() {
+        NutritionTable table = randomTable();
+        int fastPathHits = 0;
+
+        for (int round = 0; round < 20_000; round++) {
+            List<RecipeIngredient> lines = randomLines(1 + random.nextInt(20));
+            BigDecimal servings = randomServings();
+
+            NutritionCalculator.PerServing expected = NutritionCalculator.decimal(table, lines, servings);
+            NutritionCalculator.PerServing fast = NutritionCalculator.fixedPoint(table, lines, servings);
+
+            if (fast != null) {
+                fastPathHits++;
+                assertEquals(expected, fast, "fixed-point result differs in round " + round);
+            }
+            assertEquals(expected, NutritionCalculator.calculate(table, lines, servings));
+        }
+
+        assertTrue(fastPathHits > 19_000, "fast path used only " + fastPathHits + " times");
+    }
+
+    @Test
+    void fallsBackToDecimalWhenInputsDoNotFitScales() {
+        NutritionTable table = NutritionTable.build(
+                List.of(row(10L, 1.0 / 3, 7.123456789, null, 0.5)),
+                List.of(ratio(10L, 2L, 0.1234567891)),
+                new long[]{GRAM_UNIT_ID});
+
+        List<RecipeIngredient> lines = List.of(
+                line(10L, GRAM_UNIT_ID, new BigDecimal("12.3456")),
+                line(10L, 2L, new BigDecimal("3")));
+        BigDecimal servings = new BigDecimal("3.333");
+
+        assertNull(NutritionCalculator.fixedPoint(table, lines, servings));
+        assertEquals(NutritionCalculator.decimal(table, lines, servings),
+                NutritionCalculator.calculate(table, lines, servings));
+    }
+
+    @Test
+    void skipsLinesWithoutNutritionOrRatio() {
+        NutritionTable table = NutritionTable.build(
+                List.of(row(10L, 100.0, 10.0, 20.0, 5.0), rowWithoutFacts(11L)),
+                List.of(),
+                new long[]{GRAM_UNIT_ID});
+
+        List<RecipeIngredient> lines = List.of(
+                line(10L, GRAM_UNIT_ID, new BigDecimal("200")),
+                line(10L, 2L, new BigDecimal("1")),
+                line(11L, GRAM_UNIT_ID, new BigDecimal("50")),
+                line(12L, GRAM_UNIT_ID, new BigDecimal("50")));
+
+        NutritionCalculator.PerServing perServing = NutritionCalculator.calculate(table, lines, new BigDecimal("2"));
+        assertEquals(new BigDecimal("100.00"), perServing.kcal());
+        assertEquals(new BigDecimal("10.00"), perServing.protein());
+        assertEquals(new BigDecimal("20.00"), perServing.carbs());
+        assertEquals(new BigDecimal("5.00"), perServing.fat());
+        assertEquals(NutritionCalculator.decimal(table, lines, new BigDecimal("2")), perServing);
+    }
+
+    @Test
+    void derivesMissingUnitsFromStandardConversionsAndDensity() {
+        List<Unit> units = List.of(new Unit(GRAM_UNIT_ID, "g", "Gram"), new Unit(2L, "tbsp", "Tablespoon"),
+                new Unit(3L, "tsp", "Teaspoon"), new Unit(4L, "cup", "Cup"), new Unit(5L, "piece", "Piece"),
+                new Unit(6L, "kg", "Kilogram"));
+        NutritionTable table = NutritionTable.build(
+                List.of(row(10L, 884.0, 0.0, 0.0, 100.0, 7L), row(11L, 900.0, 0.0, 0.0, 100.0, 7L),
+                        row(12L, 52.0, 0.3, 14.0, 0.2, 8L)),
+                List.of(ratio(10L, 2L, 13.5), ratio(12L, 5L, 182.0)),
+                UnitConversions.of(units));
+
+        int oil = table.indexOf(10L);
+        assertEquals(13.5, table.gramsPerUnit(oil, 2L));
+        assertEquals(4.5, table.gramsPerUnit(oil, 3L), 1e-6);
+        assertEquals(216.0, table.gramsPerUnit(oil, 4L), 1e-6);
+        assertEquals(1000.0, table.gramsPerUnit(oil, 6L));
+        assertTrue(Double.isNaN(table.gramsPerUnit(oil, 5L)));
+
+        int sameCategory = table.indexOf(11L);
+        assertEquals(4.5, table.gramsPerUnit(sameCategory, 3L), 1e-6);
+
+        int apple = table.indexOf(12L);
+        assertEquals(182.0, table.gramsPerUnit(apple, 5L));
+        assertTrue(Double.isNaN(table.gramsPerUnit(apple, 4L)));
+    }
+
+    @Test
+    void roundHalfUpMatchesBigDecimal() {
+        for (int i = 0; i < 100_000; i++) {
+            long numerator = random.nextLong() >> random.nextInt(40);
+            long denominator = 1 + (random.nextLong() >>> (1 + random.nextInt(62)));
+            long expected = new BigDecimal(numerator)
+                    .divide(new BigDecimal(denominator), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+            assertEquals(expected, FixedPointNutritionCalculator.roundHalfUp(numerator, denominator));
+        }
+    }
+
+    private NutritionTable randomTable() {
+        List<IngredientNutritionRow> rows = new ArrayList<>();
+        List<UnitRatioRow> ratios = new ArrayList<>();
+        for (long id = 1; id <= INGREDIENTS; id++) {
+            if (random.nextInt(20) == 0) {
+                rows.add(rowWithoutFacts(id));
+            } else {
+                rows.add(row(id, randomMacro(900), randomMacro(100), randomMacro(100), randomMacro(100)));
+            }
+            for (long unitId : OTHER_UNIT_IDS) {
+                if (random.nextInt(4) == 0) continue;
+                int scale = random.nextInt(7);
+                ratios.add(ratio(id, unitId, BigDecimal.valueOf(random.nextInt(250 * (int) Math.pow(10, scale)), scale).doubleValue()));
+            }
+        }
+        return NutritionTable.build(rows, ratios, new long[]{GRAM_UNIT_ID});
+    }
+
+    private Double randomMacro(int max) {
+        if (random.nextInt(15) == 0) return null;
+        int scale = random.nextInt(5);
+        return BigDecimal.valueOf(random.nextInt(max * (int) Math.pow(10, scale) + 1), scale).doubleValue();
+    }
+
+    private List<RecipeIngredient> randomLines(int count) {
+        List<RecipeIngredient> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long ingredientId = 1 + random.nextInt(INGREDIENTS + 5);
+            long unitId = random.nextInt(3) == 0 ? GRAM_UNIT_ID : OTHER_UNIT_IDS[random.nextInt(OTHER_UNIT_IDS.length)];
+            int scale = random.nextInt(4);
+            int max = unitId == GRAM_UNIT_ID ? 2_000 : 20;
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(max * (int) Math.pow(10, scale)), scale);
+            lines.add(line(ingredientId, unitId, amount));
+        }
+        return lines;
+    }
+
+    private BigDecimal randomServings() {
+        return switch (random.nextInt(10)) {
+            case 0 -> null;
+            case 1 -> BigDecimal.ZERO;
+            default -> BigDecimal.valueOf(1 + random.nextInt(1_200), random.nextInt(3));
+        };
+    }
+
+    private static RecipeIngredient line(long ingredientId, long unitId, BigDecimal amount) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(ingredientId);
+        Unit unit = new Unit(unitId, null, null);
+
+        RecipeIngredient line = new RecipeIngredient();
+        line.setIngredient(ingredient);
+        line.setUnit(unit);
+        line.setAmount(amount);
+        return line;
+    }
+
+    private static IngredientNutritionRow row(long ingredientId, Double kcal, Double protein, Double carbs, Double fat) {
+        return new NutritionRow(ingredientId, ingredientId + 1000, null, kcal, protein, carbs, fat);
+    }
+
+    private static IngredientNutritionRow row(long ingredientId, Double kcal, Double protein, Double carbs, Double fat,
+                                              Long categoryId) {
+        return new NutritionRow(ingredientId, ingredientId + 1000, categoryId, kcal, protein, carbs, fat);
+    }
+
+    private static IngredientNutritionRow rowWithoutFacts(long ingredientId) {
+        return new NutritionRow(ingredientId, null, null, null, null, null, null);
+    }
+
+    private static UnitRatioRow ratio(long ingredientId, long unitId, double ratio) {
+        return new RatioRow(ingredientId, unitId, ratio);
+    }
+
+    private record NutritionRow(Long getIngredientId, Long getNutritionFactId, Long getCategoryId,
+                                Double getKcal, Double getProtein, Double getCarbs, Double getFat)
+            implements IngredientNutritionRow {}
+
+    private record RatioRow(Long getIngredientId, Long getUnitId, Double getRatio) implements UnitRatioRow {}
+}
@@ -0,0 +1,74 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeIdBitmapTest {
+
+    @Test
+    void addAndRemoveMatchASortedSetAcrossChunkLayouts() {
+        Random random = new Random(7L);
+        RecipeIdBitmap bitmap = new RecipeIdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int id = random.nextInt(3) == 0 ? random.nextInt(1 << 20) : random.nextInt(20_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id), bitmap.remove(id));
+            } else {
+                assertEquals(expected.add(id), bitmap.add(id));
+            }
+        }
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertEquals(new ArrayList<>(expected), ids(bitmap));
+        for (int id = 0; id < 70_000; id++) assertEquals(expected.contains(id), bitmap.contains(id));
+    }
+
+    @Test
+    void andKeepsIdsPresentInEveryBitmap() {
+        Random random = new Random(11L);
+        List<RecipeIdBitmap> bitmaps = new ArrayList<>();
+        List<Set<Integer>> sets = new ArrayList<>();
+        int[] densities = {2, 3, 50};
+        for (int density : densities) {
+            RecipeIdBitmap bitmap = new RecipeIdBitmap();
+            Set<Integer> set = new HashSet<>();
+            for (int id = 0; id < 300_000; id++) {
+                if (random.nextInt(density) == 0) {
+                    bitmap.add(id);
+                    set.add(id);
+                }
+            }
+            bitmaps.add(bitmap);
+            sets.add(set);
+        }
+
+        TreeSet<Integer> expected = new TreeSet<>(sets.get(0));
+        sets.forEach(expected::retainAll);
+        RecipeIdBitmap and = RecipeIdBitmap.and(bitmaps);
+        assertEquals(new ArrayList<>(expected), ids(and));
+        assertEquals(expected.size(), and.cardinality());
+
+        TreeSet<Integer> dense = new TreeSet<>(sets.get(0));
+        dense.retainAll(sets.get(1));
+        assertEquals(new ArrayList<>(dense), ids(RecipeIdBitmap.and(bitmaps.subList(0, 2))));
+    }
+
+    @Test
+    void andOfOneBitmapIsACopy() {
+        RecipeIdBitmap bitmap = new RecipeIdBitmap();
+        bitmap.add(5);
+        RecipeIdBitmap copy = RecipeIdBitmap.and(List.of(bitmap));
+        copy.add(6);
+        assertFalse(bitmap.contains(6));
+        assertTrue(RecipeIdBitmap.and(List.of()).isEmpty());
+    }
+
+    private static List<Integer> ids(RecipeIdBitmap bitmap) {
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        return ids;
+    }
+}
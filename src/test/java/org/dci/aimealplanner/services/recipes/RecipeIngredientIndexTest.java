@@ -0,0 +1,85 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.dci.aimealplanner.entities.ingredients.Ingredient;
+import org.dci.aimealplanner.entities.recipes.Recipe;
+import org.dci.aimealplanner.entities.recipes.RecipeIngredient;
+import org.dci.aimealplanner.repositories.recipes.RecipeIngredientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecipeIngredientIndexTest {
+    private static final long RECIPE = 7L;
+    private static final long GARLIC = 1L;
+    private static final long ONION = 2L;
+
+    private RecipeIngredientIndex index;
+    private RecipeIngredientIndexListener listener;
+
+    @BeforeEach
+    void setUp() {
+        RecipeIngredientRepository repository = mock(RecipeIngredientRepository.class);
+        when(repository.findAllIngredientRecipePairs()).thenReturn(List.of());
+        index = new RecipeIngredientIndex(repository);
+        index.recipesUsing(List.of());
+        listener = new RecipeIngredientIndexListener(
+                event -> index.onRecipeIngredientChanged((RecipeIngredientChangedEvent) event));
+    }
+
+    @Test
+    void recipeStaysLinkedWhileAnotherLineUsesTheIngredient() {
+        RecipeIngredient first = line(GARLIC);
+        RecipeIngredient second = line(GARLIC);
+        listener.onPersist(first);
+        listener.onPersist(second);
+
+        listener.onRemove(first);
+        assertEquals(Set.of(RECIPE), index.recipesUsing(List.of(GARLIC)));
+
+        listener.onRemove(second);
+        assertEquals(Set.of(), index.recipesUsing(List.of(GARLIC)));
+    }
+
+    @Test
+    void replacedLineKeepsTheRecipeLinkedWhenTheInsertIsFlushedFirst() {
+        RecipeIngredient old = line(GARLIC);
+        listener.onPersist(old);
+
+        listener.onPersist(line(GARLIC));
+        listener.onRemove(old);
+
+        assertEquals(Set.of(RECIPE), index.recipesUsing(List.of(GARLIC)));
+    }
+
+    @Test
+    void changedIngredientMovesTheLineAndPlainUpdatesCountNothing() {
+        RecipeIngredient line = line(GARLIC);
+        listener.onPersist(line);
+        listener.onUpdate(line);
+        listener.onUpdate(line);
+
+        line.getIngredient().setId(ONION);
+        listener.onUpdate(line);
+        assertEquals(Set.of(), index.recipesUsing(List.of(GARLIC)));
+        assertEquals(Set.of(RECIPE), index.recipesUsing(List.of(ONION)));
+
+        listener.onRemove(line);
+        assertEquals(Set.of(), index.recipesUsing(List.of(ONION)));
+    }
+
+    private static RecipeIngredient line(long ingredientId) {
+        Recipe recipe = new Recipe();
+        recipe.setId(RECIPE);
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(ingredientId);
+        RecipeIngredient line = new RecipeIngredient();
+        line.setRecipe(recipe);
+        line.setIngredient(ingredient);
+        return line;
+    }
+}
@@ -0,0 +1,61 @@
+package org.dci.aimealplanner.services.recipes;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the query expansion against the Postgres database given by {@code DB_URL},
+ * {@code DB_USERNAME} and {@code DB_PASSWORD}, in a scratch schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class RecipeSearchServiceTest {
+    private static final String SCHEMA = "recipe_search_test";
+
+    private static SingleConnectionDataSource dataSource;
+    private static RecipeSearchService service;
+
+    @BeforeAll
+    static void createWords() {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"), true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbcTemplate.execute("CREATE TABLE recipe_search_words (word TEXT PRIMARY KEY)");
+        jdbcTemplate.batchUpdate("INSERT INTO recipe_search_words (word) VALUES (?)",
+                List.of(new Object[]{"chicken"}, new Object[]{"rice"}, new Object[]{"thee"}, new Object[]{"tomato"}));
+        service = new RecipeSearchService(null, jdbcTemplate);
+    }
+
+    @AfterAll
+    static void dropWords() {
+        if (dataSource == null) return;
+        new JdbcTemplate(dataSource).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void stopwordsAddNoRequiredTerm() {
+        assertEquals("('chicken':*) & ('rice':*)", service.fullTextQuery("the chicken with rice"));
+    }
+
+    @Test
+    void onlyStopwordsGiveNoQuery() {
+        assertNull(service.fullTextQuery("the and with"));
+    }
+
+    @Test
+    void misspelledWordStillMatchesItsNeighbours() {
+        assertEquals("('chiken':* | 'chicken')", service.fullTextQuery("chiken"));
+    }
+}
@@ -0,0 +1,46 @@
+package org.dci.aimealplanner.services.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void tokensRoundTripIdsAndTitles() {
+        assertEquals(PageCursor.of(42), PageCursor.decode(PageCursor.of(42).encode()));
+        PageCursor titled = PageCursor.of("Pasta: tomato & basil ünd more", 7);
+        assertEquals(titled, PageCursor.decode(titled.encode()));
+        assertEquals(PageCursor.of("", 3), PageCursor.decode(PageCursor.of(null, 3).encode()));
+        assertFalse(titled.encode().matches(".*[+/=].*"));
+    }
+
+    @Test
+    void missingOrMalformedTokensStartAtTheFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+        assertNull(PageCursor.decode("not a token!"));
+        assertNull(PageCursor.decode("YWJj"));
+    }
+
+    @Test
+    void nextIsTheLastRowOfASliceWithMore() {
+        var more = new SliceImpl<>(List.of(1L, 2L), PageRequest.ofSize(2), true);
+        assertEquals(PageCursor.of(2), PageCursor.decode(PageCursor.next(more, PageCursor::of)));
+        var last = new SliceImpl<>(List.of(3L), PageRequest.ofSize(2), false);
+        assertNull(PageCursor.next(last, PageCursor::of));
+    }
+
+    @Test
+    void titleKeysCompareByLowerCasedCodePoints() {
+        assertEquals("", PageCursor.titleKey(null));
+        assertEquals(0, PageCursor.compareTitleKeys(PageCursor.titleKey("Soup"), PageCursor.titleKey("SOUP")));
+        assertTrue(PageCursor.compareTitleKeys(PageCursor.titleKey("Apple"), PageCursor.titleKey("banana")) < 0);
+        assertTrue(PageCursor.compareTitleKeys("zucchini", "éclair") < 0);
+        assertTrue(PageCursor.compareTitleKeys("\uffff", "\ud83c\udf55") < 0);
+    }
+}